@@ -0,0 +1,91 @@
+package com.github.zvladn7.benchmarks;
+
+import com.github.zvladn7.components.Buffer;
+import com.github.zvladn7.components.BufferDisciplineType;
+import com.github.zvladn7.components.RequestPool;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Operations of the full buffer. Every operation keeps the buffer full,
+ * so the state is the same in every iteration and allocation per operation shows the garbage of the buffer.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class BufferBenchmark {
+
+    @Param({"10", "1000", "100000"})
+    public int bufferSize;
+
+    @Param({"4", "64"})
+    public int amountOfSources;
+
+    @Param({"PACKAGE_PRIORITY", "FIFO", "LIFO", "PRIORITY_DROP_TAIL", "PRIORITY_DROP_LOWEST"})
+    public BufferDisciplineType discipline;
+
+    private RequestPool pool;
+    private Buffer buffer;
+    private SplittableRandom random;
+    private int requestNumber;
+    private double time;
+    private int packageNumber;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        pool = new RequestPool(bufferSize + 2);
+        buffer = new Buffer(bufferSize, amountOfSources, pool, false, discipline);
+        random = new SplittableRandom(bufferSize);
+        for (int i = 0; i < bufferSize; ++i) {
+            buffer.put(nextRequest());
+        }
+        packageNumber = -1;
+    }
+
+    private int nextRequest() {
+        time += 1;
+        return pool.acquire(random.nextInt(amountOfSources), requestNumber++, time);
+    }
+
+    /**
+     * Put to the full buffer, one request is canceled every time.
+     */
+    @Benchmark
+    public int put() {
+        final Buffer.Slot slot = buffer.put(nextRequest());
+        pool.release(slot.getRequest());
+        return slot.getPosition();
+    }
+
+    @Benchmark
+    public int getNextRequestAndPut() {
+        final int request = buffer.getNextRequest().getRequest();
+        pool.release(request);
+        return buffer.put(nextRequest()).getPosition();
+    }
+
+    /**
+     * Take the requests of the package like the controller does and refill the buffer.
+     */
+    @Benchmark
+    public int getPackageRequestAndPut() {
+        Buffer.Slot slot = packageNumber == -1 ? null : buffer.getPackageRequest(packageNumber);
+        if (slot == null) {
+            slot = buffer.getNextRequest();
+            packageNumber = pool.getSourceNumber(slot.getRequest());
+        }
+        pool.release(slot.getRequest());
+        return buffer.put(nextRequest()).getPosition();
+    }
+
+}
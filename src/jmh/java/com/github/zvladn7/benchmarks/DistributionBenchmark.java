@@ -0,0 +1,81 @@
+package com.github.zvladn7.benchmarks;
+
+import com.github.zvladn7.distributions.Distribution;
+import com.github.zvladn7.distributions.Distributions;
+import com.github.zvladn7.distributions.VariateBuffer;
+import com.github.zvladn7.util.RandomStream;
+import com.github.zvladn7.util.Xoshiro256PlusPlus;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One sample of every distribution. Inversion benchmarks sample the same exponential and normal
+ * distributions through log and the Box-Muller transform, they are the baseline of the ziggurat.
+ * Block benchmarks give the time of one sample when the whole block is filled at once.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class DistributionBenchmark {
+
+    @State(Scope.Thread)
+    public static class Sampler {
+
+        @Param({
+                "uniform:1,3",
+                "expuniform:1.2",
+                "exponential:1",
+                "erlang:4,1",
+                "hyperexponential:0.9,0.5,0.1,5.5",
+                "lognormal:0,0.5",
+                "empirical:0.5,1,1,4,2,2,4,1,8,0.5"
+        })
+        public String distribution;
+
+        private Distribution distributionSampler;
+        private final double[] block = new double[VariateBuffer.MAX_BLOCK_SIZE];
+
+        @Setup
+        public void setUp() {
+            distributionSampler = Distributions.parse(distribution);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class Random {
+
+        private final RandomStream stream = new Xoshiro256PlusPlus(1);
+    }
+
+    @Benchmark
+    public double sample(final Sampler sampler, final Random random) {
+        return sampler.distributionSampler.sample(random.stream);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(VariateBuffer.MAX_BLOCK_SIZE)
+    public double[] fillBlock(final Sampler sampler, final Random random) {
+        sampler.distributionSampler.fill(random.stream, sampler.block, sampler.block.length);
+        return sampler.block;
+    }
+
+    @Benchmark
+    public double inversionExponential(final Random random) {
+        return -Math.log(1 - random.stream.nextDouble());
+    }
+
+    @Benchmark
+    public double boxMullerNormal(final Random random) {
+        return Math.sqrt(-2 * Math.log(1 - random.stream.nextDouble()))
+                * Math.cos(2 * Math.PI * random.stream.nextDouble());
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.github.zvladn7.benchmarks;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.RecordingLevel;
+import com.github.zvladn7.analytics.SourceResults;
+import com.github.zvladn7.controllers.Controller;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Full runs of the engine. The score is in generated requests per second,
+ * the events counter gives arrivals and completions per second,
+ * gc.alloc.rate.norm of the gc profiler is the heap allocated per generated request.
+ * Benchmarks log at warn (src/jmh/resources/logback-jmh.xml), so FULL_TRACE measures the recording of events
+ * and not the console output of the trace.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ModulateWorkBenchmark {
+
+    private static final int REQUESTS_NUMBER = 200_000;
+
+    @Param({"4", "1000"})
+    public int amountOfSources;
+
+    @Param({"4", "1000"})
+    public int amountOfDevices;
+
+    @Param({"STATS_ONLY", "BOUNDED_TAIL", "FULL_TRACE"})
+    public RecordingLevel recordingLevel;
+
+    private Controller controller;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        controller = Controller.newBuilder()
+                .setAlpha(1)
+                .setBeta(3)
+                .setLamda(1.2 * amountOfDevices / amountOfSources)
+                .setAmountOfSources(amountOfSources)
+                .setAmountOfDevices(amountOfDevices)
+                .setBufferSize(100)
+                .setRequestsNumber(REQUESTS_NUMBER)
+                .setRecordingLevel(recordingLevel)
+                .setMetricsEnabled(false)
+                .setSeed(1)
+                .build();
+    }
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Events {
+        public long events;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(REQUESTS_NUMBER)
+    public Analytics modulateWork(final Events counter) {
+        final Analytics analytics = controller.modulateWork();
+        for (final SourceResults results : analytics.getSourceResultsList()) {
+            counter.events += results.getGenNumber() + results.getProcessedNumber();
+        }
+        return analytics;
+    }
+
+}
@@ -0,0 +1,57 @@
+package com.github.zvladn7.benchmarks;
+
+import com.github.zvladn7.components.RequestPool;
+import com.github.zvladn7.distributions.UniformDistribution;
+import com.github.zvladn7.managers.EventCalendar;
+import com.github.zvladn7.managers.ProductionManager;
+import com.github.zvladn7.util.RandomAlgorithm;
+import com.github.zvladn7.util.RandomStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * One operation is one arrival event: the nearest arrival is taken from the calendar,
+ * the request is generated and the next arrival of the source is scheduled.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class ProductionManagerBenchmark {
+
+    @Param({"4", "1000", "100000"})
+    public int amountOfSources;
+
+    @Param({"XOSHIRO256_PLUS_PLUS", "JDK"})
+    public RandomAlgorithm randomAlgorithm;
+
+    private EventCalendar calendar;
+    private RequestPool pool;
+    private ProductionManager productionManager;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        calendar = new EventCalendar(amountOfSources, 0);
+        pool = new RequestPool(1);
+        productionManager = new ProductionManager(amountOfSources, new UniformDistribution(1, 2), calendar, pool,
+                new RandomStreams(1, randomAlgorithm));
+    }
+
+    @Benchmark
+    public int generate() {
+        final double time = calendar.getNextTime();
+        final int event = calendar.pollNext();
+        final int request = productionManager.generate(calendar.getSourceNumber(event), time);
+        pool.release(request);
+        return request;
+    }
+
+}
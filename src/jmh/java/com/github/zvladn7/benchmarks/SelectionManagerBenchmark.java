@@ -0,0 +1,63 @@
+package com.github.zvladn7.benchmarks;
+
+import com.github.zvladn7.distributions.Distribution;
+import com.github.zvladn7.distributions.ExpUniformDistribution;
+import com.github.zvladn7.managers.DeviceSelectionType;
+import com.github.zvladn7.managers.EventCalendar;
+import com.github.zvladn7.managers.SelectionManager;
+import com.github.zvladn7.util.RandomAlgorithm;
+import com.github.zvladn7.util.RandomStreams;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * All devices are busy, every released device gets the new request at once like under the full buffer.
+ * One operation takes the nearest event from the calendar and releases its device like the simulation loop does.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class SelectionManagerBenchmark {
+
+    @Param({"16", "1024", "65536"})
+    public int amountOfDevices;
+
+    @Param({"RING", "FIRST_FREE", "LEAST_USED", "RANDOM_FREE", "FASTEST_FIRST"})
+    public DeviceSelectionType selection;
+
+    private EventCalendar calendar;
+    private SelectionManager selectionManager;
+    private SelectionManager.DoneListener listener;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        calendar = new EventCalendar(0, amountOfDevices);
+        final Distribution[] serviceTimes = new Distribution[amountOfDevices];
+        Arrays.fill(serviceTimes, new ExpUniformDistribution(1));
+        selectionManager = new SelectionManager(serviceTimes, selection, calendar,
+                new RandomStreams(1, RandomAlgorithm.XOSHIRO256_PLUS_PLUS));
+        for (int i = 0; i < amountOfDevices; ++i) {
+            selectionManager.executeRequest(i, 0);
+        }
+        listener = (deviceNumber, doneRequest, doneTime, timeOfWork) ->
+                selectionManager.executeRequest(doneRequest, doneTime);
+    }
+
+    @Benchmark
+    public int releaseDevice() {
+        final int deviceNumber = calendar.getDeviceNumber(calendar.pollNext());
+        selectionManager.releaseDevice(deviceNumber, listener);
+        return deviceNumber;
+    }
+
+}
@@ -1,14 +1,14 @@
 package com.github.zvladn7.analytics;
 
-import com.github.zvladn7.util.Pair;
-import com.github.zvladn7.components.Request;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
-import java.util.TreeMap;
 
 public class Analytics {
 
@@ -30,13 +30,21 @@ public class Analytics {
     7 - коэфициент использования устройств (время работы каждого прибора / время реализации)
      */
 
+    public static final int DEFAULT_TAIL_SIZE = 10_000;
+
     /**
-     * Map field that representing analytics of process.
-     * Where:
-     * Key: Pair: key - time, value - pair where key - type of event, value - request's source number
-     * Value: Pair - key - component number, value - additional info
+     * Recorder of special events of the process in the order they happened.
+     * Component number is the buffer position or the device number,
+     * additional info is the package number for the removal from buffer.
+     * Null if events are not recorded on the recording level.
      */
-    private TreeMap<Pair<Double, Pair<EventType, Integer>>, Pair<Integer, Integer>> analyticsByStep;
+    private final EventRecorder eventRecorder;
+    private EventTrace eventTrace;
+
+    private final RecordingLevel recordingLevel;
+    private final boolean countersEnabled;
+    private final boolean eventsEnabled;
+    private final boolean tracing;
     private double fullTimeOfWork;
 
     /**
@@ -59,28 +67,183 @@ public class Analytics {
     private double[] timeOfWait;
     private double[] timeOnDevice;
 
+    /**
+     * Moments of the wait of every request that left the buffer (including canceled ones),
+     * of the service time and of the time in system of every request that left the system.
+     */
+    private MomentAccumulator[] waitMoments;
+    private MomentAccumulator[] serviceMoments;
+    private MomentAccumulator[] sojournMoments;
+
+    private final int histogramPrecision;
+
+    /**
+     * Distributions of the same values as the moments above,
+     * histogram of the source is created on its first value.
+     */
+    private LogHistogram[] waitHistograms;
+    private LogHistogram[] serviceHistograms;
+    private LogHistogram[] sojournHistograms;
+
     //for devices
     private double[] deviceWorkTime;
 
+    /**
+     * Busy period lasts while the device gets the next request at the same time it is freed.
+     * End is NaN while the device is busy or before its first request.
+     */
+    private MomentAccumulator[] busyPeriodMoments;
+    private double[] busyPeriodStart;
+    private double[] busyPeriodEnd;
+
+    /**
+     * Time from which the counters are counted, it is moved to the end of the transient by the warm-up detection.
+     */
+    private double countersStartTime;
+
+    /**
+     * Detector of the transient fed by times in system, null if the detection is off or the transient is over.
+     */
+    private WarmupDetector warmupDetector;
+
+    /**
+     * Batch means of the same observations as the moments and indicators of cancel, null if they are off.
+     */
+    private BatchMeans[] waitBatches;
+    private BatchMeans[] sojournBatches;
+    private BatchMeans[] cancelBatches;
+
     public Analytics(final int sourcesAmount, final int devicesAmount) {
-        analyticsByStep = new TreeMap<>((first, second) -> {
-            int compare = first.key.compareTo(second.key);
-            if (compare > 0) {
-                return 1;
-            } else if (compare == 0) {
-                Pair<EventType, Integer> firstValue = first.value;
-                Pair<EventType, Integer> secondValue = second.value;
-                compare = firstValue.key.compareTo(secondValue.key);
-                if (compare == 0) {
-                    return firstValue.value.compareTo(secondValue.value);
-                } else {
-                    return compare;
-                }
-            } else {
-                return -1;
-            }
-        });
+        this(sourcesAmount, devicesAmount, RecordingLevel.FULL_TRACE, DEFAULT_TAIL_SIZE);
+    }
+
+    /**
+     * @param recordingLevel - what is recorded during the run
+     * @param tailSize - amount of the last events kept on the BOUNDED_TAIL level
+     */
+    public Analytics(final int sourcesAmount,
+                     final int devicesAmount,
+                     final RecordingLevel recordingLevel,
+                     final int tailSize) {
+        this(sourcesAmount, devicesAmount, recordingLevel, tailSize, LogHistogram.DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * @param recordingLevel - what is recorded during the run
+     * @param tailSize - amount of the last events kept on the BOUNDED_TAIL level
+     * @param histogramPrecision - precision bits of histograms of times, see {@link LogHistogram}
+     */
+    public Analytics(final int sourcesAmount,
+                     final int devicesAmount,
+                     final RecordingLevel recordingLevel,
+                     final int tailSize,
+                     final int histogramPrecision) {
+        this(sourcesAmount, devicesAmount, recordingLevel, createRecorder(recordingLevel, tailSize), histogramPrecision);
+    }
+
+    /**
+     * @param recordingLevel - what is recorded during the run
+     * @param eventRecorder - destination of events, used only if the level records events
+     */
+    public Analytics(final int sourcesAmount,
+                     final int devicesAmount,
+                     final RecordingLevel recordingLevel,
+                     final EventRecorder eventRecorder) {
+        this(sourcesAmount, devicesAmount, recordingLevel, eventRecorder, LogHistogram.DEFAULT_PRECISION_BITS);
+    }
+
+    /**
+     * @param recordingLevel - what is recorded during the run
+     * @param eventRecorder - destination of events, used only if the level records events
+     * @param histogramPrecision - precision bits of histograms of times, see {@link LogHistogram}
+     */
+    public Analytics(final int sourcesAmount,
+                     final int devicesAmount,
+                     final RecordingLevel recordingLevel,
+                     final EventRecorder eventRecorder,
+                     final int histogramPrecision) {
+        this.recordingLevel = recordingLevel;
+        this.countersEnabled = recordingLevel.isCountersEnabled();
+        this.eventsEnabled = recordingLevel.isEventsEnabled();
+        this.tracing = recordingLevel == RecordingLevel.FULL_TRACE && logger.isInfoEnabled();
+        this.eventRecorder = eventsEnabled ? eventRecorder : null;
         statArraysInit(sourcesAmount, devicesAmount);
+        this.histogramPrecision = histogramPrecision;
+        waitHistograms = new LogHistogram[sourcesAmount];
+        serviceHistograms = new LogHistogram[sourcesAmount];
+        sojournHistograms = new LogHistogram[sourcesAmount];
+    }
+
+    /**
+     * Copy of the counters, histograms are shared until the first change, see {@link LogHistogram#snapshot()}.
+     */
+    private Analytics(final Analytics other) {
+        this.recordingLevel = other.recordingLevel.isEventsEnabled() ? RecordingLevel.STATS_ONLY : other.recordingLevel;
+        this.countersEnabled = other.countersEnabled;
+        this.eventsEnabled = false;
+        this.tracing = false;
+        this.eventRecorder = null;
+        this.fullTimeOfWork = other.fullTimeOfWork;
+        amountOfGeneratedRequests = other.amountOfGeneratedRequests.clone();
+        amountOfFailed = other.amountOfFailed.clone();
+        amountOfProcessed = other.amountOfProcessed.clone();
+        timeInSystem = other.timeInSystem.clone();
+        timeOfWait = other.timeOfWait.clone();
+        timeOnDevice = other.timeOnDevice.clone();
+        deviceWorkTime = other.deviceWorkTime.clone();
+        waitMoments = copyMoments(other.waitMoments);
+        serviceMoments = copyMoments(other.serviceMoments);
+        sojournMoments = copyMoments(other.sojournMoments);
+        busyPeriodMoments = copyMoments(other.busyPeriodMoments);
+        busyPeriodStart = other.busyPeriodStart.clone();
+        busyPeriodEnd = other.busyPeriodEnd.clone();
+        histogramPrecision = other.histogramPrecision;
+        waitHistograms = snapshotHistograms(other.waitHistograms);
+        serviceHistograms = snapshotHistograms(other.serviceHistograms);
+        sojournHistograms = snapshotHistograms(other.sojournHistograms);
+        countersStartTime = other.countersStartTime;
+        warmupDetector = other.warmupDetector != null ? other.warmupDetector.copy() : null;
+        waitBatches = copyBatches(other.waitBatches);
+        sojournBatches = copyBatches(other.sojournBatches);
+        cancelBatches = copyBatches(other.cancelBatches);
+    }
+
+    private static BatchMeans[] copyBatches(final BatchMeans[] batches) {
+        if (batches == null) {
+            return null;
+        }
+        final BatchMeans[] copy = new BatchMeans[batches.length];
+        for (int i = 0; i < batches.length; ++i) {
+            copy[i] = batches[i].copy();
+        }
+        return copy;
+    }
+
+    private static MomentAccumulator[] copyMoments(final MomentAccumulator[] moments) {
+        final MomentAccumulator[] copy = new MomentAccumulator[moments.length];
+        for (int i = 0; i < moments.length; ++i) {
+            copy[i] = moments[i].copy();
+        }
+        return copy;
+    }
+
+    private static LogHistogram[] snapshotHistograms(final LogHistogram[] histograms) {
+        final LogHistogram[] snapshot = new LogHistogram[histograms.length];
+        for (int i = 0; i < histograms.length; ++i) {
+            if (histograms[i] != null) {
+                snapshot[i] = histograms[i].snapshot();
+            }
+        }
+        return snapshot;
+    }
+
+    private static EventRecorder createRecorder(final RecordingLevel recordingLevel, final int tailSize) {
+        if (recordingLevel == RecordingLevel.FULL_TRACE) {
+            return new EventLog();
+        } else if (recordingLevel == RecordingLevel.BOUNDED_TAIL) {
+            return new EventLog(tailSize);
+        }
+        return null;
     }
 
     private void statArraysInit(final int sourcesAmount, int devicesAmount) {
@@ -90,72 +253,425 @@ public class Analytics {
         timeInSystem = new double[sourcesAmount];
         timeOfWait = new double[sourcesAmount];
         timeOnDevice = new double[sourcesAmount];
-        System.out.println(Arrays.toString(timeInSystem));
-        System.out.println(Arrays.toString(timeOfWait));
-        System.out.println(Arrays.toString(timeOnDevice));
         deviceWorkTime = new double[devicesAmount];
+        waitMoments = createMoments(sourcesAmount);
+        serviceMoments = createMoments(sourcesAmount);
+        sojournMoments = createMoments(sourcesAmount);
+        busyPeriodMoments = createMoments(devicesAmount);
+        busyPeriodStart = new double[devicesAmount];
+        busyPeriodEnd = new double[devicesAmount];
+        Arrays.fill(busyPeriodEnd, Double.NaN);
+    }
+
+    /**
+     * @return histogram of the source, it is created if there is no one yet
+     */
+    private LogHistogram histogramOf(final LogHistogram[] histograms, final int sourceNumber) {
+        LogHistogram histogram = histograms[sourceNumber];
+        if (histogram == null) {
+            histogram = createHistogram();
+            histograms[sourceNumber] = histogram;
+        }
+        return histogram;
+    }
+
+    private LogHistogram createHistogram() {
+        return new LogHistogram(histogramPrecision, LogHistogram.DEFAULT_MIN_EXPONENT, LogHistogram.DEFAULT_MAX_EXPONENT);
+    }
+
+    private static Percentiles percentilesOf(final LogHistogram histogram) {
+        return histogram == null ? Percentiles.UNKNOWN : Percentiles.of(histogram);
+    }
+
+    private static void clearHistogram(final LogHistogram histogram) {
+        if (histogram != null) {
+            histogram.clear();
+        }
+    }
+
+    private void mergeHistogram(final LogHistogram[] histograms, final int sourceNumber, final LogHistogram other) {
+        if (other != null) {
+            histogramOf(histograms, sourceNumber).merge(other);
+        }
+    }
+
+    private static void writeHistogram(final DataOutput out, final LogHistogram histogram) throws IOException {
+        out.writeBoolean(histogram != null);
+        if (histogram != null) {
+            histogram.writeState(out);
+        }
+    }
+
+    private void readHistogram(final DataInput in, final LogHistogram[] histograms, final int sourceNumber)
+            throws IOException {
+        if (in.readBoolean()) {
+            histogramOf(histograms, sourceNumber).readState(in);
+        } else {
+            histograms[sourceNumber] = null;
+        }
+    }
+
+    private static MomentAccumulator[] createMoments(final int amount) {
+        final MomentAccumulator[] moments = new MomentAccumulator[amount];
+        for (int i = 0; i < amount; ++i) {
+            moments[i] = new MomentAccumulator();
+        }
+        return moments;
+    }
+
+    /**
+     * Reset the counters at the end of the initial transient found by {@link WarmupDetector},
+     * the end is checked by {@link #detectWarmup(double)}.
+     */
+    public void enableWarmupDetection() {
+        if (countersEnabled) {
+            warmupDetector = new WarmupDetector();
+        }
+    }
+
+    /**
+     * Collect batch means of wait, time in system and cancel of every source,
+     * see {@link #getBatchMeansEstimates(double)}.
+     * @param batches - minimal amount of batches, see {@link BatchMeans}
+     */
+    public void enableBatchMeans(final int batches) {
+        if (!countersEnabled) {
+            return;
+        }
+        waitBatches = createBatches(amountOfGeneratedRequests.length, batches);
+        sojournBatches = createBatches(amountOfGeneratedRequests.length, batches);
+        cancelBatches = createBatches(amountOfGeneratedRequests.length, batches);
     }
 
-    public void addGeneratedRequest(final Request request) {
-        final int sourceNumber = request.getSourceNumber();
+    private static BatchMeans[] createBatches(final int amount, final int batches) {
+        final BatchMeans[] batchMeans = new BatchMeans[amount];
+        for (int i = 0; i < amount; ++i) {
+            batchMeans[i] = new BatchMeans(batches);
+        }
+        return batchMeans;
+    }
+
+    /**
+     * Reset the counters if the transient is over, it is cheap to invoke often.
+     * @param time - current time of the run
+     * @return true if the counters are reset by this invocation
+     */
+    public boolean detectWarmup(final double time) {
+        if (warmupDetector == null || !warmupDetector.isWarmedUp()) {
+            return false;
+        }
+        logger.info("Переходный процесс завершен в {}, отброшено {} наблюдений",
+                time, warmupDetector.getObservations());
+        warmupDetector = null;
+        resetCounters(time);
+        return true;
+    }
+
+    /**
+     * Forget everything counted before the time. Requests which are in the system at the time are counted
+     * when they leave it, work of devices before the time is not counted. Events are kept.
+     * @param time - current time of the run
+     */
+    public void resetCounters(final double time) {
+        countersStartTime = time;
+        Arrays.fill(amountOfGeneratedRequests, 0);
+        Arrays.fill(amountOfFailed, 0);
+        Arrays.fill(amountOfProcessed, 0);
+        Arrays.fill(timeInSystem, 0);
+        Arrays.fill(timeOfWait, 0);
+        Arrays.fill(timeOnDevice, 0);
+        Arrays.fill(deviceWorkTime, 0);
+        for (int i = 0; i < amountOfGeneratedRequests.length; ++i) {
+            waitMoments[i].clear();
+            serviceMoments[i].clear();
+            sojournMoments[i].clear();
+            clearHistogram(waitHistograms[i]);
+            clearHistogram(serviceHistograms[i]);
+            clearHistogram(sojournHistograms[i]);
+            if (waitBatches != null) {
+                waitBatches[i].clear();
+                sojournBatches[i].clear();
+                cancelBatches[i].clear();
+            }
+        }
+        for (int i = 0; i < deviceWorkTime.length; ++i) {
+            busyPeriodMoments[i].clear();
+            if (Double.isNaN(busyPeriodEnd[i])) {
+                busyPeriodStart[i] = time;
+            } else {
+                busyPeriodEnd[i] = Double.NaN;
+            }
+        }
+    }
+
+    /**
+     * @return time from which the counters are counted, the end of the transient if it is detected or 0
+     */
+    public double getCountersStartTime() {
+        return countersStartTime;
+    }
+
+    public void addGeneratedRequest(final int sourceNumber, final double time) {
+        if (!countersEnabled) {
+            return;
+        }
         amountOfGeneratedRequests[sourceNumber]++;
-        analyticsByStep.put(
-                new Pair<>(request.getInitialTime(), new Pair<>(EventType.GENERATED_REQUEST, sourceNumber)),
-                new Pair<>(sourceNumber, null));
+        if (eventsEnabled) {
+            eventRecorder.add(time, EventType.GENERATED_REQUEST, sourceNumber, sourceNumber, EventLog.NO_INFO);
+        }
     }
 
-    public void cancelRequest(final Request request, final Request nextRequest, final int bufferPos) {
-        final int sourceNumber = request.getSourceNumber();
-        final double initialTime = request.getInitialTime();
+    public void cancelRequest(final int sourceNumber,
+                              final double initialTime,
+                              final int nextSourceNumber,
+                              final double time,
+                              final int bufferPos) {
+        if (!countersEnabled) {
+            return;
+        }
         amountOfFailed[sourceNumber]++;
-        timeOfWait[sourceNumber] += nextRequest.getInitialTime() - initialTime;
-        logger.info("Время ожидания выбитой заявки: {}", (nextRequest.getInitialTime() - initialTime));
-        if (bufferPos != -1) {
-            analyticsByStep.put(
-                    new Pair<>(nextRequest.getInitialTime(), new Pair<>(EventType.CANCELED_REQUEST, request.getSourceNumber())),
-                    new Pair<>(bufferPos, null));
-            addRequestToBuffer(nextRequest, -1);
+        timeOfWait[sourceNumber] += time - initialTime;
+        waitMoments[sourceNumber].add(time - initialTime);
+        sojournMoments[sourceNumber].add(time - initialTime);
+        histogramOf(waitHistograms, sourceNumber).record(time - initialTime);
+        histogramOf(sojournHistograms, sourceNumber).record(time - initialTime);
+        if (warmupDetector != null) {
+            warmupDetector.add(time - initialTime);
+        }
+        if (cancelBatches != null) {
+            cancelBatches[sourceNumber].add(1);
+            waitBatches[sourceNumber].add(time - initialTime);
+            sojournBatches[sourceNumber].add(time - initialTime);
+        }
+        if (tracing) {
+            logger.info("Время ожидания выбитой заявки: {}", (time - initialTime));
+        }
+        if (eventsEnabled && bufferPos != -1) {
+            eventRecorder.add(time, EventType.CANCELED_REQUEST, sourceNumber, bufferPos, EventLog.NO_INFO);
+            addRequestToBuffer(nextSourceNumber, time, -1);
         }
     }
 
-    public void addRequestToBuffer(final Request nextRequest,
-                                   final Integer bufferPosition) {
-        analyticsByStep.put(
-                new Pair<>(nextRequest.getInitialTime(), new Pair<>(EventType.PUT_TO_BUFFER, nextRequest.getSourceNumber())),
-                new Pair<>(bufferPosition, null));
+    public void addRequestToBuffer(final int sourceNumber,
+                                   final double time,
+                                   final int bufferPosition) {
+        if (eventsEnabled) {
+            eventRecorder.add(time, EventType.PUT_TO_BUFFER, sourceNumber, bufferPosition, EventLog.NO_INFO);
+        }
     }
 
-    public void removeFromBuffer(final Request request,
-                                 final Integer bufferPosition,
+    public void removeFromBuffer(final int sourceNumber,
+                                 final double initialTime,
+                                 final int bufferPosition,
                                  final double time,
                                  final int packageNum) {
-        final int sourceNumber = request.getSourceNumber();
-        timeOfWait[sourceNumber] += time - request.getInitialTime();
-        logger.info("Время ожидания заявки в буфере: {}", (time - request.getInitialTime()));
-        analyticsByStep.put(
-                new Pair<>(time, new Pair<>(EventType.REMOVE_FROM_BUFFER, request.getSourceNumber())),
-                new Pair<>(bufferPosition, packageNum));
+        if (!countersEnabled) {
+            return;
+        }
+        timeOfWait[sourceNumber] += time - initialTime;
+        waitMoments[sourceNumber].add(time - initialTime);
+        histogramOf(waitHistograms, sourceNumber).record(time - initialTime);
+        if (waitBatches != null) {
+            waitBatches[sourceNumber].add(time - initialTime);
+        }
+        if (tracing) {
+            logger.info("Время ожидания заявки в буфере: {}", (time - initialTime));
+        }
+        if (eventsEnabled) {
+            eventRecorder.add(time, EventType.REMOVE_FROM_BUFFER, sourceNumber, bufferPosition, packageNum);
+        }
     }
 
     public void putOnDevice(final int deviceNumber,
                             final double time,
                             final int sourceNumber) {
-        analyticsByStep.put(
-                new Pair<>(time, new Pair<>(EventType.PUT_ON_DEVICE, sourceNumber)),
-                new Pair<>(deviceNumber, null));
+        if (!countersEnabled) {
+            return;
+        }
+        final double end = busyPeriodEnd[deviceNumber];
+        if (Double.isNaN(end)) {
+            busyPeriodStart[deviceNumber] = time;
+        } else if (end != time) {
+            busyPeriodMoments[deviceNumber].add(end - busyPeriodStart[deviceNumber]);
+            busyPeriodStart[deviceNumber] = time;
+        }
+        busyPeriodEnd[deviceNumber] = Double.NaN;
+        if (eventsEnabled) {
+            eventRecorder.add(time, EventType.PUT_ON_DEVICE, sourceNumber, deviceNumber, EventLog.NO_INFO);
+        }
     }
 
+    /**
+     * @param initialTime - time of the request generation
+     */
     public void addDoneRequest(final int deviceNumber,
-                               final Request request,
-                               final double timeOnDevice,
+                               final int sourceNumber,
+                               final double initialTime,
+                               final double doneTime,
                                final double timeOfWork) {
-        final int sourceNumber = request.getSourceNumber();
-        this.timeOnDevice[sourceNumber] += timeOnDevice;
-        this.deviceWorkTime[deviceNumber] += timeOfWork;
+        if (!countersEnabled) {
+            return;
+        }
+        this.timeOnDevice[sourceNumber] += timeOfWork;
+        this.deviceWorkTime[deviceNumber] += countersStartTime > doneTime - timeOfWork
+                ? doneTime - countersStartTime
+                : timeOfWork;
         this.amountOfProcessed[sourceNumber]++;
-        this.analyticsByStep.put(
-                new Pair<>(timeOnDevice, new Pair<>(EventType.FREE_DEVICE, request.getSourceNumber())),
-                new Pair<>(deviceNumber, null));
+        serviceMoments[sourceNumber].add(timeOfWork);
+        sojournMoments[sourceNumber].add(doneTime - initialTime);
+        histogramOf(serviceHistograms, sourceNumber).record(timeOfWork);
+        histogramOf(sojournHistograms, sourceNumber).record(doneTime - initialTime);
+        if (warmupDetector != null) {
+            warmupDetector.add(doneTime - initialTime);
+        }
+        if (cancelBatches != null) {
+            cancelBatches[sourceNumber].add(0);
+            sojournBatches[sourceNumber].add(doneTime - initialTime);
+        }
+        busyPeriodEnd[deviceNumber] = doneTime;
+        if (eventsEnabled) {
+            eventRecorder.add(doneTime, EventType.FREE_DEVICE, sourceNumber, deviceNumber, EventLog.NO_INFO);
+        }
+    }
+
+    /**
+     * Add counters of the other run to this one. Merge is associative, so replications
+     * can be merged in any grouping, the merged analytics has no events.
+     * @param other - analytics of the run with the same amount of sources and devices
+     * @return this analytics
+     */
+    public Analytics mergeWith(final Analytics other) {
+        if (other.amountOfGeneratedRequests.length != amountOfGeneratedRequests.length
+                || other.deviceWorkTime.length != deviceWorkTime.length) {
+            throw new IllegalArgumentException("Analytics of different systems can not be merged");
+        }
+        for (int i = 0; i < amountOfGeneratedRequests.length; ++i) {
+            amountOfGeneratedRequests[i] += other.amountOfGeneratedRequests[i];
+            amountOfFailed[i] += other.amountOfFailed[i];
+            amountOfProcessed[i] += other.amountOfProcessed[i];
+            timeInSystem[i] += other.timeInSystem[i];
+            timeOfWait[i] += other.timeOfWait[i];
+            timeOnDevice[i] += other.timeOnDevice[i];
+            waitMoments[i].merge(other.waitMoments[i]);
+            serviceMoments[i].merge(other.serviceMoments[i]);
+            sojournMoments[i].merge(other.sojournMoments[i]);
+            mergeHistogram(waitHistograms, i, other.waitHistograms[i]);
+            mergeHistogram(serviceHistograms, i, other.serviceHistograms[i]);
+            mergeHistogram(sojournHistograms, i, other.sojournHistograms[i]);
+        }
+        for (int i = 0; i < deviceWorkTime.length; ++i) {
+            deviceWorkTime[i] += other.deviceWorkTime[i];
+            busyPeriodMoments[i].merge(other.busyPeriodMoments[i]);
+        }
+        fullTimeOfWork += other.fullTimeOfWork;
+        return this;
+    }
+
+    /**
+     * Copy of the counters in the middle of the run without events, it is cheap to take on the simulation thread
+     * and is not changed by the run, so it can be read or saved by another thread.
+     */
+    public Analytics snapshot() {
+        return new Analytics(this);
+    }
+
+    /**
+     * Save all counters including the unfinished busy periods, events are not saved.
+     */
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeDouble(fullTimeOfWork);
+        out.writeInt(amountOfGeneratedRequests.length);
+        out.writeInt(deviceWorkTime.length);
+        for (int i = 0; i < amountOfGeneratedRequests.length; ++i) {
+            out.writeInt(amountOfGeneratedRequests[i]);
+            out.writeInt(amountOfFailed[i]);
+            out.writeInt(amountOfProcessed[i]);
+            out.writeDouble(timeInSystem[i]);
+            out.writeDouble(timeOfWait[i]);
+            out.writeDouble(timeOnDevice[i]);
+            waitMoments[i].writeState(out);
+            serviceMoments[i].writeState(out);
+            sojournMoments[i].writeState(out);
+            writeHistogram(out, waitHistograms[i]);
+            writeHistogram(out, serviceHistograms[i]);
+            writeHistogram(out, sojournHistograms[i]);
+        }
+        for (int i = 0; i < deviceWorkTime.length; ++i) {
+            out.writeDouble(deviceWorkTime[i]);
+            busyPeriodMoments[i].writeState(out);
+            out.writeDouble(busyPeriodStart[i]);
+            out.writeDouble(busyPeriodEnd[i]);
+        }
+        out.writeDouble(countersStartTime);
+        out.writeBoolean(warmupDetector != null);
+        if (warmupDetector != null) {
+            warmupDetector.writeState(out);
+        }
+        out.writeBoolean(cancelBatches != null);
+        if (cancelBatches != null) {
+            for (int i = 0; i < cancelBatches.length; ++i) {
+                waitBatches[i].writeState(out);
+                sojournBatches[i].writeState(out);
+                cancelBatches[i].writeState(out);
+            }
+        }
+    }
+
+    /**
+     * Replace counters with the saved ones of the system with the same amount of sources and devices.
+     */
+    public void readState(final DataInput in) throws IOException {
+        fullTimeOfWork = in.readDouble();
+        if (in.readInt() != amountOfGeneratedRequests.length || in.readInt() != deviceWorkTime.length) {
+            throw new IOException("Saved analytics is of the different system");
+        }
+        for (int i = 0; i < amountOfGeneratedRequests.length; ++i) {
+            amountOfGeneratedRequests[i] = in.readInt();
+            amountOfFailed[i] = in.readInt();
+            amountOfProcessed[i] = in.readInt();
+            timeInSystem[i] = in.readDouble();
+            timeOfWait[i] = in.readDouble();
+            timeOnDevice[i] = in.readDouble();
+            waitMoments[i].readState(in);
+            serviceMoments[i].readState(in);
+            sojournMoments[i].readState(in);
+            readHistogram(in, waitHistograms, i);
+            readHistogram(in, serviceHistograms, i);
+            readHistogram(in, sojournHistograms, i);
+        }
+        for (int i = 0; i < deviceWorkTime.length; ++i) {
+            deviceWorkTime[i] = in.readDouble();
+            busyPeriodMoments[i].readState(in);
+            busyPeriodStart[i] = in.readDouble();
+            busyPeriodEnd[i] = in.readDouble();
+        }
+        countersStartTime = in.readDouble();
+        if (in.readBoolean()) {
+            if (warmupDetector == null) {
+                throw new IOException("Saved analytics detects warm-up, but this one does not");
+            }
+            warmupDetector.readState(in);
+        } else {
+            // detection is off or the transient is already over
+            warmupDetector = null;
+        }
+        if (in.readBoolean() != (cancelBatches != null)) {
+            throw new IOException("Saved analytics has other batch means");
+        }
+        if (cancelBatches != null) {
+            for (int i = 0; i < cancelBatches.length; ++i) {
+                waitBatches[i].readState(in);
+                sojournBatches[i].readState(in);
+                cancelBatches[i].readState(in);
+            }
+        }
+    }
+
+    /**
+     * @return empty STATS_ONLY analytics to merge runs of the system into
+     */
+    public static Analytics emptyFor(final int sourcesAmount, final int devicesAmount, final int histogramPrecision) {
+        return new Analytics(sourcesAmount, devicesAmount, RecordingLevel.STATS_ONLY, null, histogramPrecision);
     }
 
     public void calcTimeInSystem() {
@@ -164,11 +680,41 @@ public class Analytics {
         }
     }
 
-    public TreeMap<Pair<Double, Pair<EventType, Integer>>, Pair<Integer, Integer>> getAnalyticsByStep() {
-        return analyticsByStep;
+    /**
+     * Complete recording of events and busy periods, must be invoked once after the end of the run.
+     * Busy periods of devices which are still busy are not complete and are not counted.
+     */
+    public void finishRecording() {
+        for (int i = 0; i < busyPeriodEnd.length; ++i) {
+            if (!Double.isNaN(busyPeriodEnd[i])) {
+                busyPeriodMoments[i].add(busyPeriodEnd[i] - busyPeriodStart[i]);
+                busyPeriodEnd[i] = Double.NaN;
+            }
+        }
+        if (eventRecorder != null) {
+            eventTrace = eventRecorder.finish();
+        }
+    }
+
+    /**
+     * @return recorded events or null if events are not recorded on the recording level
+     */
+    public EventTrace getEventTrace() {
+        return eventTrace;
+    }
+
+    public RecordingLevel getRecordingLevel() {
+        return recordingLevel;
     }
 
     public List<SourceResults> getSourceResultsList() {
+        return getSourceResultsList(true);
+    }
+
+    /**
+     * @param withPercentiles - false to skip the scan of histograms, percentiles are NaN then
+     */
+    public List<SourceResults> getSourceResultsList(final boolean withPercentiles) {
         final List<SourceResults> resultsList = new ArrayList<>();
         for (int i = 0; i < amountOfGeneratedRequests.length; ++i) {
             resultsList.add(new SourceResults(
@@ -181,12 +727,64 @@ public class Analytics {
                     getAvgTimeOfWait(i),
                     getAvgTimeOnDevice(i),
                     getDispOfWait(i),
-                    getDispOfProcess(i)
+                    getDispOfProcess(i),
+                    waitMoments[i].copy(),
+                    serviceMoments[i].copy(),
+                    sojournMoments[i].copy(),
+                    withPercentiles ? percentilesOf(waitHistograms[i]) : Percentiles.UNKNOWN,
+                    withPercentiles ? percentilesOf(serviceHistograms[i]) : Percentiles.UNKNOWN,
+                    withPercentiles ? percentilesOf(sojournHistograms[i]) : Percentiles.UNKNOWN
             ));
         }
         return resultsList;
     }
 
+    /**
+     * @return histogram of the wait in the buffer of processed and canceled requests of the source,
+     * empty if there are no values
+     */
+    public LogHistogram getWaitHistogram(final int sourceNumber) {
+        final LogHistogram histogram = waitHistograms[sourceNumber];
+        return histogram != null ? histogram : createHistogram();
+    }
+
+    /**
+     * @return histogram of the service time of processed requests of the source, empty if there are no values
+     */
+    public LogHistogram getServiceHistogram(final int sourceNumber) {
+        final LogHistogram histogram = serviceHistograms[sourceNumber];
+        return histogram != null ? histogram : createHistogram();
+    }
+
+    /**
+     * @return histogram of the time in system of processed and canceled requests of the source,
+     * empty if there are no values
+     */
+    public LogHistogram getSojournHistogram(final int sourceNumber) {
+        final LogHistogram histogram = sojournHistograms[sourceNumber];
+        return histogram != null ? histogram : createHistogram();
+    }
+
+    /**
+     * @param confidence - confidence level of intervals
+     * @return steady-state estimates of every source from the batch means of this run
+     */
+    public List<BatchMeansEstimates> getBatchMeansEstimates(final double confidence) {
+        if (cancelBatches == null) {
+            throw new IllegalStateException("Batch means are not collected");
+        }
+        final List<BatchMeansEstimates> estimates = new ArrayList<>();
+        for (int i = 0; i < cancelBatches.length; ++i) {
+            estimates.add(new BatchMeansEstimates(
+                    i,
+                    cancelBatches[i].estimate(confidence),
+                    waitBatches[i].estimate(confidence),
+                    sojournBatches[i].estimate(confidence)
+            ));
+        }
+        return estimates;
+    }
+
     public List<DeviceResults> getDeviceResultsList() {
         final List<DeviceResults> deviceResults = new ArrayList<>();
         for (int i = 0; i < deviceWorkTime.length; ++i) {
@@ -194,7 +792,8 @@ public class Analytics {
                     i,
                     deviceWorkTime[i],
                     fullTimeOfWork,
-                    getCoefOfRealization(i)
+                    getCoefOfRealization(i),
+                    busyPeriodMoments[i].copy()
             ));
         }
         return deviceResults;
@@ -204,8 +803,19 @@ public class Analytics {
         return deviceWorkTime[deviceNumber] / fullTimeOfWork;
     }
 
+    public int getAmountOfFailed(final int sourceNumber) {
+        return amountOfFailed[sourceNumber];
+    }
+
+    public double getFullTimeOfWork() {
+        return fullTimeOfWork;
+    }
+
+    /**
+     * @param fullTimeOfWork - current time of the run, time before the reset of counters is not counted
+     */
     public void setFullTimeOfWork(double fullTimeOfWork) {
-        this.fullTimeOfWork = fullTimeOfWork;
+        this.fullTimeOfWork = fullTimeOfWork - countersStartTime;
     }
 
     private double getAvgTimeInSystem(final int sourceNumber) {
@@ -0,0 +1,72 @@
+package com.github.zvladn7.analytics;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Immutable copy of the results of the run at some moment, it can be read by any thread.
+ */
+public final class AnalyticsSnapshot {
+
+    private final double simulatedTime;
+    private final long generatedRequests;
+    private final boolean complete;
+    private final List<SourceResults> sourceResults;
+    private final List<DeviceResults> deviceResults;
+
+    private AnalyticsSnapshot(final double simulatedTime,
+                              final boolean complete,
+                              final List<SourceResults> sourceResults,
+                              final List<DeviceResults> deviceResults) {
+        this.simulatedTime = simulatedTime;
+        this.complete = complete;
+        this.sourceResults = Collections.unmodifiableList(sourceResults);
+        this.deviceResults = Collections.unmodifiableList(deviceResults);
+        long generated = 0;
+        for (final SourceResults results : sourceResults) {
+            generated += results.getGenNumber();
+        }
+        this.generatedRequests = generated;
+    }
+
+    /**
+     * Snapshot of the running analytics which counters are brought to the current time.
+     * Percentiles are not computed in the middle of the run, they are NaN.
+     */
+    public static AnalyticsSnapshot partial(final Analytics analytics) {
+        return new AnalyticsSnapshot(analytics.getFullTimeOfWork(), false,
+                analytics.getSourceResultsList(false), analytics.getDeviceResultsList());
+    }
+
+    /**
+     * Snapshot of the finished run with all results.
+     */
+    public static AnalyticsSnapshot complete(final Analytics analytics) {
+        return new AnalyticsSnapshot(analytics.getFullTimeOfWork(), true,
+                analytics.getSourceResultsList(), analytics.getDeviceResultsList());
+    }
+
+    public double getSimulatedTime() {
+        return simulatedTime;
+    }
+
+    public long getGeneratedRequests() {
+        return generatedRequests;
+    }
+
+    /**
+     * @return true if this is the snapshot of the finished run
+     */
+    public boolean isComplete() {
+        return complete;
+    }
+
+    public List<SourceResults> getSourceResults() {
+        return sourceResults;
+    }
+
+    public List<DeviceResults> getDeviceResults() {
+        return deviceResults;
+    }
+
+}
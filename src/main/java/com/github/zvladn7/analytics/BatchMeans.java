@@ -0,0 +1,120 @@
+package com.github.zvladn7.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Estimator of the steady-state mean from one long run by the method of batch means.
+ * Observations are grouped into consecutive batches, means of large batches are nearly independent,
+ * so the confidence interval is computed from them as from independent observations.
+ * The amount of batches is kept in [batches, 2 * batches): when all slots are filled,
+ * neighbour batches are merged and the batch size is doubled, so the memory does not depend on the run length.
+ * The last incomplete batch is not counted.
+ */
+public class BatchMeans {
+
+    public static final int DEFAULT_BATCHES = 32;
+
+    private final double[] sums;
+    private int filled;
+    private long batchSize = 1;
+    private double currentSum;
+    private long currentCount;
+
+    public BatchMeans() {
+        this(DEFAULT_BATCHES);
+    }
+
+    /**
+     * @param batches - minimal amount of batches after the first merge
+     */
+    public BatchMeans(final int batches) {
+        if (batches < 2) {
+            throw new IllegalArgumentException("There must be at least 2 batches: " + batches);
+        }
+        this.sums = new double[2 * batches];
+    }
+
+    public void add(final double value) {
+        currentSum += value;
+        if (++currentCount < batchSize) {
+            return;
+        }
+        sums[filled++] = currentSum;
+        currentSum = 0;
+        currentCount = 0;
+        if (filled == sums.length) {
+            for (int i = 0; i < filled / 2; ++i) {
+                sums[i] = sums[2 * i] + sums[2 * i + 1];
+            }
+            filled /= 2;
+            batchSize *= 2;
+        }
+    }
+
+    /**
+     * @param confidence - confidence level of the interval
+     * @return mean of complete batches and its confidence interval with (batches - 1) degrees of freedom
+     */
+    public Estimate estimate(final double confidence) {
+        final MomentAccumulator means = new MomentAccumulator();
+        for (int i = 0; i < filled; ++i) {
+            means.add(sums[i] / batchSize);
+        }
+        return Estimate.of(means, confidence);
+    }
+
+    public int getBatchesAmount() {
+        return filled;
+    }
+
+    public long getBatchSize() {
+        return batchSize;
+    }
+
+    public BatchMeans copy() {
+        final BatchMeans copy = new BatchMeans(sums.length / 2);
+        System.arraycopy(sums, 0, copy.sums, 0, filled);
+        copy.filled = filled;
+        copy.batchSize = batchSize;
+        copy.currentSum = currentSum;
+        copy.currentCount = currentCount;
+        return copy;
+    }
+
+    public void clear() {
+        filled = 0;
+        batchSize = 1;
+        currentSum = 0;
+        currentCount = 0;
+    }
+
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeInt(sums.length);
+        out.writeInt(filled);
+        for (int i = 0; i < filled; ++i) {
+            out.writeDouble(sums[i]);
+        }
+        out.writeLong(batchSize);
+        out.writeDouble(currentSum);
+        out.writeLong(currentCount);
+    }
+
+    public void readState(final DataInput in) throws IOException {
+        if (in.readInt() != sums.length) {
+            throw new IOException("Saved batch means have different amount of batches");
+        }
+        filled = in.readInt();
+        if (filled < 0 || filled >= sums.length) {
+            throw new IOException("Invalid amount of batches " + filled);
+        }
+        for (int i = 0; i < filled; ++i) {
+            sums[i] = in.readDouble();
+        }
+        batchSize = in.readLong();
+        currentSum = in.readDouble();
+        currentCount = in.readLong();
+    }
+
+}
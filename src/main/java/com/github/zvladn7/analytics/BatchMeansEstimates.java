@@ -0,0 +1,51 @@
+package com.github.zvladn7.analytics;
+
+/**
+ * Steady-state confidence intervals of one source from a single run by the method of batch means.
+ * Probability of cancel is the mean of indicators of requests which left the system,
+ * times are means over requests which left the system, canceled ones included.
+ */
+public class BatchMeansEstimates {
+
+    private final int sourceNumber;
+    private final Estimate probCancel;
+    private final Estimate timeOfWait;
+    private final Estimate timeInSystem;
+
+    BatchMeansEstimates(final int sourceNumber,
+                        final Estimate probCancel,
+                        final Estimate timeOfWait,
+                        final Estimate timeInSystem) {
+        this.sourceNumber = sourceNumber;
+        this.probCancel = probCancel;
+        this.timeOfWait = timeOfWait;
+        this.timeInSystem = timeInSystem;
+    }
+
+    public int getSourceNumber() {
+        return sourceNumber;
+    }
+
+    public Estimate getProbCancel() {
+        return probCancel;
+    }
+
+    public Estimate getTimeOfWait() {
+        return timeOfWait;
+    }
+
+    public Estimate getTimeInSystem() {
+        return timeInSystem;
+    }
+
+    @Override
+    public String toString() {
+        return "BatchMeansEstimates{" +
+                "sourceNumber=" + sourceNumber +
+                ", probCancel=" + probCancel +
+                ", timeOfWait=" + timeOfWait +
+                ", timeInSystem=" + timeInSystem +
+                '}';
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.github.zvladn7.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Confidence intervals of the device results over independent replications.
+ */
+public class DeviceEstimates {
+
+    private final int deviceNumber;
+    private final Estimate timeOfWork;
+    private final Estimate timeOfRealization;
+    private final Estimate coefOfRealization;
+
+    private DeviceEstimates(final int deviceNumber,
+                            final Estimate timeOfWork,
+                            final Estimate timeOfRealization,
+                            final Estimate coefOfRealization) {
+        this.deviceNumber = deviceNumber;
+        this.timeOfWork = timeOfWork;
+        this.timeOfRealization = timeOfRealization;
+        this.coefOfRealization = coefOfRealization;
+    }
+
+    /**
+     * @param replications - device results of each replication
+     * @param confidence - confidence level of intervals
+     * @return estimates for each device
+     */
+    public static List<DeviceEstimates> of(final List<List<DeviceResults>> replications, final double confidence) {
+        final List<DeviceEstimates> estimates = new ArrayList<>();
+        if (replications.isEmpty()) {
+            return estimates;
+        }
+        final int amountOfDevices = replications.get(0).size();
+        for (int i = 0; i < amountOfDevices; ++i) {
+            final MomentAccumulator timeOfWork = new MomentAccumulator();
+            final MomentAccumulator timeOfRealization = new MomentAccumulator();
+            final MomentAccumulator coefOfRealization = new MomentAccumulator();
+            for (final List<DeviceResults> replication : replications) {
+                final DeviceResults results = replication.get(i);
+                timeOfWork.add(results.getTimeOfWork());
+                timeOfRealization.add(results.getTimeOfRealization());
+                coefOfRealization.add(results.getCoefOfRealization());
+            }
+            estimates.add(new DeviceEstimates(i,
+                    Estimate.of(timeOfWork, confidence),
+                    Estimate.of(timeOfRealization, confidence),
+                    Estimate.of(coefOfRealization, confidence)));
+        }
+        return estimates;
+    }
+
+    public int getDeviceNumber() {
+        return deviceNumber;
+    }
+
+    public Estimate getTimeOfWork() {
+        return timeOfWork;
+    }
+
+    public Estimate getTimeOfRealization() {
+        return timeOfRealization;
+    }
+
+    public Estimate getCoefOfRealization() {
+        return coefOfRealization;
+    }
+
+}
@@ -6,12 +6,15 @@ public class DeviceResults {
     private final double timeOfWork;
     private final double timeOfRealization;
     private final double coefOfRealization;
+    private final MomentAccumulator busyPeriodMoments;
 
-    public DeviceResults(int deviceNumber, double timeOfWork, double timeOfRealization, double coefOfRealization) {
+    public DeviceResults(int deviceNumber, double timeOfWork, double timeOfRealization, double coefOfRealization,
+                         MomentAccumulator busyPeriodMoments) {
         this.deviceNumber = deviceNumber;
         this.timeOfWork = timeOfWork;
         this.timeOfRealization = timeOfRealization;
         this.coefOfRealization = coefOfRealization;
+        this.busyPeriodMoments = busyPeriodMoments;
     }
 
     public int getDeviceNumber() {
@@ -29,4 +32,19 @@ public class DeviceResults {
     public double getCoefOfRealization() {
         return coefOfRealization;
     }
+
+    /**
+     * @return moments of the length of complete busy periods of the device
+     */
+    public MomentAccumulator getBusyPeriodMoments() {
+        return busyPeriodMoments;
+    }
+
+    public double getAvgBusyPeriod() {
+        return busyPeriodMoments.getMean();
+    }
+
+    public double getVarBusyPeriod() {
+        return busyPeriodMoments.getVariance();
+    }
 }
@@ -0,0 +1,74 @@
+package com.github.zvladn7.analytics;
+
+/**
+ * Point estimate of the value with the half-width of its confidence interval.
+ */
+public class Estimate {
+
+    public static final double DEFAULT_CONFIDENCE = 0.95;
+
+    private final double mean;
+    private final double halfWidth;
+    private final double confidence;
+    private final long count;
+
+    public Estimate(final double mean, final double halfWidth, final double confidence, final long count) {
+        this.mean = mean;
+        this.halfWidth = halfWidth;
+        this.confidence = confidence;
+        this.count = count;
+    }
+
+    /**
+     * Confidence interval of the mean of independent observations by the Student's t-distribution.
+     * @param observations - accumulated observations
+     * @param confidence - confidence level, e.g. 0.95
+     * @return estimate with NaN half-width if there are less than two observations
+     */
+    public static Estimate of(final MomentAccumulator observations, final double confidence) {
+        final long count = observations.getCount();
+        if (count < 2) {
+            return new Estimate(observations.getMean(), Double.NaN, confidence, count);
+        }
+        final double quantile = Quantiles.student((1 + confidence) / 2, (int) Math.min(Integer.MAX_VALUE, count - 1));
+        final double halfWidth = quantile * observations.getStandardDeviation() / Math.sqrt(count);
+        return new Estimate(observations.getMean(), halfWidth, confidence, count);
+    }
+
+    public double getMean() {
+        return mean;
+    }
+
+    public double getHalfWidth() {
+        return halfWidth;
+    }
+
+    /**
+     * @return half-width divided by the absolute value of the mean
+     */
+    public double getRelativeHalfWidth() {
+        return halfWidth / Math.abs(mean);
+    }
+
+    public double getLowerBound() {
+        return mean - halfWidth;
+    }
+
+    public double getUpperBound() {
+        return mean + halfWidth;
+    }
+
+    public double getConfidence() {
+        return confidence;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    @Override
+    public String toString() {
+        return mean + " ± " + halfWidth;
+    }
+
+}
@@ -0,0 +1,28 @@
+package com.github.zvladn7.analytics;
+
+import com.github.zvladn7.analytics.Analytics.EventType;
+
+/**
+ * Forward iterator over {@link EventTrace}. Getters return fields of the event the cursor is on.
+ */
+public interface EventCursor {
+
+    /**
+     * Move to the next event.
+     * @return false if there are no more events
+     */
+    boolean next();
+
+    long getIndex();
+
+    double getTime();
+
+    EventType getType();
+
+    int getSourceNumber();
+
+    int getComponentNumber();
+
+    int getInfo();
+
+}
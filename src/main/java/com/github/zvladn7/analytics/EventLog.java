@@ -0,0 +1,213 @@
+package com.github.zvladn7.analytics;
+
+import com.github.zvladn7.analytics.Analytics.EventType;
+
+import java.util.Arrays;
+
+/**
+ * Append-only log of special events stored in parallel primitive columns.
+ * Columns grow by fixed size chunks, so appending never copies already recorded events.
+ * The engine records events in the order of simulated time, so the log is time-ordered by construction
+ * and events with the same time keep the order in which they happened.
+ * One event takes 21 bytes: time, type, source number, component number and additional info.
+ * Bounded log keeps only the last events and overwrites the oldest ones in a ring.
+ */
+public class EventLog implements EventRecorder, EventTrace {
+
+    public static final int NO_INFO = -1;
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+    private static final int CHUNK_SHIFT = 14;
+    private static final int CHUNK_SIZE = 1 << CHUNK_SHIFT;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+
+    private double[][] times = new double[0][];
+    private byte[][] types = new byte[0][];
+    private int[][] sources = new int[0][];
+    private int[][] components = new int[0][];
+    private int[][] infos = new int[0][];
+    /**
+     * Maximum amount of retained events, Long.MAX_VALUE for unbounded log.
+     */
+    private final long capacity;
+
+    /**
+     * Amount of events ever added to the log.
+     */
+    private long recorded;
+
+    public EventLog() {
+        this(Long.MAX_VALUE);
+    }
+
+    /**
+     * @param capacity - amount of the last events to keep
+     */
+    public EventLog(final long capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Capacity of event log must be positive: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Append the event to the end of the log.
+     * @param time - time of the event, not less than the time of the previous event
+     * @param type - type of the event
+     * @param sourceNumber - source of the request the event is about
+     * @param componentNumber - buffer position or device number
+     * @param info - additional info or NO_INFO
+     */
+    @Override
+    public void add(final double time,
+                    final EventType type,
+                    final int sourceNumber,
+                    final int componentNumber,
+                    final int info) {
+        final long physical = recorded % capacity;
+        final int chunk = chunk(physical);
+        if (chunk == times.length) {
+            addChunk();
+        }
+        final int index = offset(physical);
+        times[chunk][index] = time;
+        types[chunk][index] = (byte) type.ordinal();
+        sources[chunk][index] = sourceNumber;
+        components[chunk][index] = componentNumber;
+        infos[chunk][index] = info;
+        recorded++;
+    }
+
+    /**
+     * @return amount of retained events, indexes of events are [0, size) from the oldest retained one
+     */
+    @Override
+    public long size() {
+        return Math.min(recorded, capacity);
+    }
+
+    /**
+     * @return amount of the oldest events overwritten by the newer ones
+     */
+    public long getDroppedAmount() {
+        return recorded - size();
+    }
+
+    @Override
+    public double getTime(final long index) {
+        final long physical = physical(index);
+        return times[chunk(physical)][offset(physical)];
+    }
+
+    @Override
+    public EventType getType(final long index) {
+        final long physical = physical(index);
+        return EVENT_TYPES[types[chunk(physical)][offset(physical)]];
+    }
+
+    @Override
+    public int getSourceNumber(final long index) {
+        final long physical = physical(index);
+        return sources[chunk(physical)][offset(physical)];
+    }
+
+    @Override
+    public int getComponentNumber(final long index) {
+        final long physical = physical(index);
+        return components[chunk(physical)][offset(physical)];
+    }
+
+    @Override
+    public int getInfo(final long index) {
+        final long physical = physical(index);
+        return infos[chunk(physical)][offset(physical)];
+    }
+
+    @Override
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    @Override
+    public EventTrace finish() {
+        return this;
+    }
+
+    private long physical(final long index) {
+        return (getDroppedAmount() + index) % capacity;
+    }
+
+    private static int chunk(final long index) {
+        return (int) (index >>> CHUNK_SHIFT);
+    }
+
+    private static int offset(final long index) {
+        return (int) (index & CHUNK_MASK);
+    }
+
+    private void addChunk() {
+        final int chunks = times.length + 1;
+        final int chunkSize = (int) Math.min(CHUNK_SIZE, capacity - ((long) times.length << CHUNK_SHIFT));
+        times = Arrays.copyOf(times, chunks);
+        types = Arrays.copyOf(types, chunks);
+        sources = Arrays.copyOf(sources, chunks);
+        components = Arrays.copyOf(components, chunks);
+        infos = Arrays.copyOf(infos, chunks);
+        final int last = chunks - 1;
+        times[last] = new double[chunkSize];
+        types[last] = new byte[chunkSize];
+        sources[last] = new int[chunkSize];
+        components[last] = new int[chunkSize];
+        infos[last] = new int[chunkSize];
+    }
+
+    public class Cursor implements EventCursor {
+
+        private long index = -1;
+        private int chunk;
+        private int offset;
+
+        @Override
+        public boolean next() {
+            if (index + 1 >= size()) {
+                return false;
+            }
+            index++;
+            final long physical = physical(index);
+            chunk = EventLog.chunk(physical);
+            offset = EventLog.offset(physical);
+            return true;
+        }
+
+        @Override
+        public long getIndex() {
+            return index;
+        }
+
+        @Override
+        public double getTime() {
+            return times[chunk][offset];
+        }
+
+        @Override
+        public EventType getType() {
+            return EVENT_TYPES[types[chunk][offset]];
+        }
+
+        @Override
+        public int getSourceNumber() {
+            return sources[chunk][offset];
+        }
+
+        @Override
+        public int getComponentNumber() {
+            return components[chunk][offset];
+        }
+
+        @Override
+        public int getInfo() {
+            return infos[chunk][offset];
+        }
+    }
+
+}
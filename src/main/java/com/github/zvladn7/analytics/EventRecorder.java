@@ -0,0 +1,26 @@
+package com.github.zvladn7.analytics;
+
+import com.github.zvladn7.analytics.Analytics.EventType;
+
+/**
+ * Destination of special events recorded by {@link Analytics} during the run.
+ */
+public interface EventRecorder {
+
+    /**
+     * Append the event, events come in the order of simulated time.
+     * @param time - time of the event
+     * @param type - type of the event
+     * @param sourceNumber - source of the request the event is about
+     * @param componentNumber - buffer position or device number
+     * @param info - additional info or {@link EventLog#NO_INFO}
+     */
+    void add(double time, EventType type, int sourceNumber, int componentNumber, int info);
+
+    /**
+     * Complete the recording after the end of the run.
+     * @return trace to read recorded events from
+     */
+    EventTrace finish();
+
+}
@@ -0,0 +1,30 @@
+package com.github.zvladn7.analytics;
+
+import com.github.zvladn7.analytics.Analytics.EventType;
+
+/**
+ * Recorded events of the run available by index in the order they happened.
+ */
+public interface EventTrace {
+
+    /**
+     * @return amount of events, indexes of events are [0, size)
+     */
+    long size();
+
+    double getTime(long index);
+
+    EventType getType(long index);
+
+    int getSourceNumber(long index);
+
+    int getComponentNumber(long index);
+
+    int getInfo(long index);
+
+    /**
+     * @return new cursor placed before the first event
+     */
+    EventCursor cursor();
+
+}
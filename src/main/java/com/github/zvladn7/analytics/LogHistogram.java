@@ -0,0 +1,347 @@
+package com.github.zvladn7.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Histogram of positive values with logarithmic buckets of the fixed relative width, like HdrHistogram.
+ * Each power of two is split into 2^precisionBits equal sub-buckets, the bucket of the value is taken
+ * from the exponent and the highest mantissa bits of its double representation,
+ * so the recording is O(1) and allocates nothing.
+ * Values below the lowest trackable value are counted in the zero bucket,
+ * values above the highest trackable one are counted in the last bucket.
+ * Histograms with the same layout are merged without any loss.
+ * Sub-buckets of a power of two are allocated on the first value in it, so the empty histogram holds no buckets
+ * and the histogram of values within a few powers of two holds only a few of them.
+ * Snapshot shares the buckets with the histogram, they are copied on the first write to any of them.
+ */
+public class LogHistogram {
+
+    public static final int DEFAULT_PRECISION_BITS = 7;
+    public static final int DEFAULT_MIN_EXPONENT = -20;
+    public static final int DEFAULT_MAX_EXPONENT = 40;
+
+    private static final int MANTISSA_BITS = 52;
+    private static final int EXPONENT_BIAS = 1023;
+
+    private final int precisionBits;
+    private final int minExponent;
+    private final int maxExponent;
+    private final double lowestValue;
+    private final int bucketsAmount;
+
+    /**
+     * Sub-buckets of every power of two from minExponent, null until the first value of the histogram
+     * and for powers of two without values.
+     */
+    private long[][] counts;
+    private long zeroCount;
+
+    /**
+     * True if the counts are shared with a snapshot and must be copied before the change.
+     */
+    private boolean shared;
+    private long totalCount;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public LogHistogram() {
+        this(DEFAULT_PRECISION_BITS, DEFAULT_MIN_EXPONENT, DEFAULT_MAX_EXPONENT);
+    }
+
+    /**
+     * @param precisionBits - bits of sub-buckets per power of two, relative width of bucket is 2^-precisionBits
+     * @param minExponent - values below 2^minExponent are counted in the zero bucket
+     * @param maxExponent - values not below 2^(maxExponent + 1) are counted in the last bucket
+     */
+    public LogHistogram(final int precisionBits, final int minExponent, final int maxExponent) {
+        if (precisionBits < 0 || precisionBits > 16) {
+            throw new IllegalArgumentException("Precision bits must be in [0, 16]: " + precisionBits);
+        }
+        if (minExponent < -Double.MAX_EXPONENT + 1 || maxExponent > Double.MAX_EXPONENT || maxExponent < minExponent) {
+            throw new IllegalArgumentException("Invalid range of exponents: " + minExponent + ".." + maxExponent);
+        }
+        this.precisionBits = precisionBits;
+        this.minExponent = minExponent;
+        this.maxExponent = maxExponent;
+        this.lowestValue = Math.scalb(1.0, minExponent);
+        this.bucketsAmount = 1 + ((maxExponent - minExponent + 1) << precisionBits);
+    }
+
+    private LogHistogram(final LogHistogram other) {
+        this.precisionBits = other.precisionBits;
+        this.minExponent = other.minExponent;
+        this.maxExponent = other.maxExponent;
+        this.lowestValue = other.lowestValue;
+        this.bucketsAmount = other.bucketsAmount;
+        this.counts = other.counts;
+        this.zeroCount = other.zeroCount;
+        this.shared = true;
+        this.totalCount = other.totalCount;
+        this.min = other.min;
+        this.max = other.max;
+    }
+
+    public void record(final double value) {
+        if (shared) {
+            unshare();
+        }
+        add(bucketOf(value), 1);
+        totalCount++;
+        if (totalCount == 1) {
+            min = value;
+            max = value;
+        } else if (value < min) {
+            min = value;
+        } else if (value > max) {
+            max = value;
+        }
+    }
+
+    private int bucketOf(final double value) {
+        if (!(value >= lowestValue)) {
+            return 0;
+        }
+        final long bits = Double.doubleToRawLongBits(value);
+        final int exponent = (int) (bits >>> MANTISSA_BITS) - EXPONENT_BIAS;
+        if (exponent > maxExponent) {
+            return bucketsAmount - 1;
+        }
+        final int subBucket = (int) ((bits & ((1L << MANTISSA_BITS) - 1)) >>> (MANTISSA_BITS - precisionBits));
+        return 1 + ((exponent - minExponent) << precisionBits) + subBucket;
+    }
+
+    private void add(final int bucket, final long count) {
+        if (bucket == 0) {
+            zeroCount += count;
+            return;
+        }
+        if (counts == null) {
+            counts = new long[maxExponent - minExponent + 1][];
+        }
+        final int power = (bucket - 1) >> precisionBits;
+        long[] subBuckets = counts[power];
+        if (subBuckets == null) {
+            subBuckets = new long[1 << precisionBits];
+            counts[power] = subBuckets;
+        }
+        subBuckets[(bucket - 1) & ((1 << precisionBits) - 1)] += count;
+    }
+
+    /**
+     * @return the highest value which is counted in the bucket
+     */
+    private double upperBoundOf(final int bucket) {
+        if (bucket == 0) {
+            return lowestValue;
+        }
+        final int exponent = minExponent + ((bucket - 1) >> precisionBits);
+        final int subBucket = (bucket - 1) & ((1 << precisionBits) - 1);
+        return Math.scalb(1.0 + (subBucket + 1.0) / (1 << precisionBits), exponent);
+    }
+
+    /**
+     * Value which is not less than the percentile, its relative error is not greater than 2^-precisionBits.
+     * @param percentile - percentile in (0, 100]
+     * @return value at the percentile, clamped to the recorded min and max, min for the zero bucket,
+     * or NaN if there are no values
+     */
+    public double getValueAtPercentile(final double percentile) {
+        if (totalCount == 0) {
+            return Double.NaN;
+        }
+        final long rank = Math.max(1, (long) Math.ceil(percentile / 100 * totalCount));
+        // the zero bucket has no width, its values are not less than min, exact zeros included
+        long cumulative = zeroCount;
+        if (cumulative >= rank) {
+            return min;
+        }
+        if (counts == null) {
+            return max;
+        }
+        for (int power = 0; power < counts.length; ++power) {
+            final long[] subBuckets = counts[power];
+            if (subBuckets == null) {
+                continue;
+            }
+            for (int i = 0; i < subBuckets.length; ++i) {
+                cumulative += subBuckets[i];
+                if (cumulative >= rank) {
+                    final int bucket = 1 + (power << precisionBits) + i;
+                    return Math.max(min, Math.min(max, upperBoundOf(bucket)));
+                }
+            }
+        }
+        return max;
+    }
+
+    /**
+     * Add all values of other histogram to this one.
+     * @param other - histogram with the same layout, it is not changed
+     * @return this histogram
+     */
+    public LogHistogram merge(final LogHistogram other) {
+        if (other.precisionBits != precisionBits
+                || other.minExponent != minExponent
+                || other.maxExponent != maxExponent) {
+            throw new IllegalArgumentException("Histograms of different layouts can not be merged");
+        }
+        if (other.totalCount == 0) {
+            return this;
+        }
+        if (shared) {
+            unshare();
+        }
+        zeroCount += other.zeroCount;
+        if (other.counts != null) {
+            for (int power = 0; power < other.counts.length; ++power) {
+                final long[] subBuckets = other.counts[power];
+                if (subBuckets == null) {
+                    continue;
+                }
+                for (int i = 0; i < subBuckets.length; ++i) {
+                    if (subBuckets[i] != 0) {
+                        add(1 + (power << precisionBits) + i, subBuckets[i]);
+                    }
+                }
+            }
+        }
+        min = totalCount == 0 ? other.min : Math.min(min, other.min);
+        max = totalCount == 0 ? other.max : Math.max(max, other.max);
+        totalCount += other.totalCount;
+        return this;
+    }
+
+    public LogHistogram copy() {
+        return new LogHistogram(precisionBits, minExponent, maxExponent).merge(this);
+    }
+
+    /**
+     * Copy of the histogram in O(1), the buckets are copied only when this histogram or the snapshot is changed.
+     */
+    public LogHistogram snapshot() {
+        shared = true;
+        return new LogHistogram(this);
+    }
+
+    private void unshare() {
+        if (counts != null) {
+            counts = counts.clone();
+            for (int power = 0; power < counts.length; ++power) {
+                if (counts[power] != null) {
+                    counts[power] = counts[power].clone();
+                }
+            }
+        }
+        shared = false;
+    }
+
+    /**
+     * Save non empty buckets of the histogram.
+     */
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeInt(precisionBits);
+        out.writeInt(minExponent);
+        out.writeInt(maxExponent);
+        out.writeLong(totalCount);
+        out.writeDouble(min);
+        out.writeDouble(max);
+        int notEmpty = 0;
+        for (int i = 0; i < bucketsAmount; ++i) {
+            if (getCount(i) != 0) {
+                notEmpty++;
+            }
+        }
+        out.writeInt(notEmpty);
+        for (int i = 0; i < bucketsAmount; ++i) {
+            final long count = getCount(i);
+            if (count != 0) {
+                out.writeInt(i);
+                out.writeLong(count);
+            }
+        }
+    }
+
+    /**
+     * Replace values of the histogram with the saved ones, the layout must be the same.
+     */
+    public void readState(final DataInput in) throws IOException {
+        if (in.readInt() != precisionBits || in.readInt() != minExponent || in.readInt() != maxExponent) {
+            throw new IOException("Saved histogram has different layout");
+        }
+        clear();
+        totalCount = in.readLong();
+        min = in.readDouble();
+        max = in.readDouble();
+        final int notEmpty = in.readInt();
+        for (int i = 0; i < notEmpty; ++i) {
+            final int bucket = in.readInt();
+            if (bucket < 0 || bucket >= bucketsAmount) {
+                throw new IOException("Invalid bucket " + bucket);
+            }
+            add(bucket, in.readLong());
+        }
+    }
+
+    public void clear() {
+        if (shared) {
+            counts = null;
+            shared = false;
+        } else if (counts != null) {
+            for (long[] subBuckets : counts) {
+                if (subBuckets != null) {
+                    Arrays.fill(subBuckets, 0);
+                }
+            }
+        }
+        zeroCount = 0;
+        totalCount = 0;
+        min = Double.NaN;
+        max = Double.NaN;
+    }
+
+    public long getTotalCount() {
+        return totalCount;
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    public int getPrecisionBits() {
+        return precisionBits;
+    }
+
+    public int getMinExponent() {
+        return minExponent;
+    }
+
+    public int getMaxExponent() {
+        return maxExponent;
+    }
+
+    /**
+     * @return amount of values in the bucket, buckets are numbered from the zero bucket
+     */
+    public long getCount(final int bucket) {
+        if (bucket == 0) {
+            return zeroCount;
+        }
+        if (counts == null) {
+            return 0;
+        }
+        final long[] subBuckets = counts[(bucket - 1) >> precisionBits];
+        return subBuckets == null ? 0 : subBuckets[(bucket - 1) & ((1 << precisionBits) - 1)];
+    }
+
+    public int getBucketsAmount() {
+        return bucketsAmount;
+    }
+
+}
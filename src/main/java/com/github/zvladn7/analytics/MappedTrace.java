@@ -0,0 +1,207 @@
+package com.github.zvladn7.analytics;
+
+import com.github.zvladn7.analytics.Analytics.EventType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Read-only view of the trace written by {@link MappedTraceWriter}.
+ * Segments are memory-mapped and events are read directly from the mapping without copying,
+ * so traces far bigger than the heap can be iterated and a finished run can be reopened.
+ */
+public class MappedTrace implements EventTrace {
+
+    private static final EventType[] EVENT_TYPES = EventType.values();
+
+    private final int amountOfSources;
+    private final int amountOfDevices;
+    private final int bufferSize;
+    private final boolean ringSelection;
+    private final int recordsPerSegment;
+    private final int syncInterval;
+    private final long recordsOffset;
+    private final long size;
+    private final MappedByteBuffer[] segments;
+
+    private MappedTrace(final Path directory, final ByteBuffer header) throws IOException {
+        if (header.getInt() != TraceFormat.MAGIC) {
+            throw new IllegalArgumentException("There is no trace in " + directory);
+        }
+        final int version = header.getInt();
+        if (version != TraceFormat.VERSION) {
+            throw new IllegalArgumentException("Unsupported trace version " + version);
+        }
+        this.amountOfSources = header.getInt();
+        this.amountOfDevices = header.getInt();
+        this.bufferSize = header.getInt();
+        this.ringSelection = header.getInt() != 0;
+        this.recordsPerSegment = header.getInt();
+        this.syncInterval = header.getInt();
+        this.segments = new MappedByteBuffer[header.getInt()];
+        this.size = header.getLong();
+        this.recordsOffset = TraceFormat.recordsOffset(recordsPerSegment, syncInterval);
+        for (int i = 0; i < segments.length; ++i) {
+            try (FileChannel channel = FileChannel.open(TraceFormat.segmentPath(directory, i), StandardOpenOption.READ)) {
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            }
+            if (segments[i].getInt(0) != TraceFormat.SEGMENT_MAGIC) {
+                throw new IllegalArgumentException("Corrupted trace segment " + i + " in " + directory);
+            }
+        }
+    }
+
+    /**
+     * Open the trace previously written to the directory.
+     * @param directory - directory of the trace
+     * @return opened trace
+     */
+    public static MappedTrace open(final Path directory) {
+        try (FileChannel channel = FileChannel.open(directory.resolve(TraceFormat.HEADER_FILE_NAME), StandardOpenOption.READ)) {
+            final ByteBuffer header = ByteBuffer.allocate(TraceFormat.HEADER_SIZE);
+            while (header.hasRemaining()) {
+                if (channel.read(header) == -1) {
+                    throw new IllegalArgumentException("Truncated trace header in " + directory);
+                }
+            }
+            header.flip();
+            return new MappedTrace(directory, header);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open trace in " + directory, e);
+        }
+    }
+
+    public int getAmountOfSources() {
+        return amountOfSources;
+    }
+
+    public int getAmountOfDevices() {
+        return amountOfDevices;
+    }
+
+    public int getBufferSize() {
+        return bufferSize;
+    }
+
+    /**
+     * @return true if devices of the run are chosen by the ring rule
+     */
+    public boolean isRingSelection() {
+        return ringSelection;
+    }
+
+    @Override
+    public long size() {
+        return size;
+    }
+
+    @Override
+    public double getTime(final long index) {
+        final MappedByteBuffer segment = segment(index);
+        final int record = record(index);
+        final int sync = record - record % syncInterval;
+        double time = segment.getDouble(TraceFormat.SEGMENT_HEADER_SIZE + (sync / syncInterval) * Double.BYTES);
+        for (int i = sync + 1; i <= record; ++i) {
+            time += segment.getFloat(position(i));
+        }
+        return time;
+    }
+
+    @Override
+    public EventType getType(final long index) {
+        return EVENT_TYPES[segment(index).getInt(position(record(index)) + 4) >>> TraceFormat.TYPE_SHIFT];
+    }
+
+    @Override
+    public int getSourceNumber(final long index) {
+        return segment(index).getInt(position(record(index)) + 4) & TraceFormat.SOURCE_MASK;
+    }
+
+    @Override
+    public int getComponentNumber(final long index) {
+        return segment(index).getInt(position(record(index)) + 8);
+    }
+
+    @Override
+    public int getInfo(final long index) {
+        return segment(index).getInt(position(record(index)) + 12);
+    }
+
+    @Override
+    public Cursor cursor() {
+        return new Cursor();
+    }
+
+    private MappedByteBuffer segment(final long index) {
+        return segments[(int) (index / recordsPerSegment)];
+    }
+
+    private int record(final long index) {
+        return (int) (index % recordsPerSegment);
+    }
+
+    private int position(final int record) {
+        return (int) (recordsOffset + (long) record * TraceFormat.RECORD_SIZE);
+    }
+
+    public class Cursor implements EventCursor {
+
+        private long index = -1;
+        private MappedByteBuffer segment;
+        private int position;
+        private double time;
+
+        @Override
+        public boolean next() {
+            if (index + 1 >= size) {
+                return false;
+            }
+            index++;
+            final int record = record(index);
+            segment = segment(index);
+            position = position(record);
+            if (record % syncInterval == 0) {
+                time = segment.getDouble(TraceFormat.SEGMENT_HEADER_SIZE + (record / syncInterval) * Double.BYTES);
+            } else {
+                time += segment.getFloat(position);
+            }
+            return true;
+        }
+
+        @Override
+        public long getIndex() {
+            return index;
+        }
+
+        @Override
+        public double getTime() {
+            return time;
+        }
+
+        @Override
+        public EventType getType() {
+            return EVENT_TYPES[segment.getInt(position + 4) >>> TraceFormat.TYPE_SHIFT];
+        }
+
+        @Override
+        public int getSourceNumber() {
+            return segment.getInt(position + 4) & TraceFormat.SOURCE_MASK;
+        }
+
+        @Override
+        public int getComponentNumber() {
+            return segment.getInt(position + 8);
+        }
+
+        @Override
+        public int getInfo() {
+            return segment.getInt(position + 12);
+        }
+    }
+
+}
@@ -0,0 +1,167 @@
+package com.github.zvladn7.analytics;
+
+import com.github.zvladn7.analytics.Analytics.EventType;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Recorder which streams events into memory-mapped segment files of the {@link TraceFormat},
+ * so the trace of the run is not limited by the heap size.
+ */
+public class MappedTraceWriter implements EventRecorder {
+
+    private final Path directory;
+    private final int amountOfSources;
+    private final int amountOfDevices;
+    private final int bufferSize;
+    private final boolean ringSelection;
+    private final int recordsPerSegment;
+    private final int syncInterval;
+    private final long recordsOffset;
+
+    private FileChannel channel;
+    private MappedByteBuffer segment;
+    private int segmentIndex = -1;
+    private int segmentRecords;
+    private long recorded;
+
+    /**
+     * Time restored from the deltas of all written records.
+     */
+    private double restoredTime;
+
+    public MappedTraceWriter(final Path directory,
+                             final int amountOfSources,
+                             final int amountOfDevices,
+                             final int bufferSize,
+                             final boolean ringSelection) {
+        this(directory, amountOfSources, amountOfDevices, bufferSize, ringSelection,
+                TraceFormat.DEFAULT_RECORDS_PER_SEGMENT, TraceFormat.DEFAULT_SYNC_INTERVAL);
+    }
+
+    public MappedTraceWriter(final Path directory,
+                             final int amountOfSources,
+                             final int amountOfDevices,
+                             final int bufferSize,
+                             final boolean ringSelection,
+                             final int recordsPerSegment,
+                             final int syncInterval) {
+        if (amountOfSources > TraceFormat.SOURCE_MASK) {
+            throw new IllegalArgumentException("Too many sources for the trace format: " + amountOfSources);
+        }
+        this.directory = directory;
+        this.amountOfSources = amountOfSources;
+        this.amountOfDevices = amountOfDevices;
+        this.bufferSize = bufferSize;
+        this.ringSelection = ringSelection;
+        this.recordsPerSegment = recordsPerSegment;
+        this.syncInterval = syncInterval;
+        this.recordsOffset = TraceFormat.recordsOffset(recordsPerSegment, syncInterval);
+        try {
+            Files.createDirectories(directory);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create trace directory " + directory, e);
+        }
+        writeHeader();
+    }
+
+    @Override
+    public void add(final double time,
+                    final EventType type,
+                    final int sourceNumber,
+                    final int componentNumber,
+                    final int info) {
+        if (segment == null || segmentRecords == recordsPerSegment) {
+            nextSegment();
+        }
+        // negative delta is possible only because of rounding, drop it to keep restored times ordered
+        final float delta = (float) Math.max(0, time - restoredTime);
+        restoredTime += delta;
+        if (segmentRecords % syncInterval == 0) {
+            segment.putDouble(TraceFormat.SEGMENT_HEADER_SIZE + (segmentRecords / syncInterval) * Double.BYTES,
+                    restoredTime);
+        }
+        final int position = (int) (recordsOffset + (long) segmentRecords * TraceFormat.RECORD_SIZE);
+        segment.putFloat(position, delta);
+        segment.putInt(position + 4, (type.ordinal() << TraceFormat.TYPE_SHIFT) | sourceNumber);
+        segment.putInt(position + 8, componentNumber);
+        segment.putInt(position + 12, info);
+        segmentRecords++;
+        recorded++;
+    }
+
+    /**
+     * Close the last segment, write the header and open the trace for reading.
+     */
+    @Override
+    public MappedTrace finish() {
+        closeSegment();
+        writeHeader();
+        return MappedTrace.open(directory);
+    }
+
+    private void nextSegment() {
+        closeSegment();
+        segmentIndex++;
+        segmentRecords = 0;
+        try {
+            channel = FileChannel.open(TraceFormat.segmentPath(directory, segmentIndex),
+                    StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                    StandardOpenOption.READ, StandardOpenOption.WRITE);
+            segment = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                    TraceFormat.segmentSize(recordsPerSegment, syncInterval));
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot map trace segment " + segmentIndex, e);
+        }
+        segment.putInt(0, TraceFormat.SEGMENT_MAGIC);
+        segment.putInt(4, segmentIndex);
+        segment.putLong(12, recorded);
+    }
+
+    private void closeSegment() {
+        if (segment == null) {
+            return;
+        }
+        segment.putInt(8, segmentRecords);
+        segment.force();
+        try {
+            channel.truncate(recordsOffset + (long) segmentRecords * TraceFormat.RECORD_SIZE);
+            channel.close();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot close trace segment " + segmentIndex, e);
+        }
+        segment = null;
+        channel = null;
+    }
+
+    private void writeHeader() {
+        final ByteBuffer header = ByteBuffer.allocate(TraceFormat.HEADER_SIZE);
+        header.putInt(TraceFormat.MAGIC)
+                .putInt(TraceFormat.VERSION)
+                .putInt(amountOfSources)
+                .putInt(amountOfDevices)
+                .putInt(bufferSize)
+                .putInt(ringSelection ? 1 : 0)
+                .putInt(recordsPerSegment)
+                .putInt(syncInterval)
+                .putInt(segmentIndex + 1)
+                .putLong(recorded);
+        header.flip();
+        try (FileChannel headerChannel = FileChannel.open(directory.resolve(TraceFormat.HEADER_FILE_NAME),
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            while (header.hasRemaining()) {
+                headerChannel.write(header);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write trace header to " + directory, e);
+        }
+    }
+
+}
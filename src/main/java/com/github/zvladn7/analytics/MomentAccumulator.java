@@ -0,0 +1,138 @@
+package com.github.zvladn7.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * One-pass accumulator of count, mean, variance, min and max (Welford's algorithm).
+ * Accumulators of different parts of the data are merged with Chan's formula,
+ * so the result does not depend on how the data was split between threads or replications.
+ */
+public class MomentAccumulator {
+
+    private long count;
+    private double mean;
+
+    /**
+     * Sum of squared differences from the current mean.
+     */
+    private double m2;
+    private double min = Double.NaN;
+    private double max = Double.NaN;
+
+    public void add(final double value) {
+        count++;
+        final double delta = value - mean;
+        mean += delta / count;
+        m2 += delta * (value - mean);
+        if (count == 1) {
+            min = value;
+            max = value;
+        } else if (value < min) {
+            min = value;
+        } else if (value > max) {
+            max = value;
+        }
+    }
+
+    /**
+     * Add all values of other accumulator to this one.
+     * @param other - accumulator to merge, it is not changed
+     * @return this accumulator
+     */
+    public MomentAccumulator merge(final MomentAccumulator other) {
+        if (other.count == 0) {
+            return this;
+        }
+        if (count == 0) {
+            count = other.count;
+            mean = other.mean;
+            m2 = other.m2;
+            min = other.min;
+            max = other.max;
+            return this;
+        }
+        final long mergedCount = count + other.count;
+        final double delta = other.mean - mean;
+        mean += delta * other.count / mergedCount;
+        m2 += other.m2 + delta * delta * ((double) count * other.count / mergedCount);
+        count = mergedCount;
+        min = Math.min(min, other.min);
+        max = Math.max(max, other.max);
+        return this;
+    }
+
+    public MomentAccumulator copy() {
+        return new MomentAccumulator().merge(this);
+    }
+
+    public void clear() {
+        count = 0;
+        mean = 0;
+        m2 = 0;
+        min = Double.NaN;
+        max = Double.NaN;
+    }
+
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * @return mean of values or NaN if there are no values
+     */
+    public double getMean() {
+        return count == 0 ? Double.NaN : mean;
+    }
+
+    /**
+     * @return unbiased sample variance or NaN if there are less than two values
+     */
+    public double getVariance() {
+        return count < 2 ? Double.NaN : m2 / (count - 1);
+    }
+
+    public double getStandardDeviation() {
+        return Math.sqrt(getVariance());
+    }
+
+    public double getMin() {
+        return min;
+    }
+
+    public double getMax() {
+        return max;
+    }
+
+    /**
+     * @return sum of squared differences from the mean
+     */
+    public double getM2() {
+        return m2;
+    }
+
+    /**
+     * Restore the accumulator from its moments, e.g. read from a checkpoint.
+     */
+    public void set(final long count, final double mean, final double m2, final double min, final double max) {
+        this.count = count;
+        this.mean = mean;
+        this.m2 = m2;
+        this.min = min;
+        this.max = max;
+    }
+
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeLong(count);
+        out.writeDouble(mean);
+        out.writeDouble(m2);
+        out.writeDouble(min);
+        out.writeDouble(max);
+    }
+
+    public void readState(final DataInput in) throws IOException {
+        set(in.readLong(), in.readDouble(), in.readDouble(), in.readDouble(), in.readDouble());
+    }
+
+}
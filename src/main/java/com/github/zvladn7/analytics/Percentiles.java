@@ -0,0 +1,52 @@
+package com.github.zvladn7.analytics;
+
+/**
+ * Percentiles of the distribution which are reported in results.
+ */
+public class Percentiles {
+
+    public static final Percentiles UNKNOWN = new Percentiles(Double.NaN, Double.NaN, Double.NaN, Double.NaN);
+
+    private final double p50;
+    private final double p90;
+    private final double p99;
+    private final double p999;
+
+    public Percentiles(final double p50, final double p90, final double p99, final double p999) {
+        this.p50 = p50;
+        this.p90 = p90;
+        this.p99 = p99;
+        this.p999 = p999;
+    }
+
+    public static Percentiles of(final LogHistogram histogram) {
+        return new Percentiles(
+                histogram.getValueAtPercentile(50),
+                histogram.getValueAtPercentile(90),
+                histogram.getValueAtPercentile(99),
+                histogram.getValueAtPercentile(99.9)
+        );
+    }
+
+    public double getP50() {
+        return p50;
+    }
+
+    public double getP90() {
+        return p90;
+    }
+
+    public double getP99() {
+        return p99;
+    }
+
+    public double getP999() {
+        return p999;
+    }
+
+    @Override
+    public String toString() {
+        return "{p50=" + p50 + ", p90=" + p90 + ", p99=" + p99 + ", p99.9=" + p999 + '}';
+    }
+
+}
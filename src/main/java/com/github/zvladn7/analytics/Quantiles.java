@@ -0,0 +1,102 @@
+package com.github.zvladn7.analytics;
+
+/**
+ * Quantiles of the distributions needed for confidence intervals.
+ */
+public final class Quantiles {
+
+    private static final double[] A = {
+            -3.969683028665376e+01, 2.209460984245205e+02, -2.759285104469687e+02,
+            1.383577518672690e+02, -3.066479806614716e+01, 2.506628277459239e+00
+    };
+    private static final double[] B = {
+            -5.447609879822406e+01, 1.615858368580409e+02, -1.556989798598866e+02,
+            6.680131188771972e+01, -1.328068155288572e+01
+    };
+    private static final double[] C = {
+            -7.784894002430293e-03, -3.223964580411365e-01, -2.400758277161838e+00,
+            -2.549732539343734e+00, 4.374664141464968e+00, 2.938163982698783e+00
+    };
+    private static final double[] D = {
+            7.784695709041462e-03, 3.224671290700398e-01, 2.445134137142996e+00, 3.754408661907416e+00
+    };
+    private static final double LOW_REGION = 0.02425;
+
+    private Quantiles() {
+
+    }
+
+    /**
+     * Quantile of the standard normal distribution (Acklam's approximation, relative error below 1.2e-9).
+     * @param p - probability in (0, 1)
+     * @return x such that P(Z <= x) = p
+     */
+    public static double normal(final double p) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("Probability must be in (0, 1): " + p);
+        }
+        if (p < LOW_REGION) {
+            final double q = Math.sqrt(-2 * Math.log(p));
+            return (((((C[0] * q + C[1]) * q + C[2]) * q + C[3]) * q + C[4]) * q + C[5])
+                    / ((((D[0] * q + D[1]) * q + D[2]) * q + D[3]) * q + 1);
+        }
+        if (p > 1 - LOW_REGION) {
+            return -normal(1 - p);
+        }
+        final double q = p - 0.5;
+        final double r = q * q;
+        return (((((A[0] * r + A[1]) * r + A[2]) * r + A[3]) * r + A[4]) * r + A[5]) * q
+                / (((((B[0] * r + B[1]) * r + B[2]) * r + B[3]) * r + B[4]) * r + 1);
+    }
+
+    /**
+     * Quantile of the Student's t-distribution (Hill's algorithm 396).
+     * @param p - probability in (0, 1)
+     * @param degreesOfFreedom - degrees of freedom, at least one
+     * @return x such that P(T <= x) = p
+     */
+    public static double student(final double p, final int degreesOfFreedom) {
+        if (p <= 0 || p >= 1) {
+            throw new IllegalArgumentException("Probability must be in (0, 1): " + p);
+        }
+        if (degreesOfFreedom < 1) {
+            throw new IllegalArgumentException("Degrees of freedom must be positive: " + degreesOfFreedom);
+        }
+        if (p == 0.5) {
+            return 0;
+        }
+        final double twoTailed = 2 * Math.min(p, 1 - p);
+        final double upper = studentUpper(twoTailed, degreesOfFreedom);
+        return p > 0.5 ? upper : -upper;
+    }
+
+    private static double studentUpper(final double p, final int n) {
+        if (n == 1) {
+            final double angle = p * Math.PI / 2;
+            return Math.cos(angle) / Math.sin(angle);
+        }
+        if (n == 2) {
+            return Math.sqrt(2 / (p * (2 - p)) - 2);
+        }
+        final double a = 1 / (n - 0.5);
+        final double b = 48 / (a * a);
+        double c = ((20700 * a / b - 98) * a - 16) * a + 96.36;
+        final double d = ((94.5 / (b + c) - 3) / b + 1) * Math.sqrt(a * Math.PI / 2) * n;
+        double y = Math.pow(d * p, 2.0 / n);
+        if (y > 0.05 + a) {
+            final double x = normal(0.5 * p);
+            y = x * x;
+            if (n < 5) {
+                c += 0.3 * (n - 4.5) * (x + 0.6);
+            }
+            c = (((0.05 * d * x - 5) * x - 7) * x - 2) * x + b + c;
+            y = (((((0.4 * y + 6.3) * y + 36) * y + 94.5) / c - y - 3) / b + 1) * x;
+            y = Math.expm1(a * y * y);
+        } else {
+            y = ((1 / (((n + 6) / (n * y) - 0.089 * d - 0.822) * (n + 2) * 3) + 0.5 / (n + 4)) * y - 1)
+                    * (n + 1) / (n + 2) + 1 / y;
+        }
+        return Math.sqrt(n * y);
+    }
+
+}
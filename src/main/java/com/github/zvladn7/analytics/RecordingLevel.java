@@ -0,0 +1,37 @@
+package com.github.zvladn7.analytics;
+
+/**
+ * How much of the run is recorded by {@link Analytics}.
+ * Levels below FULL_TRACE neither log events nor build any objects or strings per event.
+ */
+public enum RecordingLevel {
+
+    /**
+     * Nothing is recorded, results are not available. Useful to measure the engine itself.
+     */
+    NONE,
+
+    /**
+     * Only counters needed for the source and device results.
+     */
+    STATS_ONLY,
+
+    /**
+     * Counters and the last events of the run in a ring of fixed size.
+     */
+    BOUNDED_TAIL,
+
+    /**
+     * Counters, all events of the run and logging of every event.
+     */
+    FULL_TRACE;
+
+    public boolean isCountersEnabled() {
+        return this != NONE;
+    }
+
+    public boolean isEventsEnabled() {
+        return this == BOUNDED_TAIL || this == FULL_TRACE;
+    }
+
+}
@@ -0,0 +1,137 @@
+package com.github.zvladn7.analytics;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Confidence intervals of the source results over independent replications.
+ * Every replication gives one observation of each field of {@link SourceResults}.
+ */
+public class SourceEstimates {
+
+    private final int sourceNumber;
+    private final Estimate genNumber;
+    private final Estimate processedNumber;
+    private final Estimate canceledNumber;
+    private final Estimate probCancel;
+    private final Estimate timeInSystem;
+    private final Estimate timeOfWait;
+    private final Estimate timeOnDevice;
+    private final Estimate dispWait;
+    private final Estimate dispProc;
+
+    private SourceEstimates(final int sourceNumber, final Accumulators acc, final double confidence) {
+        this.sourceNumber = sourceNumber;
+        this.genNumber = Estimate.of(acc.genNumber, confidence);
+        this.processedNumber = Estimate.of(acc.processedNumber, confidence);
+        this.canceledNumber = Estimate.of(acc.canceledNumber, confidence);
+        this.probCancel = Estimate.of(acc.probCancel, confidence);
+        this.timeInSystem = Estimate.of(acc.timeInSystem, confidence);
+        this.timeOfWait = Estimate.of(acc.timeOfWait, confidence);
+        this.timeOnDevice = Estimate.of(acc.timeOnDevice, confidence);
+        this.dispWait = Estimate.of(acc.dispWait, confidence);
+        this.dispProc = Estimate.of(acc.dispProc, confidence);
+    }
+
+    /**
+     * @param replications - source results of each replication
+     * @param confidence - confidence level of intervals
+     * @return estimates for each source
+     */
+    public static List<SourceEstimates> of(final List<List<SourceResults>> replications, final double confidence) {
+        final List<SourceEstimates> estimates = new ArrayList<>();
+        if (replications.isEmpty()) {
+            return estimates;
+        }
+        final int amountOfSources = replications.get(0).size();
+        for (int i = 0; i < amountOfSources; ++i) {
+            final Accumulators acc = new Accumulators();
+            for (final List<SourceResults> replication : replications) {
+                acc.add(replication.get(i));
+            }
+            estimates.add(new SourceEstimates(i, acc, confidence));
+        }
+        return estimates;
+    }
+
+    private static final class Accumulators {
+        private final MomentAccumulator genNumber = new MomentAccumulator();
+        private final MomentAccumulator processedNumber = new MomentAccumulator();
+        private final MomentAccumulator canceledNumber = new MomentAccumulator();
+        private final MomentAccumulator probCancel = new MomentAccumulator();
+        private final MomentAccumulator timeInSystem = new MomentAccumulator();
+        private final MomentAccumulator timeOfWait = new MomentAccumulator();
+        private final MomentAccumulator timeOnDevice = new MomentAccumulator();
+        private final MomentAccumulator dispWait = new MomentAccumulator();
+        private final MomentAccumulator dispProc = new MomentAccumulator();
+
+        private void add(final SourceResults results) {
+            genNumber.add(results.getGenNumber());
+            processedNumber.add(results.getProcessedNumber());
+            canceledNumber.add(results.getCanceledNumber());
+            probCancel.add(results.getProbCancel());
+            timeInSystem.add(results.getTimeInSystem());
+            timeOfWait.add(results.getTimeOfWait());
+            timeOnDevice.add(results.getTimeOnDevice());
+            dispWait.add(results.getDispWait());
+            dispProc.add(results.getDispProc());
+        }
+    }
+
+    public int getSourceNumber() {
+        return sourceNumber;
+    }
+
+    public Estimate getGenNumber() {
+        return genNumber;
+    }
+
+    public Estimate getProcessedNumber() {
+        return processedNumber;
+    }
+
+    public Estimate getCanceledNumber() {
+        return canceledNumber;
+    }
+
+    public Estimate getProbCancel() {
+        return probCancel;
+    }
+
+    public Estimate getTimeInSystem() {
+        return timeInSystem;
+    }
+
+    public Estimate getTimeOfWait() {
+        return timeOfWait;
+    }
+
+    public Estimate getTimeOnDevice() {
+        return timeOnDevice;
+    }
+
+    public Estimate getDispWait() {
+        return dispWait;
+    }
+
+    public Estimate getDispProc() {
+        return dispProc;
+    }
+
+    @Override
+    public String toString() {
+        return "SourceEstimates{" +
+                "sourceNumber=" + sourceNumber +
+                ", genNumber=" + genNumber +
+                ", processedNumber=" + processedNumber +
+                ", canceledNumber=" + canceledNumber +
+                ", probCancel=" + probCancel +
+                ", timeInSystem=" + timeInSystem +
+                ", timeOfWait=" + timeOfWait +
+                ", timeOfWork=" + timeOnDevice +
+                ", dispWait=" + dispWait +
+                ", dispProc=" + dispProc +
+                '}';
+    }
+
+}
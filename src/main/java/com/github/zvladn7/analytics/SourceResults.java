@@ -12,8 +12,16 @@ public class SourceResults {
     private final double timeOnDevice;
     private final double dispWait;
     private final double dispProc;
+    private final MomentAccumulator waitMoments;
+    private final MomentAccumulator serviceMoments;
+    private final MomentAccumulator sojournMoments;
+    private final Percentiles waitPercentiles;
+    private final Percentiles servicePercentiles;
+    private final Percentiles sojournPercentiles;
 
-    public SourceResults(int sourceNumber, int genNumber, int processedNumber, int canceledNumber, double probCancel, double timeInSystem, double timeOfWait, double timeOnDevice, double dispWait, double dispProc) {
+    public SourceResults(int sourceNumber, int genNumber, int processedNumber, int canceledNumber, double probCancel, double timeInSystem, double timeOfWait, double timeOnDevice, double dispWait, double dispProc,
+                         MomentAccumulator waitMoments, MomentAccumulator serviceMoments, MomentAccumulator sojournMoments,
+                         Percentiles waitPercentiles, Percentiles servicePercentiles, Percentiles sojournPercentiles) {
         this.sourceNumber = sourceNumber;
         this.genNumber = genNumber;
         this.processedNumber = processedNumber;
@@ -24,6 +32,12 @@ public class SourceResults {
         this.timeOnDevice = timeOnDevice;
         this.dispWait = dispWait;
         this.dispProc = dispProc;
+        this.waitMoments = waitMoments;
+        this.serviceMoments = serviceMoments;
+        this.sojournMoments = sojournMoments;
+        this.waitPercentiles = waitPercentiles;
+        this.servicePercentiles = servicePercentiles;
+        this.sojournPercentiles = sojournPercentiles;
     }
 
     public int getSourceNumber() {
@@ -66,6 +80,67 @@ public class SourceResults {
         return dispProc;
     }
 
+    /**
+     * @return moments of the wait in the buffer of processed and canceled requests
+     */
+    public MomentAccumulator getWaitMoments() {
+        return waitMoments;
+    }
+
+    /**
+     * @return moments of the service time of processed requests
+     */
+    public MomentAccumulator getServiceMoments() {
+        return serviceMoments;
+    }
+
+    /**
+     * @return moments of the time in system of processed and canceled requests
+     */
+    public MomentAccumulator getSojournMoments() {
+        return sojournMoments;
+    }
+
+    public double getVarOfWait() {
+        return waitMoments.getVariance();
+    }
+
+    public double getVarOfService() {
+        return serviceMoments.getVariance();
+    }
+
+    public double getVarInSystem() {
+        return sojournMoments.getVariance();
+    }
+
+    public Percentiles getWaitPercentiles() {
+        return waitPercentiles;
+    }
+
+    public Percentiles getServicePercentiles() {
+        return servicePercentiles;
+    }
+
+    public Percentiles getSojournPercentiles() {
+        return sojournPercentiles;
+    }
+
+    public double getP50InSystem() {
+        return sojournPercentiles.getP50();
+    }
+
+    public double getP90InSystem() {
+        return sojournPercentiles.getP90();
+    }
+
+    public double getP99InSystem() {
+        return sojournPercentiles.getP99();
+    }
+
+    public double getP999InSystem() {
+        return sojournPercentiles.getP999();
+    }
+
     @Override
     public String toString() {
         return "SourceResults{" +
@@ -79,6 +154,12 @@ public class SourceResults {
                 ", timeOfWork=" + timeOnDevice +
                 ", dispWait=" + dispWait +
                 ", dispProc=" + dispProc +
+                ", varOfWait=" + getVarOfWait() +
+                ", varOfService=" + getVarOfService() +
+                ", varInSystem=" + getVarInSystem() +
+                ", waitPercentiles=" + waitPercentiles +
+                ", servicePercentiles=" + servicePercentiles +
+                ", sojournPercentiles=" + sojournPercentiles +
                 '}';
     }
 
@@ -0,0 +1,58 @@
+package com.github.zvladn7.analytics;
+
+import java.nio.file.Path;
+
+/**
+ * Layout of the on-disk trace written by {@link MappedTraceWriter} and read by {@link MappedTrace}.
+ *
+ * Trace is a directory with the header file and segment files, all numbers are big-endian.
+ * Header: magic, version, sources, devices, buffer size, ring selection of devices (0 or 1),
+ * records per segment, sync interval, amount of segments (ints) and amount of records (long).
+ * Segment: magic, segment index, amount of records (ints), index of the first record (long),
+ * sync table and fixed-width records.
+ * Record (16 bytes): time delta (float), type in the upper 3 bits and source number in the rest (int),
+ * component number (int) and additional info (int).
+ * Time delta is taken from the time restored from the previous record, so rounding errors do not accumulate,
+ * and it is never negative, so restored times keep the order of events.
+ * Sync table holds the restored time of every sync interval-th record of the segment
+ * to start reading from any place of the segment without summing all deltas before it.
+ */
+final class TraceFormat {
+
+    static final int MAGIC = 0x534D4F54;
+    static final int SEGMENT_MAGIC = 0x534D4F53;
+    static final int VERSION = 2;
+
+    static final String HEADER_FILE_NAME = "trace.header";
+    static final int HEADER_SIZE = 9 * Integer.BYTES + Long.BYTES;
+
+    static final int SEGMENT_HEADER_SIZE = 3 * Integer.BYTES + Long.BYTES + Integer.BYTES;
+    static final int RECORD_SIZE = 16;
+
+    static final int TYPE_SHIFT = 29;
+    static final int SOURCE_MASK = (1 << TYPE_SHIFT) - 1;
+
+    static final int DEFAULT_RECORDS_PER_SEGMENT = 1 << 20;
+    static final int DEFAULT_SYNC_INTERVAL = 1 << 10;
+
+    private TraceFormat() {
+
+    }
+
+    static Path segmentPath(final Path directory, final int segment) {
+        return directory.resolve(String.format("segment-%06d.trace", segment));
+    }
+
+    static int syncEntries(final int recordsPerSegment, final int syncInterval) {
+        return (recordsPerSegment + syncInterval - 1) / syncInterval;
+    }
+
+    static long recordsOffset(final int recordsPerSegment, final int syncInterval) {
+        return SEGMENT_HEADER_SIZE + (long) syncEntries(recordsPerSegment, syncInterval) * Double.BYTES;
+    }
+
+    static long segmentSize(final int recordsPerSegment, final int syncInterval) {
+        return recordsOffset(recordsPerSegment, syncInterval) + (long) recordsPerSegment * RECORD_SIZE;
+    }
+
+}
@@ -0,0 +1,134 @@
+package com.github.zvladn7.analytics;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Detector of the end of the initial transient by the MSER-5 rule of White.
+ * Observations are grouped into batches of 5, for every truncation point d the statistic
+ * sum((Z_j - mean_d)^2) / (k - d)^2 over the batch means after d is computed and the minimum is found.
+ * The transient is over when the minimum is in the first half of the batches,
+ * otherwise there is not enough data after the transient yet.
+ * The rule is checked each time the amount of batches grows by a quarter, so all checks take O(n) in total.
+ */
+public class WarmupDetector {
+
+    public static final int BATCH_SIZE = 5;
+    public static final int MIN_BATCHES = 40;
+
+    private static final int INITIAL_CAPACITY = 256;
+
+    private double[] batchMeans = new double[INITIAL_CAPACITY];
+    private int batches;
+    private double currentSum;
+    private int currentCount;
+    private int nextCheck = MIN_BATCHES;
+    private int truncationBatch = -1;
+
+    public void add(final double value) {
+        currentSum += value;
+        if (++currentCount < BATCH_SIZE) {
+            return;
+        }
+        if (batches == batchMeans.length) {
+            batchMeans = Arrays.copyOf(batchMeans, batches << 1);
+        }
+        batchMeans[batches++] = currentSum / BATCH_SIZE;
+        currentSum = 0;
+        currentCount = 0;
+    }
+
+    /**
+     * Check the rule if enough new batches have come since the last check.
+     * @return true if the transient is over, it stays true after that
+     */
+    public boolean isWarmedUp() {
+        if (truncationBatch != -1) {
+            return true;
+        }
+        if (batches < nextCheck) {
+            return false;
+        }
+        nextCheck = batches + Math.max(MIN_BATCHES, batches / 4);
+        final int best = findTruncationBatch();
+        if (best < batches / 2) {
+            truncationBatch = best;
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * @return amount of batches to drop which minimizes the MSER statistic, searched over the first half
+     */
+    private int findTruncationBatch() {
+        // shifted by the last batch to avoid cancellation in the sum of squares
+        final double shift = batchMeans[batches - 1];
+        double sum = 0;
+        double sumOfSquares = 0;
+        int best = batches - 1;
+        double bestStatistic = Double.POSITIVE_INFINITY;
+        for (int d = batches - 1; d >= 0; --d) {
+            final double z = batchMeans[d] - shift;
+            sum += z;
+            sumOfSquares += z * z;
+            final int n = batches - d;
+            if (d <= batches / 2) {
+                final double statistic = (sumOfSquares - sum * sum / n) / ((double) n * n);
+                if (statistic <= bestStatistic) {
+                    bestStatistic = statistic;
+                    best = d;
+                }
+            }
+        }
+        return best;
+    }
+
+    /**
+     * @return amount of observations in the transient or -1 if it is not detected yet
+     */
+    public long getTruncatedObservations() {
+        return truncationBatch == -1 ? -1 : (long) truncationBatch * BATCH_SIZE;
+    }
+
+    public long getObservations() {
+        return (long) batches * BATCH_SIZE + currentCount;
+    }
+
+    public WarmupDetector copy() {
+        final WarmupDetector copy = new WarmupDetector();
+        copy.batchMeans = Arrays.copyOf(batchMeans, batchMeans.length);
+        copy.batches = batches;
+        copy.currentSum = currentSum;
+        copy.currentCount = currentCount;
+        copy.nextCheck = nextCheck;
+        copy.truncationBatch = truncationBatch;
+        return copy;
+    }
+
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeInt(batches);
+        for (int i = 0; i < batches; ++i) {
+            out.writeDouble(batchMeans[i]);
+        }
+        out.writeDouble(currentSum);
+        out.writeInt(currentCount);
+        out.writeInt(nextCheck);
+        out.writeInt(truncationBatch);
+    }
+
+    public void readState(final DataInput in) throws IOException {
+        batches = in.readInt();
+        batchMeans = new double[Math.max(INITIAL_CAPACITY, batches)];
+        for (int i = 0; i < batches; ++i) {
+            batchMeans[i] = in.readDouble();
+        }
+        currentSum = in.readDouble();
+        currentCount = in.readInt();
+        nextCheck = in.readInt();
+        truncationBatch = in.readInt();
+    }
+
+}
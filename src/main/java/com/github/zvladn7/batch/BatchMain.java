@@ -0,0 +1,149 @@
+package com.github.zvladn7.batch;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.controllers.ReplicationRunner;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Headless entry point which runs scenario files and streams their results,
+ * it does not touch any JavaFX class.
+ * <pre>
+ * BatchMain [--threads N] [--format csv|jsonl] [--output FILE] SCENARIO...
+ * </pre>
+ * Scenarios run on N threads (all processors by default), the results of each scenario are written
+ * as soon as it finishes, to the standard output if there is no output file.
+ */
+public class BatchMain {
+
+    static {
+        // results may go to the standard output, so the logs go to the standard error
+        if (System.getProperty("logback.configurationFile") == null) {
+            System.setProperty("logback.configurationFile", "logback-batch.xml");
+        }
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(BatchMain.class);
+
+    private static final String USAGE =
+            "Usage: BatchMain [--threads N] [--format csv|jsonl] [--output FILE] SCENARIO...";
+
+    public static void main(String[] args) {
+        int threads = Runtime.getRuntime().availableProcessors();
+        String format = "csv";
+        Path output = null;
+        final List<Path> files = new ArrayList<>();
+        try {
+            for (int i = 0; i < args.length; ++i) {
+                switch (args[i]) {
+                    case "--threads":
+                        threads = Integer.parseInt(args[++i]);
+                        break;
+                    case "--format":
+                        format = args[++i];
+                        break;
+                    case "--output":
+                        output = Paths.get(args[++i]);
+                        break;
+                    default:
+                        files.add(Paths.get(args[i]));
+                }
+            }
+        } catch (final ArrayIndexOutOfBoundsException | NumberFormatException e) {
+            exitWithUsage();
+        }
+        if (files.isEmpty() || threads < 1) {
+            exitWithUsage();
+        }
+
+        final List<Scenario> scenarios = new ArrayList<>();
+        for (final Path file : files) {
+            scenarios.addAll(ScenarioReader.read(file));
+        }
+        try (ResultWriter writer = ResultWriter.create(format, openOutput(output))) {
+            run(scenarios, threads, writer);
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot write results", e);
+        }
+    }
+
+    /**
+     * Run scenarios and write results of each one in the order they finish.
+     */
+    public static void run(final List<Scenario> scenarios,
+                           final int threads,
+                           final ResultWriter writer) throws IOException {
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            final CompletionService<ScenarioResult> completion = new ExecutorCompletionService<>(executor);
+            for (final Scenario scenario : scenarios) {
+                completion.submit(() -> new ScenarioResult(scenario.getName(), runScenario(scenario)));
+            }
+            writer.writeHeader();
+            for (int i = 0; i < scenarios.size(); ++i) {
+                final Future<ScenarioResult> future = completion.take();
+                final ScenarioResult result = future.get();
+                writer.write(result.name, result.analytics);
+                logger.info("Сценарий {} выполнен ({} из {})", result.name, i + 1, scenarios.size());
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Batch was interrupted", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Scenario failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Replications of the scenario run on its thread, the scenarios themselves are parallel.
+     */
+    private static Analytics runScenario(final Scenario scenario) {
+        if (scenario.getReplications() == 1) {
+            return scenario.getController().modulateWork();
+        }
+        return new ReplicationRunner(scenario.getController(), scenario.getReplications(), 1).run().getMerged();
+    }
+
+    private static Writer openOutput(final Path output) throws IOException {
+        if (output == null) {
+            return new BufferedWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8));
+        }
+        return Files.newBufferedWriter(output, StandardCharsets.UTF_8);
+    }
+
+    private static void exitWithUsage() {
+        System.err.println(USAGE);
+        System.exit(2);
+    }
+
+    private static final class ScenarioResult {
+        private final String name;
+        private final Analytics analytics;
+
+        private ScenarioResult(final String name, final Analytics analytics) {
+            this.name = name;
+            this.analytics = analytics;
+        }
+    }
+
+}
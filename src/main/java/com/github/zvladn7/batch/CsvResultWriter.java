@@ -0,0 +1,61 @@
+package com.github.zvladn7.batch;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * CSV with the union of source and device columns, columns of the other kind are empty.
+ */
+class CsvResultWriter extends ResultWriter {
+
+    private static final char SEPARATOR = ',';
+
+    CsvResultWriter(final Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    public void writeHeader() throws IOException {
+        writer.write("scenario,kind");
+        for (final String field : SOURCE_FIELDS) {
+            writer.write(SEPARATOR);
+            writer.write(field);
+        }
+        for (final String field : DEVICE_FIELDS) {
+            writer.write(SEPARATOR);
+            writer.write(field);
+        }
+        writer.write('\n');
+    }
+
+    @Override
+    protected void writeRecord(final String scenario,
+                               final String kind,
+                               final String[] fields,
+                               final Object[] values) throws IOException {
+        writer.write(quote(scenario));
+        writer.write(SEPARATOR);
+        writer.write(kind);
+        final boolean source = fields == SOURCE_FIELDS;
+        writeColumns(SOURCE_FIELDS.length, source ? values : null);
+        writeColumns(DEVICE_FIELDS.length, source ? null : values);
+        writer.write('\n');
+    }
+
+    private void writeColumns(final int amount, final Object[] values) throws IOException {
+        for (int i = 0; i < amount; ++i) {
+            writer.write(SEPARATOR);
+            if (values != null) {
+                writer.write(String.valueOf(values[i]));
+            }
+        }
+    }
+
+    private static String quote(final String value) {
+        if (value.indexOf(SEPARATOR) == -1 && value.indexOf('"') == -1 && value.indexOf('\n') == -1) {
+            return value;
+        }
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.github.zvladn7.batch;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Parser of the JSON object or array of objects with values of simple types only,
+ * which is all the scenario files need. Values are returned as strings.
+ */
+final class FlatJsonParser {
+
+    private final String text;
+    private int position;
+
+    private FlatJsonParser(final String text) {
+        this.text = text;
+    }
+
+    static List<Map<String, String>> parse(final String text) {
+        final FlatJsonParser parser = new FlatJsonParser(text);
+        final List<Map<String, String>> objects = new ArrayList<>();
+        parser.skipSpaces();
+        if (parser.peek() == '[') {
+            parser.position++;
+            parser.skipSpaces();
+            if (parser.peek() == ']') {
+                parser.position++;
+            } else {
+                do {
+                    objects.add(parser.readObject());
+                } while (parser.readSeparator(']'));
+            }
+        } else {
+            objects.add(parser.readObject());
+        }
+        parser.skipSpaces();
+        if (parser.position != text.length()) {
+            throw parser.error("end of input");
+        }
+        return objects;
+    }
+
+    private Map<String, String> readObject() {
+        skipSpaces();
+        expect('{');
+        final Map<String, String> values = new LinkedHashMap<>();
+        skipSpaces();
+        if (peek() == '}') {
+            position++;
+            return values;
+        }
+        do {
+            skipSpaces();
+            final String key = readString();
+            skipSpaces();
+            expect(':');
+            skipSpaces();
+            final String value = readValue();
+            if (value != null) {
+                values.put(key, value);
+            }
+        } while (readSeparator('}'));
+        return values;
+    }
+
+    /**
+     * @return true after the comma, false after the closing bracket
+     */
+    private boolean readSeparator(final char close) {
+        skipSpaces();
+        final char c = peek();
+        position++;
+        if (c == ',') {
+            return true;
+        }
+        if (c == close) {
+            return false;
+        }
+        position--;
+        throw error("',' or '" + close + "'");
+    }
+
+    private String readValue() {
+        final char c = peek();
+        if (c == '"') {
+            return readString();
+        }
+        final int start = position;
+        while (position < text.length() && ",}] \t\r\n".indexOf(text.charAt(position)) == -1) {
+            position++;
+        }
+        final String literal = text.substring(start, position);
+        if (literal.isEmpty() || c == '{' || c == '[') {
+            throw error("simple value");
+        }
+        return "null".equals(literal) ? null : literal;
+    }
+
+    private String readString() {
+        expect('"');
+        final StringBuilder value = new StringBuilder();
+        while (true) {
+            final char c = next();
+            if (c == '"') {
+                return value.toString();
+            }
+            if (c != '\\') {
+                value.append(c);
+                continue;
+            }
+            final char escaped = next();
+            switch (escaped) {
+                case 'n':
+                    value.append('\n');
+                    break;
+                case 't':
+                    value.append('\t');
+                    break;
+                case 'r':
+                    value.append('\r');
+                    break;
+                case 'b':
+                    value.append('\b');
+                    break;
+                case 'f':
+                    value.append('\f');
+                    break;
+                case 'u':
+                    if (position + 4 > text.length()) {
+                        throw error("unicode escape");
+                    }
+                    value.append((char) Integer.parseInt(text.substring(position, position + 4), 16));
+                    position += 4;
+                    break;
+                default:
+                    value.append(escaped);
+            }
+        }
+    }
+
+    private void expect(final char expected) {
+        if (peek() != expected) {
+            throw error("'" + expected + "'");
+        }
+        position++;
+    }
+
+    private char next() {
+        if (position == text.length()) {
+            throw error("more input");
+        }
+        return text.charAt(position++);
+    }
+
+    private char peek() {
+        return position < text.length() ? text.charAt(position) : 0;
+    }
+
+    private void skipSpaces() {
+        while (position < text.length() && Character.isWhitespace(text.charAt(position))) {
+            position++;
+        }
+    }
+
+    private IllegalArgumentException error(final String expected) {
+        return new IllegalArgumentException("Expected " + expected + " at position " + position + " of JSON");
+    }
+
+}
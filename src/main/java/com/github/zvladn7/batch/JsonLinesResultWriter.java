@@ -0,0 +1,51 @@
+package com.github.zvladn7.batch;
+
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * One JSON object per line, undefined values (NaN) are written as null.
+ */
+class JsonLinesResultWriter extends ResultWriter {
+
+    JsonLinesResultWriter(final Writer writer) {
+        super(writer);
+    }
+
+    @Override
+    protected void writeRecord(final String scenario,
+                               final String kind,
+                               final String[] fields,
+                               final Object[] values) throws IOException {
+        final StringBuilder line = new StringBuilder("{\"scenario\":");
+        appendString(line, scenario);
+        line.append(",\"kind\":\"").append(kind).append('"');
+        for (int i = 0; i < fields.length; ++i) {
+            line.append(",\"").append(fields[i]).append("\":");
+            final Object value = values[i];
+            if (value instanceof Double && (((Double) value).isNaN() || ((Double) value).isInfinite())) {
+                line.append("null");
+            } else {
+                line.append(value);
+            }
+        }
+        line.append("}\n");
+        writer.write(line.toString());
+    }
+
+    private static void appendString(final StringBuilder line, final String value) {
+        line.append('"');
+        for (int i = 0; i < value.length(); ++i) {
+            final char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                line.append('\\').append(c);
+            } else if (c < ' ') {
+                line.append(String.format("\\u%04x", (int) c));
+            } else {
+                line.append(c);
+            }
+        }
+        line.append('"');
+    }
+
+}
@@ -0,0 +1,93 @@
+package com.github.zvladn7.batch;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.DeviceResults;
+import com.github.zvladn7.analytics.SourceResults;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.Writer;
+
+/**
+ * Writer of the results of scenarios, one record for every source and every device.
+ * Records of the scenario are flushed as soon as it is written.
+ */
+public abstract class ResultWriter implements Closeable {
+
+    static final String SOURCE_KIND = "source";
+    static final String DEVICE_KIND = "device";
+
+    static final String[] SOURCE_FIELDS = {
+            "sourceNumber", "genNumber", "processedNumber", "canceledNumber", "probCancel",
+            "timeInSystem", "timeOfWait", "timeOnDevice", "dispWait", "dispProc",
+            "varOfWait", "varOfService", "varInSystem",
+            "p50InSystem", "p90InSystem", "p99InSystem", "p999InSystem"
+    };
+
+    static final String[] DEVICE_FIELDS = {
+            "deviceNumber", "timeOfWork", "timeOfRealization", "coefOfRealization",
+            "avgBusyPeriod", "varBusyPeriod"
+    };
+
+    protected final Writer writer;
+
+    protected ResultWriter(final Writer writer) {
+        this.writer = writer;
+    }
+
+    public static ResultWriter create(final String format, final Writer writer) {
+        switch (format) {
+            case "csv":
+                return new CsvResultWriter(writer);
+            case "jsonl":
+                return new JsonLinesResultWriter(writer);
+            default:
+                throw new IllegalArgumentException("Unknown format: " + format);
+        }
+    }
+
+    /**
+     * Write the beginning of the output, invoked once before any result.
+     */
+    public void writeHeader() throws IOException {
+    }
+
+    public void write(final String scenario, final Analytics analytics) throws IOException {
+        for (final SourceResults results : analytics.getSourceResultsList()) {
+            writeRecord(scenario, SOURCE_KIND, SOURCE_FIELDS, values(results));
+        }
+        for (final DeviceResults results : analytics.getDeviceResultsList()) {
+            writeRecord(scenario, DEVICE_KIND, DEVICE_FIELDS, values(results));
+        }
+        writer.flush();
+    }
+
+    protected abstract void writeRecord(final String scenario,
+                                        final String kind,
+                                        final String[] fields,
+                                        final Object[] values) throws IOException;
+
+    private static Object[] values(final SourceResults results) {
+        return new Object[]{
+                results.getSourceNumber(), results.getGenNumber(), results.getProcessedNumber(),
+                results.getCanceledNumber(), results.getProbCancel(),
+                results.getTimeInSystem(), results.getTimeOfWait(), results.getTimeOnDevice(),
+                results.getDispWait(), results.getDispProc(),
+                results.getVarOfWait(), results.getVarOfService(), results.getVarInSystem(),
+                results.getP50InSystem(), results.getP90InSystem(), results.getP99InSystem(), results.getP999InSystem()
+        };
+    }
+
+    private static Object[] values(final DeviceResults results) {
+        return new Object[]{
+                results.getDeviceNumber(), results.getTimeOfWork(), results.getTimeOfRealization(),
+                results.getCoefOfRealization(), results.getAvgBusyPeriod(), results.getVarBusyPeriod()
+        };
+    }
+
+    @Override
+    public void close() throws IOException {
+        writer.close();
+    }
+
+}
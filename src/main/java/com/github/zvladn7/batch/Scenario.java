@@ -0,0 +1,32 @@
+package com.github.zvladn7.batch;
+
+import com.github.zvladn7.controllers.Controller;
+
+/**
+ * Named run of the batch: parameters of the system and amount of its replications.
+ */
+public class Scenario {
+
+    private final String name;
+    private final Controller controller;
+    private final int replications;
+
+    public Scenario(final String name, final Controller controller, final int replications) {
+        this.name = name;
+        this.controller = controller;
+        this.replications = replications;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Controller getController() {
+        return controller;
+    }
+
+    public int getReplications() {
+        return replications;
+    }
+
+}
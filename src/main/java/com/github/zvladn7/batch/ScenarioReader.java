@@ -0,0 +1,143 @@
+package com.github.zvladn7.batch;
+
+import com.github.zvladn7.analytics.RecordingLevel;
+import com.github.zvladn7.components.BufferDisciplineType;
+import com.github.zvladn7.controllers.Controller;
+import com.github.zvladn7.controllers.SweepParameter;
+import com.github.zvladn7.distributions.Distributions;
+import com.github.zvladn7.managers.DeviceSelectionType;
+import com.github.zvladn7.util.RandomAlgorithm;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Reader of scenario files. Keys are the names of {@link Controller.Builder} properties:
+ * alpha, beta, amountOfSources, lamda, amountOfDevices, bufferSize, requestsNumber,
+ * recordingLevel, tailSize, histogramPrecision, seed, randomAlgorithm, bufferDiscipline, deviceSelection,
+ * metricsEnabled, warmupDetection, batchMeans, interArrivalTime, serviceTime, deviceServiceTimes,
+ * and also name and replications of the scenario.
+ * A .json file holds one object or an array of objects, any other file is read as properties.
+ * Scenarios run with counters only and without JMX metrics unless the file asks for more.
+ */
+public final class ScenarioReader {
+
+    private static final String NAME_KEY = "name";
+    private static final String REPLICATIONS_KEY = "replications";
+
+    private ScenarioReader() {
+
+    }
+
+    public static List<Scenario> read(final Path file) {
+        try {
+            final List<Scenario> scenarios = new ArrayList<>();
+            if (file.getFileName().toString().endsWith(".json")) {
+                final String content = new String(Files.readAllBytes(file), StandardCharsets.UTF_8);
+                final List<Map<String, String>> objects = FlatJsonParser.parse(content);
+                for (int i = 0; i < objects.size(); ++i) {
+                    final String defaultName = objects.size() == 1 ? baseName(file) : baseName(file) + "#" + i;
+                    scenarios.add(toScenario(objects.get(i), defaultName, file));
+                }
+            } else {
+                final Properties properties = new Properties();
+                try (Reader reader = Files.newBufferedReader(file, StandardCharsets.UTF_8)) {
+                    properties.load(reader);
+                }
+                final Map<String, String> values = new LinkedHashMap<>();
+                for (final String key : properties.stringPropertyNames()) {
+                    values.put(key, properties.getProperty(key).trim());
+                }
+                scenarios.add(toScenario(values, baseName(file), file));
+            }
+            return scenarios;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot read scenario " + file, e);
+        }
+    }
+
+    private static String baseName(final Path file) {
+        final String fileName = file.getFileName().toString();
+        final int dot = fileName.lastIndexOf('.');
+        return dot > 0 ? fileName.substring(0, dot) : fileName;
+    }
+
+    private static Scenario toScenario(final Map<String, String> values, final String defaultName, final Path file) {
+        final Controller.Builder builder = Controller.newBuilder()
+                .setRecordingLevel(RecordingLevel.STATS_ONLY)
+                .setMetricsEnabled(false);
+        String name = defaultName;
+        int replications = 1;
+        for (final Map.Entry<String, String> entry : values.entrySet()) {
+            final String key = entry.getKey();
+            final String value = entry.getValue();
+            try {
+                switch (key) {
+                    case NAME_KEY:
+                        name = value;
+                        break;
+                    case REPLICATIONS_KEY:
+                        replications = Integer.parseInt(value);
+                        break;
+                    case "recordingLevel":
+                        builder.setRecordingLevel(RecordingLevel.valueOf(value));
+                        break;
+                    case "tailSize":
+                        builder.setTailSize(Integer.parseInt(value));
+                        break;
+                    case "histogramPrecision":
+                        builder.setHistogramPrecision(Integer.parseInt(value));
+                        break;
+                    case "seed":
+                        builder.setSeed(Long.parseLong(value));
+                        break;
+                    case "randomAlgorithm":
+                        builder.setRandomAlgorithm(RandomAlgorithm.valueOf(value));
+                        break;
+                    case "bufferDiscipline":
+                        builder.setBufferDiscipline(BufferDisciplineType.valueOf(value));
+                        break;
+                    case "deviceSelection":
+                        builder.setDeviceSelection(DeviceSelectionType.valueOf(value));
+                        break;
+                    case "metricsEnabled":
+                        builder.setMetricsEnabled(Boolean.parseBoolean(value));
+                        break;
+                    case "warmupDetection":
+                        builder.setWarmupDetection(Boolean.parseBoolean(value));
+                        break;
+                    case "batchMeans":
+                        builder.setBatchMeans(Integer.parseInt(value));
+                        break;
+                    case "interArrivalTime":
+                        builder.setInterArrivalTime(Distributions.parse(value));
+                        break;
+                    case "serviceTime":
+                        builder.setServiceTime(Distributions.parse(value));
+                        break;
+                    case "deviceServiceTimes":
+                        builder.setDeviceServiceTimes(Distributions.parseList(value));
+                        break;
+                    default:
+                        SweepParameter.byColumnName(key).apply(builder, Double.parseDouble(value));
+                }
+            } catch (final IllegalArgumentException e) {
+                throw new IllegalArgumentException("Invalid value of " + key + " in " + file + ": " + value, e);
+            }
+        }
+        if (replications < 1) {
+            throw new IllegalArgumentException("Amount of replications must be positive in " + file);
+        }
+        return new Scenario(name, builder.build(), replications);
+    }
+
+}
@@ -1,114 +1,238 @@
 package com.github.zvladn7.components;
 
-import com.github.zvladn7.util.Pair;
+import com.github.zvladn7.util.FenwickTree;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
-import java.util.LinkedList;
 
+/**
+ * Buffer of requests where the order of service and the canceled request are chosen by the {@link BufferDiscipline}.
+ * Slot positions are kept by the order of insertion and computed with a Fenwick tree.
+ * Requests are handles of the {@link RequestPool}, results are returned through the reused {@link Slot}.
+ */
 public class Buffer {
 
     private static final Logger logger = LoggerFactory.getLogger(Buffer.class);
 
-    final private LinkedList<Request> requests;
+    private static final int MIN_ORDER_WINDOW = 16;
+
     final private int capacity;
-    private int packageAmount = 0;
+    private final RequestPool pool;
+    private final boolean tracing;
+    private final BufferDiscipline discipline;
+
+    /**
+     * Requests by the order of insertion, removed requests are NO_REQUEST.
+     * Order is compacted when the window is exhausted.
+     */
+    private final int[] order;
+    private int[] orderOfRequest;
+    private final FenwickTree occupied;
+    private int nextOrder;
+    private int size;
+
+    private final Slot slot = new Slot();
+
+    public Buffer(final int capacity,
+                  final int amountOfSources,
+                  final RequestPool pool,
+                  final boolean tracing) {
+        this(capacity, amountOfSources, pool, tracing, BufferDisciplineType.PACKAGE_PRIORITY);
+    }
 
-    public Buffer(final int capacity) {
+    /**
+     * @param disciplineType - discipline of service and cancel of requests
+     */
+    public Buffer(final int capacity,
+                  final int amountOfSources,
+                  final RequestPool pool,
+                  final boolean tracing,
+                  final BufferDisciplineType disciplineType) {
         this.capacity = capacity;
-        requests = new LinkedList<>();
+        this.pool = pool;
+        this.tracing = tracing && logger.isInfoEnabled();
+        this.discipline = disciplineType.create(capacity, amountOfSources, pool);
+        this.order = new int[Math.max(MIN_ORDER_WINDOW, 2 * capacity)];
+        Arrays.fill(order, RequestPool.NO_REQUEST);
+        this.orderOfRequest = new int[pool.capacity()];
+        this.occupied = new FenwickTree(order.length);
     }
 
-    public Pair<Integer, Request> put(final Request request) {
-        if (isFull()) {
-            return getLessPriority(request);
+    /**
+     * Put the request to the buffer. If the buffer is full the request chosen by the discipline is canceled,
+     * it can be the new request itself.
+     * @param request - handle of the new request
+     * @return slot where position is the index of the put request or the index of the canceled one
+     * (-1 if the new request is canceled) and request is the canceled one or NO_REQUEST
+     */
+    public Slot put(final int request) {
+        if (!isFull()) {
+            return slot.set(append(request), RequestPool.NO_REQUEST);
         }
-        requests.add(request);
-        return new Pair<>(requests.indexOf(request), null);
+        final int canceled = discipline.evict(request);
+        traceCanceled(canceled);
+        if (canceled == request) {
+            return slot.set(-1, request);
+        }
+        final int i = release(canceled);
+        append(request);
+        return slot.set(i, canceled);
     }
 
-    public Pair<Integer, Request> getPriorityRequest() {
-        int theMostPriorSource = Integer.MAX_VALUE;
-        Request prior = null;
-        for (final Request request : requests) {
-            if (request.getSourceNumber() < theMostPriorSource) {
-               prior = request;
-               theMostPriorSource = request.getSourceNumber();
-            }
-        }
-        assert prior != null;
-        final int index = requests.indexOf(prior);
-        requests.remove(prior);
-        for (final Request request : requests) {
-            if (request.getSourceNumber() == prior.getSourceNumber()) {
-                packageAmount++;
-            }
+    /**
+     * Take the next request by the discipline, the buffer must not be empty.
+     */
+    public Slot getNextRequest() {
+        final int request = discipline.poll();
+        final int index = release(request);
+        if (tracing) {
+            logger.info("Следующий запрос источника №{} : {}", pool.getSourceNumber(request), pool.getNumber(request));
+            print();
         }
-        logger.info("Amount of requests in package: {}, package = {}", packageAmount, prior.getSourceNumber());
-        print();
-        return new Pair<>(index, prior);
+        return slot.set(index, request);
     }
 
     /**
      * Return the next Request from the package or null if there is no more requests from this package number.
      * @param packageNumber - number of the package that will be processed on devices
-     * @return request from the package or null
+     * @return slot of request from the package or null
      */
-    public Pair<Integer, Request> getPackageRequest(final int packageNumber) {
-        if (packageAmount == 0) {
+    public Slot getPackageRequest(final int packageNumber) {
+        final int request = discipline.pollPackage(packageNumber);
+        if (request == RequestPool.NO_REQUEST) {
             return null;
         }
-        for (final Request request : requests) {
-            if (request.getSourceNumber() == packageNumber) {
-                logger.info("Следующий запрос из пакета №{} : {}", request.getSourceNumber(), request.getNumber());
-                final int index = requests.indexOf(request);
-                requests.remove(request);
-                packageAmount--;
-                logger.info("Amount of requests in package: {}, package = {}", packageAmount, request.getSourceNumber());
-                print();
-                return new Pair<>(index, request);
-            }
+        final int index = release(request);
+        if (tracing) {
+            logger.info("Следующий запрос из пакета №{} : {}", packageNumber, pool.getNumber(request));
+            print();
         }
+        return slot.set(index, request);
+    }
 
-        return null;
+    private void traceCanceled(final int request) {
+        if (tracing) {
+            logger.info("Return canceled value: src={}, num={}, initTime={}",
+                    pool.getSourceNumber(request), pool.getNumber(request), pool.getInitialTime(request));
+        }
     }
 
-    private Pair<Integer, Request> getLessPriority(final Request newRequest) {
-        Request lessPriority = newRequest;
-        for (final Request next : requests) {
-            final int compareResult = Request.REQUEST_COMPARATOR.compare(next, lessPriority);
-            if (compareResult > 0) {
-                lessPriority = next;
-            }
+    private int append(final int request) {
+        if (nextOrder == order.length) {
+            compactOrder();
         }
-        logger.info("Return less priority value: src={}, num={}, initTime={}",
-                lessPriority.getSourceNumber(), lessPriority.getNumber(), lessPriority.getInitialTime());
-        if (lessPriority == newRequest) {
-            return new Pair<>(-1, newRequest);
-        } else {
-            final int i = requests.indexOf(lessPriority);
-            requests.remove(lessPriority);
-            requests.add(newRequest);
-            return new Pair<>(i, lessPriority);
+        if (request >= orderOfRequest.length) {
+            orderOfRequest = Arrays.copyOf(orderOfRequest, pool.capacity());
+        }
+        order[nextOrder] = request;
+        orderOfRequest[request] = nextOrder;
+        occupied.add(nextOrder, 1);
+        nextOrder++;
+        discipline.add(request);
+        return size++;
+    }
+
+    /**
+     * Remove request from the order and return its slot position before the removal.
+     * Request must be already removed by the discipline.
+     */
+    private int release(final int request) {
+        final int requestOrder = orderOfRequest[request];
+        final int position = occupied.prefixSum(requestOrder);
+        occupied.add(requestOrder, -1);
+        order[requestOrder] = RequestPool.NO_REQUEST;
+        size--;
+        return position;
+    }
+
+    private void compactOrder() {
+        int next = 0;
+        for (int i = 0; i < nextOrder; ++i) {
+            final int request = order[i];
+            if (request != RequestPool.NO_REQUEST) {
+                order[i] = RequestPool.NO_REQUEST;
+                orderOfRequest[request] = next;
+                order[next++] = request;
+            }
         }
+        nextOrder = next;
+        occupied.resetToLeadingOnes(next);
     }
 
     private boolean isFull() {
-        return capacity == requests.size();
+        return capacity == size;
     }
 
     public boolean isEmpty() {
-        return requests.isEmpty();
+        return size == 0;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Save requests in the order of insertion, positions and queues of the discipline are rebuilt from it.
+     */
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeInt(size);
+        for (int i = 0; i < nextOrder; ++i) {
+            if (order[i] != RequestPool.NO_REQUEST) {
+                out.writeInt(order[i]);
+            }
+        }
+        discipline.writeState(out);
+    }
+
+    /**
+     * Restore the saved requests, buffer must be empty and the pool must be already restored.
+     */
+    public void readState(final DataInput in) throws IOException {
+        if (!isEmpty()) {
+            throw new IllegalStateException("State can be restored only to the empty buffer");
+        }
+        final int amount = in.readInt();
+        for (int i = 0; i < amount; ++i) {
+            append(in.readInt());
+        }
+        discipline.readState(in);
     }
 
     private void print() {
         StringBuilder buf = new StringBuilder("[");
-        for (final Request request : requests) {
-            buf.append(request.getSourceNumber()).append(" ");
+        for (int i = 0; i < nextOrder; ++i) {
+            if (order[i] != RequestPool.NO_REQUEST) {
+                buf.append(pool.getSourceNumber(order[i])).append(" ");
+            }
         }
         buf.append("]");
         logger.info("Buffer: {}", buf);
     }
 
+    /**
+     * Result of the buffer operation. The same instance is returned by every operation of the buffer.
+     */
+    public static final class Slot {
+        private int position;
+        private int request;
+
+        private Slot set(final int position, final int request) {
+            this.position = position;
+            this.request = request;
+            return this;
+        }
+
+        public int getPosition() {
+            return position;
+        }
+
+        public int getRequest() {
+            return request;
+        }
+    }
+
 }
@@ -0,0 +1,53 @@
+package com.github.zvladn7.components;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Order of service and choice of the canceled request of the {@link Buffer}.
+ * The buffer keeps slot positions by the order of insertion, the discipline keeps only its own queues,
+ * so every operation must be O(1) or O(log n) of the buffer size.
+ * Requests are added in the order of insertion, the buffer restores a checkpoint by adding them again.
+ */
+public interface BufferDiscipline {
+
+    /**
+     * Add the request which is put to the buffer.
+     */
+    void add(int request);
+
+    /**
+     * Choose the request to cancel when the buffer is full and remove it from the queues.
+     * @param newRequest - handle of the new request, it is not added yet
+     * @return canceled request, it is the new request if the new one is dropped
+     */
+    int evict(int newRequest);
+
+    /**
+     * Remove the next request to serve, the buffer must not be empty.
+     */
+    int poll();
+
+    /**
+     * Remove the next request of the package which is served now.
+     * @param packageNumber - source number of the package
+     * @return request of the package or NO_REQUEST if the package is over,
+     * disciplines without packages always return NO_REQUEST
+     */
+    default int pollPackage(final int packageNumber) {
+        return RequestPool.NO_REQUEST;
+    }
+
+    /**
+     * Save the state which is not restored by adding requests again.
+     */
+    default void writeState(final DataOutput out) throws IOException {
+
+    }
+
+    default void readState(final DataInput in) throws IOException {
+
+    }
+
+}
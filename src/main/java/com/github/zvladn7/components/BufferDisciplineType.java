@@ -0,0 +1,56 @@
+package com.github.zvladn7.components;
+
+/**
+ * Disciplines of the buffer. Source number is the priority of requests, the less number is the higher priority.
+ */
+public enum BufferDisciplineType {
+    /**
+     * Requests of the most priority source are served in packages,
+     * the newest request of the less priority source is canceled.
+     */
+    PACKAGE_PRIORITY {
+        @Override
+        public BufferDiscipline create(final int capacity, final int amountOfSources, final RequestPool pool) {
+            return new PackagePriorityDiscipline(amountOfSources, pool);
+        }
+    },
+    /**
+     * First in first out, the new request is dropped when the buffer is full.
+     */
+    FIFO {
+        @Override
+        public BufferDiscipline create(final int capacity, final int amountOfSources, final RequestPool pool) {
+            return new RingDiscipline(capacity, false);
+        }
+    },
+    /**
+     * Last in first out, the new request is dropped when the buffer is full.
+     */
+    LIFO {
+        @Override
+        public BufferDiscipline create(final int capacity, final int amountOfSources, final RequestPool pool) {
+            return new RingDiscipline(capacity, true);
+        }
+    },
+    /**
+     * Strict priority with FIFO inside a priority level, the new request is dropped when the buffer is full.
+     */
+    PRIORITY_DROP_TAIL {
+        @Override
+        public BufferDiscipline create(final int capacity, final int amountOfSources, final RequestPool pool) {
+            return new PriorityDiscipline(amountOfSources, pool, false);
+        }
+    },
+    /**
+     * Strict priority with FIFO inside a priority level,
+     * the newest request of the less priority level is canceled when the buffer is full.
+     */
+    PRIORITY_DROP_LOWEST {
+        @Override
+        public BufferDiscipline create(final int capacity, final int amountOfSources, final RequestPool pool) {
+            return new PriorityDiscipline(amountOfSources, pool, true);
+        }
+    };
+
+    public abstract BufferDiscipline create(final int capacity, final int amountOfSources, final RequestPool pool);
+}
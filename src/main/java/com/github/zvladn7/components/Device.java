@@ -1,25 +1,29 @@
 package com.github.zvladn7.components;
 
-import java.util.Random;
+import com.github.zvladn7.distributions.VariateBuffer;
 
-public class Device {
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
-    private final Random generator = new Random();
-    private static int counter = 0;
+public class Device {
 
     private final int number;
-    private final double lamda;
+    private final VariateBuffer serviceTimes;
 
-    private Request requestOnDevice;
+    private int requestOnDevice;
     private double timeToDone;
     private double startTime;
 
-    public Device(final int number, final double lamda) {
+    /**
+     * @param serviceTimes - times of request execution drawn from the random stream of this device only
+     */
+    public Device(final int number, final VariateBuffer serviceTimes) {
         this.number = number;
-        this.lamda = lamda;
+        this.serviceTimes = serviceTimes;
         this.startTime = -1;
         this.timeToDone = 0;
-        this.requestOnDevice = null;
+        this.requestOnDevice = RequestPool.NO_REQUEST;
     }
 
     public int getNumber() {
@@ -27,24 +31,22 @@ public class Device {
     }
 
     public boolean isFree() {
-        return requestOnDevice == null;
+        return requestOnDevice == RequestPool.NO_REQUEST;
     }
 
-    public void execute(final Request request, final double currentTime) {
+    public void execute(final int request, final double currentTime) {
         final double timeToDo = getTimeOnDevice();
-        System.out.println("Time on device: " + timeToDo);
         this.requestOnDevice = request;
         this.startTime = currentTime;
         this.timeToDone = currentTime + timeToDo;
-        System.out.println("Execute " + counter++);
     }
 
     public void clearAfterDoneProcessing() {
-        this.requestOnDevice = null;
+        this.requestOnDevice = RequestPool.NO_REQUEST;
         this.startTime = -1;
     }
 
-    public Request getDoneRequest() {
+    public int getDoneRequest() {
         return requestOnDevice;
     }
 
@@ -56,7 +58,25 @@ public class Device {
         return timeToDone;
     }
 
+    public boolean isStateSaveable() {
+        return serviceTimes.isStateSaveable();
+    }
+
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeInt(requestOnDevice);
+        out.writeDouble(startTime);
+        out.writeDouble(timeToDone);
+        serviceTimes.writeState(out);
+    }
+
+    public void readState(final DataInput in) throws IOException {
+        requestOnDevice = in.readInt();
+        startTime = in.readDouble();
+        timeToDone = in.readDouble();
+        serviceTimes.readState(in);
+    }
+
     private double getTimeOnDevice() {
-        return lamda * Math.exp(generator.nextDouble());
+        return serviceTimes.next();
     }
 }
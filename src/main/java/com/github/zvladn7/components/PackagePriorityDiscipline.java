@@ -0,0 +1,53 @@
+package com.github.zvladn7.components;
+
+import com.github.zvladn7.util.IntDeque;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Strict priority with dropping of the less priority request, where requests of the most priority source
+ * are served in packages: the package is the requests of the source which are in the buffer
+ * when its first request is taken, they are served before the more priority requests which come later.
+ */
+class PackagePriorityDiscipline extends PriorityDiscipline {
+
+    private int packageAmount = 0;
+
+    PackagePriorityDiscipline(final int amountOfSources, final RequestPool pool) {
+        super(amountOfSources, pool, true);
+    }
+
+    @Override
+    public int poll() {
+        final int request = super.poll();
+        packageAmount = queues[pool.getSourceNumber(request)].size();
+        return request;
+    }
+
+    @Override
+    public int pollPackage(final int packageNumber) {
+        if (packageAmount == 0) {
+            return RequestPool.NO_REQUEST;
+        }
+        final IntDeque queue = queues[packageNumber];
+        if (queue == null || queue.isEmpty()) {
+            packageAmount = 0;
+            return RequestPool.NO_REQUEST;
+        }
+        packageAmount--;
+        return pollFrom(packageNumber, true);
+    }
+
+    @Override
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeInt(packageAmount);
+    }
+
+    @Override
+    public void readState(final DataInput in) throws IOException {
+        packageAmount = in.readInt();
+    }
+
+}
@@ -0,0 +1,82 @@
+package com.github.zvladn7.components;
+
+import com.github.zvladn7.util.HierarchicalBitSet;
+import com.github.zvladn7.util.IntDeque;
+
+/**
+ * Strict priority by the source number with FIFO inside a source.
+ * Requests are kept in per-source queues, the most and the less priority sources
+ * are found through the index of non empty sources.
+ */
+class PriorityDiscipline implements BufferDiscipline {
+
+    private static final int QUEUE_INITIAL_CAPACITY = 4;
+
+    final RequestPool pool;
+    private final boolean dropLowest;
+
+    /**
+     * Requests of each source in the order of their arrival, created on the first request of the source.
+     */
+    final IntDeque[] queues;
+
+    /**
+     * Bit i is set if there is at least one request of source i in the buffer.
+     */
+    private final HierarchicalBitSet notEmptySources;
+
+    /**
+     * @param dropLowest - cancel the newest request of the less priority source instead of the new request
+     */
+    PriorityDiscipline(final int amountOfSources, final RequestPool pool, final boolean dropLowest) {
+        this.pool = pool;
+        this.dropLowest = dropLowest;
+        this.queues = new IntDeque[amountOfSources];
+        this.notEmptySources = new HierarchicalBitSet(amountOfSources);
+    }
+
+    @Override
+    public void add(final int request) {
+        final int sourceNumber = pool.getSourceNumber(request);
+        IntDeque queue = queues[sourceNumber];
+        if (queue == null) {
+            queue = new IntDeque(QUEUE_INITIAL_CAPACITY);
+            queues[sourceNumber] = queue;
+        }
+        queue.addLast(request);
+        notEmptySources.set(sourceNumber);
+    }
+
+    /**
+     * Requests of one source come in increasing order of numbers,
+     * so the less priority request is the newest one of the last non empty source.
+     */
+    @Override
+    public int evict(final int newRequest) {
+        if (!dropLowest) {
+            return newRequest;
+        }
+        final int lessPrioritySource = notEmptySources.previousSetBit(queues.length - 1);
+        if (pool.getSourceNumber(newRequest) >= lessPrioritySource) {
+            return newRequest;
+        }
+        return pollFrom(lessPrioritySource, false);
+    }
+
+    @Override
+    public int poll() {
+        final int theMostPriorSource = notEmptySources.nextSetBit(0);
+        assert theMostPriorSource != -1;
+        return pollFrom(theMostPriorSource, true);
+    }
+
+    int pollFrom(final int sourceNumber, final boolean first) {
+        final IntDeque queue = queues[sourceNumber];
+        final int request = first ? queue.pollFirst() : queue.pollLast();
+        if (queue.isEmpty()) {
+            notEmptySources.clear(sourceNumber);
+        }
+        return request;
+    }
+
+}
@@ -0,0 +1,124 @@
+package com.github.zvladn7.components;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+
+/**
+ * Storage of requests in parallel primitive arrays.
+ * Request is addressed by an int handle which is reused after the request leaves the system,
+ * so in a steady state no memory is allocated for new requests.
+ */
+public class RequestPool {
+
+    public static final int NO_REQUEST = -1;
+
+    private int[] sourceNumbers;
+    private int[] numbers;
+    private double[] initialTimes;
+
+    /**
+     * Stack of released handles.
+     */
+    private int[] released;
+    private int releasedAmount;
+    private int nextHandle;
+
+    public RequestPool(final int initialCapacity) {
+        final int capacity = Math.max(1, initialCapacity);
+        this.sourceNumbers = new int[capacity];
+        this.numbers = new int[capacity];
+        this.initialTimes = new double[capacity];
+        this.released = new int[capacity];
+    }
+
+    /**
+     * Store a new request.
+     * @return handle of the request
+     */
+    public int acquire(final int sourceNumber,
+                       final int number,
+                       final double initialTime) {
+        final int handle;
+        if (releasedAmount > 0) {
+            handle = released[--releasedAmount];
+        } else {
+            if (nextHandle == sourceNumbers.length) {
+                grow();
+            }
+            handle = nextHandle++;
+        }
+        sourceNumbers[handle] = sourceNumber;
+        numbers[handle] = number;
+        initialTimes[handle] = initialTime;
+        return handle;
+    }
+
+    /**
+     * Return the handle to the pool after the request is processed or canceled.
+     */
+    public void release(final int handle) {
+        released[releasedAmount++] = handle;
+    }
+
+    /**
+     * @return upper bound of all handles ever returned by the pool
+     */
+    public int capacity() {
+        return sourceNumbers.length;
+    }
+
+    public int getSourceNumber(final int handle) {
+        return sourceNumbers[handle];
+    }
+
+    public int getNumber(final int handle) {
+        return numbers[handle];
+    }
+
+    public double getInitialTime(final int handle) {
+        return initialTimes[handle];
+    }
+
+    /**
+     * Save all requests ever stored and the stack of released handles, handles stay the same after restore.
+     */
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeInt(nextHandle);
+        for (int i = 0; i < nextHandle; ++i) {
+            out.writeInt(sourceNumbers[i]);
+            out.writeInt(numbers[i]);
+            out.writeDouble(initialTimes[i]);
+        }
+        out.writeInt(releasedAmount);
+        for (int i = 0; i < releasedAmount; ++i) {
+            out.writeInt(released[i]);
+        }
+    }
+
+    public void readState(final DataInput in) throws IOException {
+        nextHandle = in.readInt();
+        while (sourceNumbers.length < nextHandle) {
+            grow();
+        }
+        for (int i = 0; i < nextHandle; ++i) {
+            sourceNumbers[i] = in.readInt();
+            numbers[i] = in.readInt();
+            initialTimes[i] = in.readDouble();
+        }
+        releasedAmount = in.readInt();
+        for (int i = 0; i < releasedAmount; ++i) {
+            released[i] = in.readInt();
+        }
+    }
+
+    private void grow() {
+        final int capacity = sourceNumbers.length << 1;
+        sourceNumbers = Arrays.copyOf(sourceNumbers, capacity);
+        numbers = Arrays.copyOf(numbers, capacity);
+        initialTimes = Arrays.copyOf(initialTimes, capacity);
+        released = Arrays.copyOf(released, capacity);
+    }
+
+}
@@ -0,0 +1,33 @@
+package com.github.zvladn7.components;
+
+import com.github.zvladn7.util.IntDeque;
+
+/**
+ * FIFO or LIFO over one ring array of the buffer capacity, the new request is dropped when the buffer is full.
+ */
+class RingDiscipline implements BufferDiscipline {
+
+    private final IntDeque ring;
+    private final boolean lastInFirstOut;
+
+    RingDiscipline(final int capacity, final boolean lastInFirstOut) {
+        this.ring = new IntDeque(capacity);
+        this.lastInFirstOut = lastInFirstOut;
+    }
+
+    @Override
+    public void add(final int request) {
+        ring.addLast(request);
+    }
+
+    @Override
+    public int evict(final int newRequest) {
+        return newRequest;
+    }
+
+    @Override
+    public int poll() {
+        return lastInFirstOut ? ring.pollLast() : ring.pollFirst();
+    }
+
+}
@@ -1,31 +1,49 @@
 package com.github.zvladn7.components;
 
-import com.github.zvladn7.util.Pair;
+import com.github.zvladn7.distributions.VariateBuffer;
 
-import java.util.Random;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 public class Source {
 
-    private final Random generator = new Random();
-
     private final int number;
-    private final double alpha;
-    private final double beta;
+    private final VariateBuffer interArrivalTimes;
     private int nextRequestNumber;
 
-    public Source(int number, double alpha, double beta) {
+    /**
+     * @param interArrivalTimes - times between requests drawn from the random stream of this source only
+     */
+    public Source(final int number, final VariateBuffer interArrivalTimes) {
         this.number = number;
-        this.alpha = alpha;
-        this.beta = beta;
+        this.interArrivalTimes = interArrivalTimes;
+    }
+
+    /**
+     * Put a new request of the source to the pool.
+     * @return handle of the generated request
+     */
+    public int generate(final RequestPool pool, final double currentTime) {
+        return pool.acquire(number, nextRequestNumber++, currentTime);
+    }
+
+    public double getNextRequestTime() {
+        return interArrivalTimes.next();
+    }
+
+    public boolean isStateSaveable() {
+        return interArrivalTimes.isStateSaveable();
     }
 
-    public Pair<Double, Request> generate(final double currentTime) {
-        final double nextRequestTime = getNextRequestTime();
-        return new Pair<>(nextRequestTime, new Request(number, nextRequestNumber++, currentTime));
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeInt(nextRequestNumber);
+        interArrivalTimes.writeState(out);
     }
 
-    private double getNextRequestTime() {
-        return generator.nextDouble()  * (beta - alpha) + alpha;
+    public void readState(final DataInput in) throws IOException {
+        nextRequestNumber = in.readInt();
+        interArrivalTimes.readState(in);
     }
 
 }
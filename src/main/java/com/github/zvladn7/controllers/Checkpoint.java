@@ -0,0 +1,221 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.components.Buffer;
+import com.github.zvladn7.components.RequestPool;
+import com.github.zvladn7.distributions.Distribution;
+import com.github.zvladn7.managers.EventCalendar;
+import com.github.zvladn7.managers.ProductionManager;
+import com.github.zvladn7.managers.SelectionManager;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Full state of the run between two events. The engine is small and is serialized on the simulation thread,
+ * counters are taken as a copy-on-write {@link Analytics#snapshot()}, so the checkpoint does not change
+ * when the run goes on and it is written to the file by another thread.
+ * <p>
+ * File is: magic, version, parameters of the system, time, generated requests and events of the run,
+ * length and bytes of the engine state (pool, buffer, calendar, sources, devices), counters of the analytics.
+ */
+public final class Checkpoint {
+
+    static final int MAGIC = 0x514d4350;
+    static final int VERSION = 7;
+
+    private final Controller controller;
+    private final double currentTime;
+    private final int generatedRequests;
+    private final long events;
+    private final byte[] engineState;
+    private final Analytics analytics;
+
+    private Checkpoint(final Controller controller,
+                       final double currentTime,
+                       final int generatedRequests,
+                       final long events,
+                       final byte[] engineState,
+                       final Analytics analytics) {
+        this.controller = controller;
+        this.currentTime = currentTime;
+        this.generatedRequests = generatedRequests;
+        this.events = events;
+        this.engineState = engineState;
+        this.analytics = analytics;
+    }
+
+    static Checkpoint capture(final Controller controller,
+                              final double currentTime,
+                              final int generatedRequests,
+                              final long events,
+                              final RequestPool pool,
+                              final Buffer buffer,
+                              final EventCalendar calendar,
+                              final ProductionManager productionManager,
+                              final SelectionManager selectionManager,
+                              final Analytics analytics) {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            pool.writeState(out);
+            buffer.writeState(out);
+            calendar.writeState(out);
+            productionManager.writeState(out);
+            selectionManager.writeState(out);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new Checkpoint(controller, currentTime, generatedRequests, events,
+                bytes.toByteArray(), analytics.snapshot());
+    }
+
+    void writeTo(final DataOutputStream out) throws IOException {
+        out.writeInt(MAGIC);
+        out.writeInt(VERSION);
+        writeSystem(out, controller);
+        out.writeDouble(currentTime);
+        out.writeInt(generatedRequests);
+        out.writeLong(events);
+        out.writeInt(engineState.length);
+        out.write(engineState);
+        analytics.writeState(out);
+    }
+
+    /**
+     * Read the checkpoint of the run of the same system.
+     * @param file - file written by {@link CheckpointWriter}
+     * @param controller - controller of the system, its parameters must be the same as of the saved run
+     * @param analytics - analytics of the resumed run, its counters are replaced with the saved ones
+     * @return checkpoint which engine state is restored with {@link #restoreEngine}
+     */
+    static Checkpoint read(final Path file, final Controller controller, final Analytics analytics) {
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(file)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IllegalArgumentException("There is no checkpoint in " + file);
+            }
+            final int version = in.readInt();
+            if (version != VERSION) {
+                throw new IllegalArgumentException("Unsupported checkpoint version " + version);
+            }
+            checkSystem(in, controller, file);
+            final double currentTime = in.readDouble();
+            final int generatedRequests = in.readInt();
+            final long events = in.readLong();
+            final byte[] engineState = new byte[in.readInt()];
+            in.readFully(engineState);
+            analytics.readState(in);
+            return new Checkpoint(controller, currentTime, generatedRequests, events, engineState, analytics);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read checkpoint " + file, e);
+        }
+    }
+
+    /**
+     * Restore the engine which is just created by the controller of the saved run.
+     */
+    void restoreEngine(final RequestPool pool,
+                       final Buffer buffer,
+                       final EventCalendar calendar,
+                       final ProductionManager productionManager,
+                       final SelectionManager selectionManager) {
+        try (DataInputStream in = new DataInputStream(new ByteArrayInputStream(engineState))) {
+            pool.readState(in);
+            buffer.readState(in);
+            calendar.readState(in);
+            productionManager.readState(in);
+            selectionManager.readState(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupted engine state in checkpoint", e);
+        }
+    }
+
+    private static void writeSystem(final DataOutputStream out, final Controller controller) throws IOException {
+        out.writeInt(controller.getAmountOfSources());
+        out.writeInt(controller.getAmountOfDevices());
+        out.writeInt(controller.getBufferSize());
+        out.writeUTF(controller.getBufferDiscipline().name());
+        out.writeDouble(controller.getAlpha());
+        out.writeDouble(controller.getBeta());
+        out.writeDouble(controller.getLamda());
+        out.writeUTF(controller.getInterArrivalTime().toString());
+        out.writeUTF(controller.getServiceTime().toString());
+        writeDeviceServiceTimes(out, controller);
+        out.writeUTF(controller.getDeviceSelection().name());
+        out.writeLong(controller.getSeed());
+        out.writeUTF(controller.getRandomAlgorithm().name());
+        out.writeUTF(controller.getRecordingLevel().name());
+        out.writeInt(controller.getHistogramPrecision());
+    }
+
+    /**
+     * Amount of requests is not checked, so the saved run can be continued further than it was planned.
+     */
+    private static void checkSystem(final DataInputStream in,
+                                    final Controller controller,
+                                    final Path file) throws IOException {
+        final boolean same = in.readInt() == controller.getAmountOfSources()
+                & in.readInt() == controller.getAmountOfDevices()
+                & in.readInt() == controller.getBufferSize()
+                & in.readUTF().equals(controller.getBufferDiscipline().name())
+                & in.readDouble() == controller.getAlpha()
+                & in.readDouble() == controller.getBeta()
+                & in.readDouble() == controller.getLamda()
+                & in.readUTF().equals(controller.getInterArrivalTime().toString())
+                & in.readUTF().equals(controller.getServiceTime().toString())
+                & checkDeviceServiceTimes(in, controller)
+                & in.readUTF().equals(controller.getDeviceSelection().name())
+                & in.readLong() == controller.getSeed()
+                & in.readUTF().equals(controller.getRandomAlgorithm().name())
+                & in.readUTF().equals(controller.getRecordingLevel().name())
+                & in.readInt() == controller.getHistogramPrecision();
+        if (!same) {
+            throw new IllegalArgumentException("Checkpoint " + file + " is saved by the run with other parameters");
+        }
+    }
+
+    private static void writeDeviceServiceTimes(final DataOutputStream out,
+                                                final Controller controller) throws IOException {
+        final List<Distribution> serviceTimes = controller.getDeviceServiceTimes();
+        out.writeInt(serviceTimes == null ? -1 : serviceTimes.size());
+        if (serviceTimes != null) {
+            for (Distribution serviceTime : serviceTimes) {
+                out.writeUTF(serviceTime.toString());
+            }
+        }
+    }
+
+    private static boolean checkDeviceServiceTimes(final DataInputStream in,
+                                                   final Controller controller) throws IOException {
+        final List<Distribution> serviceTimes = controller.getDeviceServiceTimes();
+        final int amount = in.readInt();
+        boolean same = amount == (serviceTimes == null ? -1 : serviceTimes.size());
+        for (int i = 0; i < amount; ++i) {
+            final String saved = in.readUTF();
+            if (same && !saved.equals(serviceTimes.get(i).toString())) {
+                same = false;
+            }
+        }
+        return same;
+    }
+
+    public double getCurrentTime() {
+        return currentTime;
+    }
+
+    public int getGeneratedRequests() {
+        return generatedRequests;
+    }
+
+    public long getEvents() {
+        return events;
+    }
+
+}
@@ -0,0 +1,102 @@
+package com.github.zvladn7.controllers;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Writes checkpoints of the run on its own thread, so the simulation does not wait for the disk.
+ * Checkpoint is written to a temporary file which then replaces the previous one,
+ * so the file always has a complete checkpoint even if the process dies in the middle of the write.
+ * A new checkpoint is not taken while the previous one is being written.
+ */
+public class CheckpointWriter implements AutoCloseable {
+
+    private static final Logger logger = LoggerFactory.getLogger(CheckpointWriter.class);
+    private static final long CLOSE_TIMEOUT_SECONDS = 60;
+
+    private final Path file;
+    private final Path temporaryFile;
+    private final long intervalNanos;
+    private final ExecutorService executor;
+    private final AtomicBoolean writing = new AtomicBoolean();
+    private long lastCheckpoint = System.nanoTime();
+
+    /**
+     * @param file - file of the checkpoint, it is replaced by every new checkpoint
+     * @param intervalMillis - minimal wall-clock time between checkpoints
+     */
+    public CheckpointWriter(final Path file, final long intervalMillis) {
+        this.file = file;
+        this.temporaryFile = file.resolveSibling(file.getFileName() + ".tmp");
+        this.intervalNanos = TimeUnit.MILLISECONDS.toNanos(intervalMillis);
+        this.executor = Executors.newSingleThreadExecutor(runnable -> {
+            final Thread thread = new Thread(runnable, "checkpoint-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * @return true if it is time for the next checkpoint and the previous one is already written
+     */
+    public boolean isDue() {
+        return !writing.get() && System.nanoTime() - lastCheckpoint >= intervalNanos;
+    }
+
+    /**
+     * Write the checkpoint in the background.
+     */
+    public void submit(final Checkpoint checkpoint) {
+        lastCheckpoint = System.nanoTime();
+        writing.set(true);
+        executor.execute(() -> {
+            try {
+                write(checkpoint);
+                logger.info("Контрольная точка записана: {} заявок, время {}",
+                        checkpoint.getGeneratedRequests(), checkpoint.getCurrentTime());
+            } catch (IOException e) {
+                logger.error("Cannot write checkpoint to {}", file, e);
+            } finally {
+                writing.set(false);
+            }
+        });
+    }
+
+    private void write(final Checkpoint checkpoint) throws IOException {
+        try (FileOutputStream stream = new FileOutputStream(temporaryFile.toFile());
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream))) {
+            checkpoint.writeTo(out);
+            out.flush();
+            stream.getFD().sync();
+        }
+        Files.move(temporaryFile, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    /**
+     * Wait for the checkpoint which is being written and stop the writer thread.
+     */
+    @Override
+    public void close() {
+        executor.shutdown();
+        try {
+            if (!executor.awaitTermination(CLOSE_TIMEOUT_SECONDS, TimeUnit.SECONDS)) {
+                logger.warn("Checkpoint is still being written to {}", file);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+}
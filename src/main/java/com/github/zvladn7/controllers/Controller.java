@@ -1,29 +1,77 @@
 package com.github.zvladn7.controllers;
 
 import com.github.zvladn7.components.Buffer;
-import com.github.zvladn7.components.Request;
+import com.github.zvladn7.components.BufferDisciplineType;
+import com.github.zvladn7.components.RequestPool;
+import com.github.zvladn7.managers.DeviceSelectionType;
+import com.github.zvladn7.managers.EventCalendar;
 import com.github.zvladn7.managers.ProductionManager;
 import com.github.zvladn7.managers.SelectionManager;
-import com.github.zvladn7.managers.SelectionManager.DoneInfo;
+import com.github.zvladn7.managers.SelectionManager.DoneListener;
 import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.LogHistogram;
+import com.github.zvladn7.analytics.MappedTrace;
+import com.github.zvladn7.analytics.MappedTraceWriter;
+import com.github.zvladn7.analytics.RecordingLevel;
+import com.github.zvladn7.distributions.Distribution;
+import com.github.zvladn7.distributions.ExpUniformDistribution;
+import com.github.zvladn7.distributions.UniformDistribution;
+import com.github.zvladn7.util.RandomAlgorithm;
+import com.github.zvladn7.util.RandomStreams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import com.github.zvladn7.util.Pair;
 
-import java.util.Comparator;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
 import java.util.List;
 
 public class Controller {
 
     private static final Logger logger = LoggerFactory.getLogger(Controller.class);
 
+    public static final long DEFAULT_CHECKPOINT_INTERVAL_MILLIS = 60_000;
+
     private double alpha;
     private double beta;
     private int amountOfSources;
     private double lamda;
     private int amountOfDevices;
     private int bufferSize;
+    private BufferDisciplineType bufferDiscipline = BufferDisciplineType.PACKAGE_PRIORITY;
+    private DeviceSelectionType deviceSelection = DeviceSelectionType.RING;
     private int requestsNumber;
+    private RecordingLevel recordingLevel = RecordingLevel.FULL_TRACE;
+    private int tailSize = Analytics.DEFAULT_TAIL_SIZE;
+    private Path traceDirectory;
+    private int histogramPrecision = LogHistogram.DEFAULT_PRECISION_BITS;
+
+    /**
+     * Random seed is chosen for every controller which seed is not set,
+     * so any run can be reproduced by its seed.
+     */
+    private long seed = RandomStreams.randomSeed();
+    private RandomAlgorithm randomAlgorithm = RandomAlgorithm.XOSHIRO256_PLUS_PLUS;
+    private boolean metricsEnabled = true;
+    private Path checkpointFile;
+    private long checkpointIntervalMillis = DEFAULT_CHECKPOINT_INTERVAL_MILLIS;
+    private boolean warmupDetection;
+
+    /**
+     * Minimal amount of batches of the batch means, 0 if they are not collected.
+     */
+    private int batchMeans;
+
+    /**
+     * Distributions set explicitly, null to use uniform(alpha, beta) and lamda * e^U.
+     */
+    private Distribution interArrivalTime;
+    private Distribution serviceTime;
+
+    /**
+     * Service time of every device for heterogeneous devices, null if all devices have the same service time.
+     */
+    private List<Distribution> deviceServiceTimes;
 
     private Controller() {
 
@@ -57,6 +105,83 @@ public class Controller {
         return requestsNumber;
     }
 
+    public RecordingLevel getRecordingLevel() {
+        return recordingLevel;
+    }
+
+    public int getTailSize() {
+        return tailSize;
+    }
+
+    public Path getTraceDirectory() {
+        return traceDirectory;
+    }
+
+    public int getHistogramPrecision() {
+        return histogramPrecision;
+    }
+
+    public long getSeed() {
+        return seed;
+    }
+
+    public RandomAlgorithm getRandomAlgorithm() {
+        return randomAlgorithm;
+    }
+
+    public BufferDisciplineType getBufferDiscipline() {
+        return bufferDiscipline;
+    }
+
+    public DeviceSelectionType getDeviceSelection() {
+        return deviceSelection;
+    }
+
+    public boolean isMetricsEnabled() {
+        return metricsEnabled;
+    }
+
+    public Path getCheckpointFile() {
+        return checkpointFile;
+    }
+
+    public long getCheckpointIntervalMillis() {
+        return checkpointIntervalMillis;
+    }
+
+    public boolean isWarmupDetection() {
+        return warmupDetection;
+    }
+
+    public int getBatchMeans() {
+        return batchMeans;
+    }
+
+    /**
+     * @return distribution of the time between requests of a source
+     */
+    public Distribution getInterArrivalTime() {
+        return interArrivalTime != null ? interArrivalTime : new UniformDistribution(alpha, beta);
+    }
+
+    /**
+     * @return distribution of the time of request execution on a device
+     */
+    public Distribution getServiceTime() {
+        return serviceTime != null ? serviceTime : new ExpUniformDistribution(lamda);
+    }
+
+    /**
+     * @return distribution of the time of request execution on the device
+     */
+    public Distribution getServiceTime(final int deviceNumber) {
+        return deviceServiceTimes != null ? deviceServiceTimes.get(deviceNumber) : getServiceTime();
+    }
+
+    public List<Distribution> getDeviceServiceTimes() {
+        return deviceServiceTimes;
+    }
+
     public class Builder {
 
         private Builder() {
@@ -98,6 +223,142 @@ public class Controller {
             return this;
         }
 
+        /**
+         * Levels below FULL_TRACE neither log events nor build event objects,
+         * so the simulation loop allocates nothing in a steady state.
+         */
+        public Builder setRecordingLevel(final RecordingLevel level) {
+            Controller.this.recordingLevel = level;
+            return this;
+        }
+
+        /**
+         * Amount of the last events kept on the BOUNDED_TAIL recording level.
+         */
+        public Builder setTailSize(final int size) {
+            Controller.this.tailSize = size;
+            return this;
+        }
+
+        /**
+         * Stream the FULL_TRACE events into memory-mapped files in the directory instead of the heap.
+         * The trace can be reopened later with {@link MappedTrace#open(Path)}.
+         */
+        public Builder setTraceDirectory(final Path directory) {
+            Controller.this.traceDirectory = directory;
+            return this;
+        }
+
+        /**
+         * Precision bits of histograms of wait, service and sojourn times,
+         * relative error of percentiles is 2^-bits.
+         */
+        public Builder setHistogramPrecision(final int bits) {
+            Controller.this.histogramPrecision = bits;
+            return this;
+        }
+
+        /**
+         * Master seed of the run, every source and device gets its own substream derived from it.
+         */
+        public Builder setSeed(final long seed) {
+            Controller.this.seed = seed;
+            return this;
+        }
+
+        public Builder setRandomAlgorithm(final RandomAlgorithm algorithm) {
+            Controller.this.randomAlgorithm = algorithm;
+            return this;
+        }
+
+        /**
+         * Order of service and cancel of requests in the buffer, packages by priority by default.
+         */
+        public Builder setBufferDiscipline(final BufferDisciplineType discipline) {
+            Controller.this.bufferDiscipline = discipline;
+            return this;
+        }
+
+        /**
+         * Rule of the choice of a free device, the ring from the last chosen device by default.
+         */
+        public Builder setDeviceSelection(final DeviceSelectionType selection) {
+            Controller.this.deviceSelection = selection;
+            return this;
+        }
+
+        /**
+         * Register {@link SimulationMetricsMXBean} of every run in the platform MBean server.
+         */
+        public Builder setMetricsEnabled(final boolean enabled) {
+            Controller.this.metricsEnabled = enabled;
+            return this;
+        }
+
+        /**
+         * Save the state of the run to the file periodically, the run can be continued from it with
+         * {@link Controller#resumeWork(Path)}. Events are not saved, so the recording level must not record them,
+         * and the random algorithm must allow to save its state.
+         */
+        public Builder setCheckpointFile(final Path file) {
+            Controller.this.checkpointFile = file;
+            return this;
+        }
+
+        /**
+         * Minimal wall-clock time between checkpoints.
+         */
+        public Builder setCheckpointIntervalMillis(final long intervalMillis) {
+            Controller.this.checkpointIntervalMillis = intervalMillis;
+            return this;
+        }
+
+        /**
+         * Reset counters at the end of the initial transient found by the MSER-5 rule,
+         * so the results are not biased by the empty system at the start.
+         */
+        public Builder setWarmupDetection(final boolean enabled) {
+            Controller.this.warmupDetection = enabled;
+            return this;
+        }
+
+        /**
+         * Collect batch means for steady-state confidence intervals from a single run,
+         * see {@link Analytics#getBatchMeansEstimates(double)}.
+         * @param batches - minimal amount of batches, 0 to not collect them
+         */
+        public Builder setBatchMeans(final int batches) {
+            Controller.this.batchMeans = batches;
+            return this;
+        }
+
+        /**
+         * Distribution of the time between requests of every source, alpha and beta are not used then.
+         */
+        public Builder setInterArrivalTime(final Distribution distribution) {
+            Controller.this.interArrivalTime = distribution;
+            return this;
+        }
+
+        /**
+         * Distribution of the time of request execution on every device, lamda is not used then.
+         */
+        public Builder setServiceTime(final Distribution distribution) {
+            Controller.this.serviceTime = distribution;
+            return this;
+        }
+
+        /**
+         * Distribution of the time of request execution on each device, the service time is not used then.
+         * @param distributions - one distribution per device or null for the same service time of all devices
+         */
+        public Builder setDeviceServiceTimes(final List<Distribution> distributions) {
+            Controller.this.deviceServiceTimes = distributions == null
+                    ? null
+                    : Collections.unmodifiableList(new ArrayList<>(distributions));
+            return this;
+        }
+
         public Controller build() {
             return Controller.this;
         }
@@ -108,6 +369,36 @@ public class Controller {
         return new Controller().new Builder();
     }
 
+    /**
+     * @return builder of the new controller with the same parameters, this controller is not changed
+     */
+    public Builder toBuilder() {
+        return newBuilder()
+                .setAlpha(alpha)
+                .setBeta(beta)
+                .setAmountOfSources(amountOfSources)
+                .setLamda(lamda)
+                .setAmountOfDevices(amountOfDevices)
+                .setBufferSize(bufferSize)
+                .setRequestsNumber(requestsNumber)
+                .setRecordingLevel(recordingLevel)
+                .setTailSize(tailSize)
+                .setTraceDirectory(traceDirectory)
+                .setHistogramPrecision(histogramPrecision)
+                .setSeed(seed)
+                .setRandomAlgorithm(randomAlgorithm)
+                .setBufferDiscipline(bufferDiscipline)
+                .setDeviceSelection(deviceSelection)
+                .setMetricsEnabled(metricsEnabled)
+                .setCheckpointFile(checkpointFile)
+                .setCheckpointIntervalMillis(checkpointIntervalMillis)
+                .setWarmupDetection(warmupDetection)
+                .setBatchMeans(batchMeans)
+                .setInterArrivalTime(interArrivalTime)
+                .setServiceTime(serviceTime)
+                .setDeviceServiceTimes(deviceServiceTimes);
+    }
+
 
     public void autoMode() {
         final Analytics analytics = modulateWork();
@@ -116,98 +407,253 @@ public class Controller {
 
 
     public Analytics modulateWork() {
-        final Analytics analytics = new Analytics(amountOfSources, amountOfDevices);
+        return modulateWork(null);
+    }
 
-        final Buffer buffer = new Buffer(bufferSize);
-        final ProductionManager productionManager = new ProductionManager(amountOfSources, alpha, beta);
-        final SelectionManager selectionManager = new SelectionManager(amountOfDevices, lamda);
+    /**
+     * @param listener - listener of the progress which can stop the run, may be null
+     * @return analytics of the run, partial if the listener has stopped it
+     */
+    public Analytics modulateWork(final RunListener listener) {
+        return modulateWork(listener, null);
+    }
 
-        double currentTime = 0;
+    public Analytics resumeWork(final Path checkpoint) {
+        return resumeWork(checkpoint, null);
+    }
+
+    /**
+     * Continue the run from the checkpoint saved by the run with the same parameters,
+     * the result is the same as if the run was not interrupted.
+     * @param checkpoint - checkpoint file
+     * @param listener - listener of the progress which can stop the run, may be null
+     * @return analytics of the whole run
+     */
+    public Analytics resumeWork(final Path checkpoint, final RunListener listener) {
+        return modulateWork(listener, checkpoint);
+    }
 
-        for (int i = 0; i < requestsNumber; ++i) {
-            final Pair<Double, List<Request>> nextRequestPair = productionManager.getNextRequest(currentTime);
-            final List<Request> nextRequests = nextRequestPair.value;
-            currentTime += nextRequestPair.key;
-
-            for (final Request nextRequest : nextRequests) {
-                logger.info("Uсточник №{} создал заявку №{} в {}",
-                        nextRequest.getSourceNumber(), nextRequest.getNumber(), nextRequest.getInitialTime());
-                logger.info("CurrentTime: {}", currentTime);
-                analytics.addGeneratedRequest(nextRequest);
-                final Pair<Integer, Request> canceledRequestPair = buffer.put(nextRequest);
-                final Request canceledRequest = canceledRequestPair.value;
-                if (canceledRequest != null) {
-                    logger.info("Заявка №{} от источника №{} была отменена",
-                            canceledRequest.getNumber(), canceledRequest.getSourceNumber());
-                    analytics.cancelRequest(canceledRequest, nextRequest, canceledRequestPair.key);
+    private Analytics modulateWork(final RunListener listener, final Path resumeFrom) {
+        final Analytics analytics = createAnalytics();
+        final boolean tracing = isTracing();
+
+        final RequestPool pool = new RequestPool(amountOfSources + bufferSize + amountOfDevices);
+        final EventCalendar calendar = new EventCalendar(amountOfSources, amountOfDevices);
+        final Buffer buffer = new Buffer(bufferSize, amountOfSources, pool, tracing, bufferDiscipline);
+        final RandomStreams randomStreams = new RandomStreams(seed, randomAlgorithm);
+        final ProductionManager productionManager =
+                new ProductionManager(amountOfSources, getInterArrivalTime(), calendar, pool, randomStreams);
+        final SelectionManager selectionManager =
+                new SelectionManager(getServiceTimes(), deviceSelection, calendar, randomStreams);
+        if (checkpointFile != null || resumeFrom != null) {
+            checkCheckpointsSupported(productionManager, selectionManager);
+        }
+        final DoneListener doneListener = (deviceNumber, doneRequest, doneTime, timeOfWork) ->
+                processDoneRequest(deviceNumber, doneRequest, doneTime, timeOfWork, pool, analytics);
+
+        final SimulationMetrics metrics = metricsEnabled
+                ? new SimulationMetrics(analytics, requestsNumber, amountOfSources)
+                : null;
+        if (metrics != null) {
+            metrics.register();
+        }
+
+        double currentTime = 0;
+        int generatedRequests = 0;
+        long events = 0;
+        if (resumeFrom != null) {
+            final Checkpoint checkpoint = Checkpoint.read(resumeFrom, this, analytics);
+            checkpoint.restoreEngine(pool, buffer, calendar, productionManager, selectionManager);
+            currentTime = checkpoint.getCurrentTime();
+            generatedRequests = checkpoint.getGeneratedRequests();
+            events = checkpoint.getEvents();
+            logger.info("Моделирование продолжено с {} заявок, время {}", generatedRequests, currentTime);
+        }
+        final CheckpointWriter checkpointWriter = checkpointFile != null
+                ? new CheckpointWriter(checkpointFile, checkpointIntervalMillis)
+                : null;
+
+        try {
+            while (generatedRequests < requestsNumber && !calendar.isEmpty()) {
+                if ((events & SimulationMetrics.PUBLISH_MASK) == 0) {
+                    analytics.detectWarmup(currentTime);
+                    if (metrics != null) {
+                        metrics.publish(currentTime, events, generatedRequests,
+                                buffer.size(), selectionManager.getBusyDevicesAmount());
+                    }
+                    if (listener != null && !notifyListener(listener, currentTime, generatedRequests, analytics)) {
+                        break;
+                    }
+                    if (checkpointWriter != null && checkpointWriter.isDue()) {
+                        checkpointWriter.submit(Checkpoint.capture(this, currentTime, generatedRequests, events,
+                                pool, buffer, calendar, productionManager, selectionManager, analytics));
+                    }
+                }
+                events++;
+                currentTime = calendar.getNextTime();
+                final int event = calendar.pollNext();
+                if (tracing) {
+                    logger.info("CurrentTime: {}", currentTime);
+                }
+                if (calendar.isArrival(event)) {
+                    final int nextRequest = productionManager.generate(calendar.getSourceNumber(event), currentTime);
+                    generatedRequests++;
+                    processGeneratedRequest(nextRequest, currentTime, pool, buffer, analytics);
                 } else {
-                    logger.info("Заявка успешно загружена в буфер без удалений!");
-                    analytics.addRequestToBuffer(nextRequest, canceledRequestPair.key);
+                    selectionManager.releaseDevice(calendar.getDeviceNumber(event), doneListener);
                 }
+                loadFreeDevices(selectionManager, buffer, currentTime, pool, analytics);
             }
+        } finally {
+            if (checkpointWriter != null) {
+                checkpointWriter.close();
+            }
+            if (metrics != null) {
+                metrics.publish(currentTime, events, generatedRequests,
+                        buffer.size(), selectionManager.getBusyDevicesAmount());
+                metrics.finish();
+                metrics.unregister();
+            }
+        }
 
-            List<DoneInfo> doneRequestsWithDevices = selectionManager.getDoneRequestsWithDevices(currentTime);
-            processDoneRequest(doneRequestsWithDevices, selectionManager, buffer, currentTime, analytics);
+        analytics.setFullTimeOfWork(currentTime);
+        analytics.calcTimeInSystem();
+        analytics.finishRecording();
+        return analytics;
+    }
 
+    private Distribution[] getServiceTimes() {
+        if (deviceServiceTimes != null && deviceServiceTimes.size() != amountOfDevices) {
+            throw new IllegalArgumentException("There are " + deviceServiceTimes.size()
+                    + " service times for " + amountOfDevices + " devices");
         }
+        final Distribution[] serviceTimes = new Distribution[amountOfDevices];
+        for (int i = 0; i < amountOfDevices; ++i) {
+            serviceTimes[i] = getServiceTime(i);
+        }
+        return serviceTimes;
+    }
+
+    private void checkCheckpointsSupported(final ProductionManager productionManager,
+                                           final SelectionManager selectionManager) {
+        if (recordingLevel.isEventsEnabled()) {
+            throw new IllegalArgumentException("Checkpoints do not save events, recording level is " + recordingLevel);
+        }
+        if (!productionManager.isStateSaveable() || !selectionManager.isStateSaveable()) {
+            throw new IllegalArgumentException("State of random algorithm " + randomAlgorithm + " can not be saved");
+        }
+    }
 
+    private static boolean notifyListener(final RunListener listener,
+                                          final double currentTime,
+                                          final int generatedRequests,
+                                          final Analytics analytics) {
         analytics.setFullTimeOfWork(currentTime);
         analytics.calcTimeInSystem();
+        final boolean proceed = listener.onProgress(currentTime, generatedRequests, analytics);
+        if (!proceed) {
+            logger.info("Моделирование остановлено на {} заявках", generatedRequests);
+        }
+        return proceed;
+    }
+
+    private Analytics createAnalytics() {
+        final Analytics analytics;
+        if (recordingLevel == RecordingLevel.FULL_TRACE && traceDirectory != null) {
+            analytics = new Analytics(amountOfSources, amountOfDevices, recordingLevel,
+                    new MappedTraceWriter(traceDirectory, amountOfSources, amountOfDevices, bufferSize,
+                            deviceSelection == DeviceSelectionType.RING),
+                    histogramPrecision);
+        } else {
+            analytics = new Analytics(amountOfSources, amountOfDevices, recordingLevel, tailSize, histogramPrecision);
+        }
+        if (warmupDetection) {
+            analytics.enableWarmupDetection();
+        }
+        if (batchMeans > 0) {
+            analytics.enableBatchMeans(batchMeans);
+        }
         return analytics;
     }
 
-    private void processDoneRequest(final List<DoneInfo> doneRequestsWithDevices,
-                                    final SelectionManager selectionManager,
-                                    final Buffer buffer,
-                                    final double currentTime,
+    private boolean isTracing() {
+        return recordingLevel == RecordingLevel.FULL_TRACE && logger.isInfoEnabled();
+    }
+
+    private void processGeneratedRequest(final int nextRequest,
+                                         final double currentTime,
+                                         final RequestPool pool,
+                                         final Buffer buffer,
+                                         final Analytics analytics) {
+        final int sourceNumber = pool.getSourceNumber(nextRequest);
+        if (isTracing()) {
+            logger.info("Uсточник №{} создал заявку №{} в {}",
+                    sourceNumber, pool.getNumber(nextRequest), currentTime);
+        }
+        analytics.addGeneratedRequest(sourceNumber, currentTime);
+        final Buffer.Slot slot = buffer.put(nextRequest);
+        final int canceledRequest = slot.getRequest();
+        if (canceledRequest != RequestPool.NO_REQUEST) {
+            final int canceledSourceNumber = pool.getSourceNumber(canceledRequest);
+            if (isTracing()) {
+                logger.info("Заявка №{} от источника №{} была отменена",
+                        pool.getNumber(canceledRequest), canceledSourceNumber);
+            }
+            analytics.cancelRequest(canceledSourceNumber, pool.getInitialTime(canceledRequest),
+                    sourceNumber, currentTime, slot.getPosition());
+            pool.release(canceledRequest);
+        } else {
+            if (isTracing()) {
+                logger.info("Заявка успешно загружена в буфер без удалений!");
+            }
+            analytics.addRequestToBuffer(sourceNumber, currentTime, slot.getPosition());
+        }
+    }
+
+    private void processDoneRequest(final int deviceNumber,
+                                    final int doneRequest,
+                                    final double doneTime,
+                                    final double timeOfWork,
+                                    final RequestPool pool,
                                     final Analytics analytics) {
-        logger.info("------------Приборы--------------");
-        doneRequestsWithDevices.sort(Comparator.comparing(DoneInfo::getDoneTime));
-        for (final DoneInfo doneInfo : doneRequestsWithDevices) {
-            final Request doneRequest = doneInfo.doneRequest;
-            if (doneRequest != null) {
-                logger.info("Прибор №{} освободился в {}, выполнив {} запрос источника №{}",
-                        doneInfo.deviceNumber, doneInfo.doneTime, doneRequest.getNumber(), doneRequest.getSourceNumber());
-                analytics.addDoneRequest(doneInfo.deviceNumber, doneRequest, doneInfo.doneTime, doneInfo.timeOfWork);
+        final int sourceNumber = pool.getSourceNumber(doneRequest);
+        if (isTracing()) {
+            logger.info("Прибор №{} освободился в {}, выполнив {} запрос источника №{}",
+                    deviceNumber, doneTime, pool.getNumber(doneRequest), sourceNumber);
+        }
+        analytics.addDoneRequest(deviceNumber, sourceNumber, pool.getInitialTime(doneRequest), doneTime, timeOfWork);
+        pool.release(doneRequest);
+    }
+
+    private void loadFreeDevices(final SelectionManager selectionManager,
+                                 final Buffer buffer,
+                                 final double currentTime,
+                                 final RequestPool pool,
+                                 final Analytics analytics) {
+        while (!buffer.isEmpty() && selectionManager.isAnyDeviceFree()) {
+            int packageNumber = selectionManager.getPackageNumber();
+            Buffer.Slot slot = null;
+            if (packageNumber != SelectionManager.UNSET_PACKAGE_NUMBER_VALUE) {
+                slot = buffer.getPackageRequest(packageNumber);
             }
-            if (!buffer.isEmpty()) {
-                int packageNumber = selectionManager.getPackageNumber();
-                Pair<Integer, Request> requestFromBufPair;
-                if (packageNumber != -1) {
-                    requestFromBufPair = buffer.getPackageRequest(packageNumber);
-                    if (requestFromBufPair == null) {
-                        requestFromBufPair = buffer.getPriorityRequest();
-                        packageNumber = requestFromBufPair.value.getSourceNumber();
-                        selectionManager.setPackageNumber(packageNumber);
-                    }
-                } else {
-                    requestFromBufPair = buffer.getPriorityRequest();
-                    packageNumber = requestFromBufPair.value.getSourceNumber();
-                    selectionManager.setPackageNumber(packageNumber);
-                }
+            if (slot == null) {
+                slot = buffer.getNextRequest();
+                packageNumber = pool.getSourceNumber(slot.getRequest());
+                selectionManager.setPackageNumber(packageNumber);
+            }
+            final int requestFromBuf = slot.getRequest();
+            final int sourceNumber = pool.getSourceNumber(requestFromBuf);
+            if (isTracing()) {
                 logger.info("Package buffer number: {}", packageNumber);
-                final Request requestFromBuf = requestFromBufPair.value;
-                logger.info("DoneTime={}", doneInfo.doneTime);
-                logger.info("RequestFromBuf init time={}", requestFromBuf.getInitialTime());
-                logger.info("Current time={}", currentTime);
-                double time;
-                if (doneInfo.doneTime == -1.0) {
-                    analytics.removeFromBuffer(requestFromBuf, requestFromBufPair.key, currentTime, packageNumber);
-                    time = currentTime;
-                } else {
-                    if (requestFromBuf.getInitialTime() > doneInfo.doneTime) {
-                        analytics.removeFromBuffer(requestFromBuf, requestFromBufPair.key, requestFromBuf.getInitialTime(), packageNumber);
-                        time = requestFromBuf.getInitialTime();
-                    } else {
-                        analytics.removeFromBuffer(requestFromBuf, requestFromBufPair.key, doneInfo.doneTime, packageNumber);
-                        time = doneInfo.doneTime;
-                    }
-                }
-                final int deviceNumber = selectionManager.executeRequest(requestFromBuf, time);
+            }
+            analytics.removeFromBuffer(sourceNumber, pool.getInitialTime(requestFromBuf),
+                    slot.getPosition(), currentTime, packageNumber);
+            final int deviceNumber = selectionManager.executeRequest(requestFromBuf, currentTime);
+            if (isTracing()) {
                 logger.info("Заявка №{} от источника №{} загружена на прибор №{}",
-                        requestFromBuf.getNumber(), requestFromBuf.getSourceNumber(), deviceNumber);
-                analytics.putOnDevice(deviceNumber, time, requestFromBuf.getSourceNumber());
+                        pool.getNumber(requestFromBuf), sourceNumber, deviceNumber);
             }
+            analytics.putOnDevice(deviceNumber, currentTime, sourceNumber);
         }
     }
 
@@ -0,0 +1,391 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.DeviceResults;
+import com.github.zvladn7.analytics.Estimate;
+import com.github.zvladn7.analytics.MomentAccumulator;
+import com.github.zvladn7.analytics.SourceResults;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sweep over the Cartesian product of {@link Controller.Builder} parameters.
+ * Every replication of every point is a separate task of the work-stealing pool,
+ * so long points do not hold the threads while short ones are waiting.
+ * Only a window of points is in flight at once, so the memory does not grow with the size of the sweep.
+ * Replication with the same number has the same seed in all points (common random numbers),
+ * so the difference between points is not hidden by the noise of the random streams.
+ * One CSV row is appended for each point as soon as all its replications are done,
+ * points already present in the result file are skipped, so an interrupted sweep is resumed by running it again.
+ */
+public class ParameterSweep {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParameterSweep.class);
+
+    private static final String SEPARATOR = ",";
+
+    /**
+     * Points in flight for every thread of the pool, more than one keeps the threads busy
+     * while the oldest point is finishing.
+     */
+    private static final int POINTS_IN_FLIGHT_PER_THREAD = 2;
+    private static final String POINT_COLUMN = "point";
+    private static final String[] RESULT_COLUMNS = {
+            "replications",
+            "generated",
+            "processed",
+            "canceled",
+            "probCancel",
+            "probCancelHalfWidth",
+            "timeInSystem",
+            "timeInSystemHalfWidth",
+            "timeOfWait",
+            "timeOnDevice",
+            "coefOfRealization",
+            "coefOfRealizationHalfWidth"
+    };
+
+    private final Controller controller;
+    private final int replications;
+    private final int threads;
+    private final double confidence;
+    private final List<SweepParameter> parameters = new ArrayList<>();
+    private final List<double[]> grids = new ArrayList<>();
+
+    private BufferedWriter writer;
+
+    /**
+     * @param controller - values of parameters which are not swept
+     * @param replications - amount of independent runs of each point
+     * @param threads - amount of threads of the pool
+     */
+    public ParameterSweep(final Controller controller, final int replications, final int threads) {
+        this(controller, replications, threads, Estimate.DEFAULT_CONFIDENCE);
+    }
+
+    public ParameterSweep(final Controller controller,
+                          final int replications,
+                          final int threads,
+                          final double confidence) {
+        if (replications < 1 || threads < 1) {
+            throw new IllegalArgumentException("Amount of replications and threads must be positive");
+        }
+        this.controller = controller;
+        this.replications = replications;
+        this.threads = threads;
+        this.confidence = confidence;
+    }
+
+    /**
+     * Sweep the parameter over the grid of values.
+     */
+    public ParameterSweep addValues(final SweepParameter parameter, final double... values) {
+        if (parameters.contains(parameter)) {
+            throw new IllegalArgumentException("Parameter is already swept: " + parameter);
+        }
+        if (values.length == 0) {
+            throw new IllegalArgumentException("No values of parameter " + parameter);
+        }
+        parameters.add(parameter);
+        grids.add(values.clone());
+        return this;
+    }
+
+    /**
+     * Sweep the parameter from the first value to the last one inclusive with the step.
+     */
+    public ParameterSweep addRange(final SweepParameter parameter,
+                                   final double from,
+                                   final double to,
+                                   final double step) {
+        if (step <= 0 || to < from) {
+            throw new IllegalArgumentException("Invalid range of parameter " + parameter);
+        }
+        final int amount = (int) Math.floor((to - from) / step + 1e-9) + 1;
+        final double[] values = new double[amount];
+        for (int i = 0; i < amount; ++i) {
+            values[i] = from + i * step;
+        }
+        return addValues(parameter, values);
+    }
+
+    public int getAmountOfPoints() {
+        int amount = 1;
+        for (final double[] grid : grids) {
+            amount = Math.multiplyExact(amount, grid.length);
+        }
+        return amount;
+    }
+
+    /**
+     * Points are numbered in the mixed radix order, the last added parameter changes the fastest.
+     * @param index - number of the point
+     * @return values of swept parameters in the order they were added
+     */
+    public double[] getPoint(final int index) {
+        final double[] point = new double[grids.size()];
+        int rest = index;
+        for (int i = grids.size() - 1; i >= 0; --i) {
+            final double[] grid = grids.get(i);
+            point[i] = grid[rest % grid.length];
+            rest /= grid.length;
+        }
+        return point;
+    }
+
+    /**
+     * Run all points which are not in the result file yet.
+     * @param resultFile - CSV file, created if it does not exist
+     * @return amount of points computed by this run
+     */
+    public int run(final Path resultFile) {
+        final String header = header();
+        final int amountOfPoints = getAmountOfPoints();
+        final BitSet completed = readCompleted(resultFile, header, amountOfPoints);
+        final ForkJoinPool pool = new ForkJoinPool(threads);
+        try (BufferedWriter resultWriter = Files.newBufferedWriter(resultFile, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+            writer = resultWriter;
+            if (completed.isEmpty() && Files.size(resultFile) == 0) {
+                writeLine(header);
+            }
+            logger.info("Точек всего: {}, уже посчитано: {}, осталось: {}",
+                    amountOfPoints, completed.cardinality(), amountOfPoints - completed.cardinality());
+            final int maxPointsInFlight = threads * POINTS_IN_FLIGHT_PER_THREAD;
+            final Deque<List<ForkJoinTask<?>>> inFlight = new ArrayDeque<>();
+            int started = 0;
+            for (int index = 0; index < amountOfPoints; ++index) {
+                if (completed.get(index)) {
+                    continue;
+                }
+                if (inFlight.size() == maxPointsInFlight) {
+                    awaitPoint(inFlight.poll());
+                }
+                final PointRun pointRun = new PointRun(index, getPoint(index));
+                final List<ForkJoinTask<?>> pointTasks = new ArrayList<>(replications);
+                for (int replication = 0; replication < replications; ++replication) {
+                    final int replicationNumber = replication;
+                    pointTasks.add(pool.submit(() -> pointRun.runReplication(replicationNumber)));
+                }
+                inFlight.add(pointTasks);
+                started++;
+            }
+            while (!inFlight.isEmpty()) {
+                awaitPoint(inFlight.poll());
+            }
+            return started;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot write sweep results to " + resultFile, e);
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Sweep was interrupted", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Sweep point failed", e.getCause());
+        } finally {
+            pool.shutdownNow();
+            writer = null;
+        }
+    }
+
+    private static void awaitPoint(final List<ForkJoinTask<?>> pointTasks)
+            throws InterruptedException, ExecutionException {
+        for (final ForkJoinTask<?> task : pointTasks) {
+            task.get();
+        }
+    }
+
+    private String header() {
+        final StringBuilder header = new StringBuilder(POINT_COLUMN);
+        for (final SweepParameter parameter : parameters) {
+            header.append(SEPARATOR).append(parameter.getColumnName());
+        }
+        for (final String column : RESULT_COLUMNS) {
+            header.append(SEPARATOR).append(column);
+        }
+        return header.toString();
+    }
+
+    /**
+     * Read numbers of points from the result file of the previous run.
+     * A row cut by the interruption or damaged otherwise is removed from the file, its point is computed again.
+     */
+    private static BitSet readCompleted(final Path resultFile, final String header, final int amountOfPoints) {
+        final BitSet completed = new BitSet();
+        try {
+            if (!Files.exists(resultFile) || Files.size(resultFile) == 0) {
+                return completed;
+            }
+            final String content = new String(Files.readAllBytes(resultFile), StandardCharsets.UTF_8);
+            final int columns = header.split(SEPARATOR).length;
+            final StringBuilder valid = new StringBuilder();
+            int lineStart = 0;
+            int lineEnd;
+            boolean headerRead = false;
+            while ((lineEnd = content.indexOf('\n', lineStart)) != -1) {
+                final String line = content.substring(lineStart, lineEnd);
+                lineStart = lineEnd + 1;
+                if (!headerRead) {
+                    if (!line.equals(header)) {
+                        throw new IllegalArgumentException("Result file " + resultFile + " belongs to another sweep");
+                    }
+                    headerRead = true;
+                } else {
+                    final String[] row = line.split(SEPARATOR);
+                    final int index = row.length == columns ? parsePointIndex(row[0], amountOfPoints) : -1;
+                    if (index == -1) {
+                        continue;
+                    }
+                    completed.set(index);
+                }
+                valid.append(line).append('\n');
+            }
+            if (valid.length() != content.length()) {
+                logger.warn("Неполные строки удалены из {}", resultFile);
+                Files.write(resultFile, valid.toString().getBytes(StandardCharsets.UTF_8));
+            }
+            return completed;
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot read sweep results from " + resultFile, e);
+        }
+    }
+
+    /**
+     * @return number of the point or -1 if it is not a number of the point of this sweep
+     */
+    private static int parsePointIndex(final String value, final int amountOfPoints) {
+        try {
+            final int index = Integer.parseInt(value);
+            return index >= 0 && index < amountOfPoints ? index : -1;
+        } catch (final NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    private synchronized void writeLine(final String line) throws IOException {
+        writer.write(line);
+        writer.write('\n');
+        writer.flush();
+    }
+
+    private void writeRow(final int index, final double[] point, final Analytics[] results) {
+        final Analytics merged = Analytics.emptyFor(results[0].getSourceResultsList().size(),
+                results[0].getDeviceResultsList().size(), controller.getHistogramPrecision());
+        final MomentAccumulator probCancel = new MomentAccumulator();
+        final MomentAccumulator timeInSystem = new MomentAccumulator();
+        final MomentAccumulator coefOfRealization = new MomentAccumulator();
+        for (final Analytics analytics : results) {
+            merged.mergeWith(analytics);
+            final SystemResults system = new SystemResults(analytics);
+            probCancel.add(system.probCancel);
+            timeInSystem.add(system.timeInSystem);
+            coefOfRealization.add(system.coefOfRealization);
+        }
+        final SystemResults system = new SystemResults(merged);
+        final StringBuilder row = new StringBuilder().append(index);
+        for (final double value : point) {
+            row.append(SEPARATOR).append(value);
+        }
+        row.append(SEPARATOR).append(results.length)
+                .append(SEPARATOR).append(system.generated)
+                .append(SEPARATOR).append(system.processed)
+                .append(SEPARATOR).append(system.canceled)
+                .append(SEPARATOR).append(system.probCancel)
+                .append(SEPARATOR).append(Estimate.of(probCancel, confidence).getHalfWidth())
+                .append(SEPARATOR).append(system.timeInSystem)
+                .append(SEPARATOR).append(Estimate.of(timeInSystem, confidence).getHalfWidth())
+                .append(SEPARATOR).append(system.timeOfWait)
+                .append(SEPARATOR).append(system.timeOnDevice)
+                .append(SEPARATOR).append(system.coefOfRealization)
+                .append(SEPARATOR).append(Estimate.of(coefOfRealization, confidence).getHalfWidth());
+        try {
+            writeLine(row.toString());
+        } catch (final IOException e) {
+            throw new UncheckedIOException("Cannot write the row of point " + index, e);
+        }
+        logger.info("Точка №{} посчитана", index);
+    }
+
+    /**
+     * Replications of one point, the last finished replication writes the row.
+     */
+    private final class PointRun {
+        private final int index;
+        private final double[] point;
+        private final Analytics[] results = new Analytics[replications];
+        private final AtomicInteger remaining = new AtomicInteger(replications);
+
+        private PointRun(final int index, final double[] point) {
+            this.index = index;
+            this.point = point;
+        }
+
+        private void runReplication(final int replication) {
+            final Controller.Builder builder = ReplicationRunner.statsOnlyBuilder(controller, replication);
+            for (int i = 0; i < point.length; ++i) {
+                parameters.get(i).apply(builder, point[i]);
+            }
+            results[replication] = builder.build().modulateWork();
+            if (remaining.decrementAndGet() == 0) {
+                writeRow(index, point, results);
+            }
+        }
+    }
+
+    /**
+     * Results of all sources and devices together.
+     */
+    private static final class SystemResults {
+        private long generated;
+        private long processed;
+        private long canceled;
+        private final double probCancel;
+        private final double timeInSystem;
+        private final double timeOfWait;
+        private final double timeOnDevice;
+        private final double coefOfRealization;
+
+        private SystemResults(final Analytics analytics) {
+            double sumTimeInSystem = 0;
+            double sumTimeOfWait = 0;
+            double sumTimeOnDevice = 0;
+            for (final SourceResults results : analytics.getSourceResultsList()) {
+                generated += results.getGenNumber();
+                processed += results.getProcessedNumber();
+                canceled += results.getCanceledNumber();
+                if (results.getGenNumber() != 0) {
+                    sumTimeInSystem += results.getTimeInSystem() * results.getGenNumber();
+                    sumTimeOfWait += results.getTimeOfWait() * results.getGenNumber();
+                    sumTimeOnDevice += results.getTimeOnDevice() * results.getGenNumber();
+                }
+            }
+            double sumCoefOfRealization = 0;
+            final List<DeviceResults> devices = analytics.getDeviceResultsList();
+            for (final DeviceResults results : devices) {
+                sumCoefOfRealization += results.getCoefOfRealization();
+            }
+            probCancel = (double) canceled / (processed + canceled);
+            timeInSystem = sumTimeInSystem / generated;
+            timeOfWait = sumTimeOfWait / generated;
+            timeOnDevice = sumTimeOnDevice / generated;
+            coefOfRealization = sumCoefOfRealization / devices.size();
+        }
+    }
+
+}
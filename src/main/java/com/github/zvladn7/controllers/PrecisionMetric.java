@@ -0,0 +1,82 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.DeviceResults;
+import com.github.zvladn7.analytics.SourceResults;
+
+import java.util.List;
+
+/**
+ * Metrics whose precision can be required by {@link PrecisionRunner}.
+ * Source metrics have one value per source, device metrics have one value per device.
+ */
+public enum PrecisionMetric {
+    PROB_CANCEL {
+        @Override
+        public void values(final Analytics analytics, final double[] values) {
+            final List<SourceResults> results = analytics.getSourceResultsList(false);
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = results.get(i).getProbCancel();
+            }
+        }
+    },
+    TIME_IN_SYSTEM {
+        @Override
+        public void values(final Analytics analytics, final double[] values) {
+            final List<SourceResults> results = analytics.getSourceResultsList(false);
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = results.get(i).getTimeInSystem();
+            }
+        }
+    },
+    TIME_OF_WAIT {
+        @Override
+        public void values(final Analytics analytics, final double[] values) {
+            final List<SourceResults> results = analytics.getSourceResultsList(false);
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = results.get(i).getTimeOfWait();
+            }
+        }
+    },
+    TIME_ON_DEVICE {
+        @Override
+        public void values(final Analytics analytics, final double[] values) {
+            final List<SourceResults> results = analytics.getSourceResultsList(false);
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = results.get(i).getTimeOnDevice();
+            }
+        }
+    },
+    COEF_OF_REALIZATION {
+        @Override
+        public boolean isDeviceMetric() {
+            return true;
+        }
+
+        @Override
+        public void values(final Analytics analytics, final double[] values) {
+            final List<DeviceResults> results = analytics.getDeviceResultsList();
+            for (int i = 0; i < values.length; ++i) {
+                values[i] = results.get(i).getCoefOfRealization();
+            }
+        }
+    };
+
+    public boolean isDeviceMetric() {
+        return false;
+    }
+
+    /**
+     * @return amount of values of the metric in the system of the controller
+     */
+    public int amountOfValues(final Controller controller) {
+        return isDeviceMetric() ? controller.getAmountOfDevices() : controller.getAmountOfSources();
+    }
+
+    /**
+     * @param analytics - results of one run
+     * @param values - destination of values for each source or device,
+     * NaN if the value is not defined in the run (e.g. time in system of a source without processed requests)
+     */
+    public abstract void values(final Analytics analytics, final double[] values);
+}
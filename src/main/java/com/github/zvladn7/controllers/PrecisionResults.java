@@ -0,0 +1,65 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.Estimate;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Results of the {@link PrecisionRunner}.
+ */
+public class PrecisionResults {
+
+    private final boolean precisionReached;
+    private final int replications;
+    private final long requestsNumber;
+    private final Analytics merged;
+    private final Map<PrecisionMetric, List<Estimate>> estimates;
+
+    PrecisionResults(final boolean precisionReached,
+                     final int replications,
+                     final long requestsNumber,
+                     final Analytics merged,
+                     final Map<PrecisionMetric, List<Estimate>> estimates) {
+        this.precisionReached = precisionReached;
+        this.replications = replications;
+        this.requestsNumber = requestsNumber;
+        this.merged = merged;
+        this.estimates = estimates;
+    }
+
+    /**
+     * @return false if the maximal amount of replications was not enough
+     */
+    public boolean isPrecisionReached() {
+        return precisionReached;
+    }
+
+    public int getReplications() {
+        return replications;
+    }
+
+    /**
+     * @return amount of generated requests of all replications
+     */
+    public long getRequestsNumber() {
+        return requestsNumber;
+    }
+
+    /**
+     * @return counters of all replications together
+     */
+    public Analytics getMerged() {
+        return merged;
+    }
+
+    /**
+     * @return estimates for each source or device, empty if the metric was not required
+     */
+    public List<Estimate> getEstimates(final PrecisionMetric metric) {
+        return estimates.getOrDefault(metric, Collections.emptyList());
+    }
+
+}
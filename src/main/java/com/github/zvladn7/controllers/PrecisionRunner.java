@@ -0,0 +1,211 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.Estimate;
+import com.github.zvladn7.analytics.MomentAccumulator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runner which adds independent replications of the system until the confidence intervals
+ * of the chosen metrics are tight enough, instead of the fixed amount of runs.
+ * Each replication is one observation of every metric, observations are accumulated incrementally.
+ * Value which is not defined in the replication is not observed, value which is not defined
+ * in any replication does not stop the runner and is reported with NaN estimate.
+ */
+public class PrecisionRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(PrecisionRunner.class);
+
+    public static final double DEFAULT_RELATIVE_HALF_WIDTH = 0.02;
+    public static final int DEFAULT_MIN_REPLICATIONS = 5;
+    public static final int DEFAULT_MAX_REPLICATIONS = 10_000;
+
+    private final Controller controller;
+    private final List<PrecisionMetric> metrics = new ArrayList<>();
+    private double relativeHalfWidth = DEFAULT_RELATIVE_HALF_WIDTH;
+    private double confidence = Estimate.DEFAULT_CONFIDENCE;
+    private int minReplications = DEFAULT_MIN_REPLICATIONS;
+    private int maxReplications = DEFAULT_MAX_REPLICATIONS;
+    private int threads = 1;
+
+    private PrecisionRunner(final Controller controller) {
+        this.controller = controller;
+    }
+
+    public class Builder {
+
+        private Builder() {
+
+        }
+
+        /**
+         * Require the precision of the metric for every source or device.
+         */
+        public Builder addMetric(final PrecisionMetric metric) {
+            if (!metrics.contains(metric)) {
+                metrics.add(metric);
+            }
+            return this;
+        }
+
+        /**
+         * @param relativeHalfWidth - target half-width divided by the mean, e.g. 0.02 for ±2%
+         */
+        public Builder setRelativeHalfWidth(final double relativeHalfWidth) {
+            PrecisionRunner.this.relativeHalfWidth = relativeHalfWidth;
+            return this;
+        }
+
+        public Builder setConfidence(final double confidence) {
+            PrecisionRunner.this.confidence = confidence;
+            return this;
+        }
+
+        /**
+         * Variance of the few first replications is unreliable, the precision is not checked before this amount.
+         */
+        public Builder setMinReplications(final int amount) {
+            PrecisionRunner.this.minReplications = amount;
+            return this;
+        }
+
+        /**
+         * The run stops after this amount of replications even if the precision is not reached.
+         */
+        public Builder setMaxReplications(final int amount) {
+            PrecisionRunner.this.maxReplications = amount;
+            return this;
+        }
+
+        /**
+         * Replications are run by batches of this size in parallel.
+         */
+        public Builder setThreads(final int amount) {
+            PrecisionRunner.this.threads = amount;
+            return this;
+        }
+
+        public PrecisionRunner build() {
+            if (metrics.isEmpty()) {
+                throw new IllegalStateException("No metrics to reach the precision of");
+            }
+            if (minReplications < 2 || maxReplications < minReplications || threads < 1) {
+                throw new IllegalStateException("Invalid amount of replications or threads");
+            }
+            return PrecisionRunner.this;
+        }
+
+    }
+
+    /**
+     * @param controller - parameters of the system, requestsNumber is the length of one replication
+     */
+    public static Builder newBuilder(final Controller controller) {
+        return new PrecisionRunner(controller).new Builder();
+    }
+
+    public PrecisionResults run() {
+        final Map<PrecisionMetric, MomentAccumulator[]> observations = new EnumMap<>(PrecisionMetric.class);
+        final Map<PrecisionMetric, double[]> values = new EnumMap<>(PrecisionMetric.class);
+        for (final PrecisionMetric metric : metrics) {
+            final MomentAccumulator[] accumulators = new MomentAccumulator[metric.amountOfValues(controller)];
+            for (int i = 0; i < accumulators.length; ++i) {
+                accumulators[i] = new MomentAccumulator();
+            }
+            observations.put(metric, accumulators);
+            values.put(metric, new double[accumulators.length]);
+        }
+        final Analytics merged = Analytics.emptyFor(controller.getAmountOfSources(), controller.getAmountOfDevices(),
+                controller.getHistogramPrecision());
+        final ExecutorService executor = Executors.newFixedThreadPool(threads);
+        int replications = 0;
+        boolean reached = false;
+        try {
+            final List<Future<Analytics>> batch = new ArrayList<>(threads);
+            while (!reached && replications < maxReplications) {
+                final int batchSize = Math.min(threads, maxReplications - replications);
+                for (int i = 0; i < batchSize; ++i) {
+                    final Controller replication =
+                            ReplicationRunner.statsOnlyBuilder(controller, replications + i).build();
+                    batch.add(executor.submit(() -> replication.modulateWork()));
+                }
+                for (final Future<Analytics> future : batch) {
+                    final Analytics analytics = future.get();
+                    merged.mergeWith(analytics);
+                    for (final PrecisionMetric metric : metrics) {
+                        final double[] metricValues = values.get(metric);
+                        final MomentAccumulator[] accumulators = observations.get(metric);
+                        metric.values(analytics, metricValues);
+                        for (int i = 0; i < metricValues.length; ++i) {
+                            if (!Double.isNaN(metricValues[i])) {
+                                accumulators[i].add(metricValues[i]);
+                            }
+                        }
+                    }
+                }
+                replications += batch.size();
+                batch.clear();
+                reached = replications >= minReplications && isPrecise(observations);
+            }
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replications were interrupted", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Replication failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+        if (reached) {
+            logger.info("Точность достигнута за {} прогонов", replications);
+        } else {
+            logger.warn("Точность не достигнута за {} прогонов", replications);
+        }
+        final Map<PrecisionMetric, List<Estimate>> estimates = new EnumMap<>(PrecisionMetric.class);
+        for (final PrecisionMetric metric : metrics) {
+            final List<Estimate> metricEstimates = new ArrayList<>();
+            int undefined = 0;
+            for (final MomentAccumulator accumulator : observations.get(metric)) {
+                metricEstimates.add(Estimate.of(accumulator, confidence));
+                if (accumulator.getCount() == 0) {
+                    undefined++;
+                }
+            }
+            if (undefined != 0) {
+                logger.warn("Метрика {} не определена ни в одном прогоне для {} значений", metric, undefined);
+            }
+            estimates.put(metric, metricEstimates);
+        }
+        return new PrecisionResults(reached, replications,
+                (long) replications * controller.getRequestsNumber(), merged, estimates);
+    }
+
+    /**
+     * Value which is the same in all replications (e.g. zero cancel probability) has the exact estimate,
+     * value which is not defined in any replication can not be precise and is skipped.
+     */
+    private boolean isPrecise(final Map<PrecisionMetric, MomentAccumulator[]> observations) {
+        for (final MomentAccumulator[] accumulators : observations.values()) {
+            for (final MomentAccumulator accumulator : accumulators) {
+                if (accumulator.getCount() == 0) {
+                    continue;
+                }
+                final Estimate estimate = Estimate.of(accumulator, confidence);
+                if (estimate.getHalfWidth() != 0 && !(estimate.getRelativeHalfWidth() <= relativeHalfWidth)) {
+                    return false;
+                }
+            }
+        }
+        return true;
+    }
+
+}
@@ -0,0 +1,65 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.DeviceEstimates;
+import com.github.zvladn7.analytics.DeviceResults;
+import com.github.zvladn7.analytics.SourceEstimates;
+import com.github.zvladn7.analytics.SourceResults;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Results of independent replications: analytics of each run, their merge and confidence intervals.
+ */
+public class ReplicationResults {
+
+    private final List<Analytics> replications;
+    private final Analytics merged;
+
+    public ReplicationResults(final List<Analytics> replications,
+                              final int amountOfSources,
+                              final int amountOfDevices,
+                              final int histogramPrecision) {
+        this.replications = Collections.unmodifiableList(new ArrayList<>(replications));
+        this.merged = Analytics.emptyFor(amountOfSources, amountOfDevices, histogramPrecision);
+        for (final Analytics analytics : replications) {
+            merged.mergeWith(analytics);
+        }
+    }
+
+    public List<Analytics> getReplications() {
+        return replications;
+    }
+
+    /**
+     * @return counters of all replications together
+     */
+    public Analytics getMerged() {
+        return merged;
+    }
+
+    /**
+     * @param confidence - confidence level of intervals, e.g. 0.95
+     */
+    public List<SourceEstimates> getSourceEstimates(final double confidence) {
+        final List<List<SourceResults>> results = new ArrayList<>(replications.size());
+        for (final Analytics analytics : replications) {
+            results.add(analytics.getSourceResultsList());
+        }
+        return SourceEstimates.of(results, confidence);
+    }
+
+    /**
+     * @param confidence - confidence level of intervals, e.g. 0.95
+     */
+    public List<DeviceEstimates> getDeviceEstimates(final double confidence) {
+        final List<List<DeviceResults>> results = new ArrayList<>(replications.size());
+        for (final Analytics analytics : replications) {
+            results.add(analytics.getDeviceResultsList());
+        }
+        return DeviceEstimates.of(results, confidence);
+    }
+
+}
@@ -0,0 +1,89 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.RecordingLevel;
+import com.github.zvladn7.util.RandomStreams;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Runner of independent replications of the same system on the pool of threads.
+ * Each replication has its own controller, components and random streams, so replications share nothing
+ * and the run scales with the amount of threads. Results are merged in the order of replications.
+ */
+public class ReplicationRunner {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReplicationRunner.class);
+
+    private final Controller controller;
+    private final int replications;
+    private final int threads;
+
+    /**
+     * @param controller - parameters of the system, its recording level, trace directory and checkpoint file are ignored
+     * @param replications - amount of independent runs
+     * @param threads - amount of threads to run replications on
+     */
+    public ReplicationRunner(final Controller controller, final int replications, final int threads) {
+        if (replications < 1 || threads < 1) {
+            throw new IllegalArgumentException("Amount of replications and threads must be positive");
+        }
+        this.controller = controller;
+        this.replications = replications;
+        this.threads = threads;
+    }
+
+    public ReplicationResults run() {
+        final ExecutorService executor = Executors.newFixedThreadPool(Math.min(threads, replications));
+        try {
+            final List<Future<Analytics>> futures = new ArrayList<>(replications);
+            for (int i = 0; i < replications; ++i) {
+                final Controller replication = createReplication(i);
+                futures.add(executor.submit(() -> replication.modulateWork()));
+            }
+            final List<Analytics> results = new ArrayList<>(replications);
+            for (final Future<Analytics> future : futures) {
+                results.add(future.get());
+            }
+            logger.debug("Выполнено {} прогонов", replications);
+            return new ReplicationResults(results, controller.getAmountOfSources(), controller.getAmountOfDevices(),
+                    controller.getHistogramPrecision());
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Replications were interrupted", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Replication failed", e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    protected Controller createReplication(final int index) {
+        return statsOnlyBuilder(controller, index).build();
+    }
+
+    /**
+     * Replications keep only counters, the trace of many runs is neither readable nor needed,
+     * and do not register JMX metrics of every short run.
+     * Checkpoint file of the controller is not used, replications running at once would overwrite it
+     * with states of different seeds.
+     * Seed of the replication depends only on the seed of the controller and the number of the replication,
+     * so results do not depend on the amount of threads.
+     */
+    static Controller.Builder statsOnlyBuilder(final Controller controller, final int replication) {
+        return controller.toBuilder()
+                .setRecordingLevel(RecordingLevel.STATS_ONLY)
+                .setTraceDirectory(null)
+                .setMetricsEnabled(false)
+                .setCheckpointFile(null)
+                .setSeed(RandomStreams.replicationSeed(controller.getSeed(), replication));
+    }
+
+}
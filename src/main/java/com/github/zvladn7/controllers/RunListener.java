@@ -0,0 +1,20 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+
+/**
+ * Listener of the progress of {@link Controller#modulateWork(RunListener)}.
+ */
+public interface RunListener {
+
+    /**
+     * Invoked by the thread of the run every {@link SimulationMetrics#PUBLISH_INTERVAL} events.
+     * Counters of analytics are brought to the current time, they must be read only inside the call.
+     * @param currentTime - simulated time
+     * @param generatedRequests - amount of requests generated so far
+     * @param analytics - analytics of the run
+     * @return false to stop the run, the run returns analytics of the requests processed so far
+     */
+    boolean onProgress(double currentTime, int generatedRequests, Analytics analytics);
+
+}
@@ -0,0 +1,167 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Metrics of one run of the {@link Controller}, registered in the platform MBean server while the run goes.
+ * The engine thread only writes a few volatile fields once per publish interval,
+ * so the instrumentation does not slow down the run.
+ */
+public class SimulationMetrics implements SimulationMetricsMXBean {
+
+    private static final Logger logger = LoggerFactory.getLogger(SimulationMetrics.class);
+
+    /**
+     * Amount of events between publications, power of two.
+     */
+    public static final int PUBLISH_INTERVAL = 1 << 12;
+    static final int PUBLISH_MASK = PUBLISH_INTERVAL - 1;
+
+    private static final String DOMAIN = "com.github.zvladn7";
+    private static final AtomicInteger runCounter = new AtomicInteger();
+
+    private final Analytics analytics;
+    private final int requestsNumber;
+    private final int amountOfSources;
+    private final long startNanos = System.nanoTime();
+    private ObjectName objectName;
+
+    private volatile boolean running = true;
+    private volatile double simulatedTime;
+    private volatile long processedEvents;
+    private volatile long generatedRequests;
+    private volatile int bufferOccupancy;
+    private volatile int busyDevices;
+    private volatile long endNanos;
+
+    SimulationMetrics(final Analytics analytics, final int requestsNumber, final int amountOfSources) {
+        this.analytics = analytics;
+        this.requestsNumber = requestsNumber;
+        this.amountOfSources = amountOfSources;
+    }
+
+    /**
+     * Register in the platform MBean server, the failure of registration does not stop the run.
+     */
+    void register() {
+        try {
+            objectName = new ObjectName(DOMAIN + ":type=SimulationMetrics,name=run-" + runCounter.incrementAndGet());
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            server.registerMBean(this, objectName);
+        } catch (final JMException e) {
+            logger.warn("Не удалось зарегистрировать метрики: {}", e.getMessage());
+            objectName = null;
+        }
+    }
+
+    void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (final JMException e) {
+            logger.warn("Не удалось удалить метрики: {}", e.getMessage());
+        }
+    }
+
+    void publish(final double simulatedTime,
+                 final long processedEvents,
+                 final long generatedRequests,
+                 final int bufferOccupancy,
+                 final int busyDevices) {
+        this.simulatedTime = simulatedTime;
+        this.processedEvents = processedEvents;
+        this.generatedRequests = generatedRequests;
+        this.bufferOccupancy = bufferOccupancy;
+        this.busyDevices = busyDevices;
+    }
+
+    void finish() {
+        endNanos = System.nanoTime();
+        running = false;
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    @Override
+    public double getSimulatedTime() {
+        return simulatedTime;
+    }
+
+    @Override
+    public long getProcessedEvents() {
+        return processedEvents;
+    }
+
+    @Override
+    public double getEventsPerSecond() {
+        return processedEvents / getElapsedSeconds();
+    }
+
+    @Override
+    public long getGeneratedRequests() {
+        return generatedRequests;
+    }
+
+    @Override
+    public int getRequestsNumber() {
+        return requestsNumber;
+    }
+
+    @Override
+    public int getBufferOccupancy() {
+        return bufferOccupancy;
+    }
+
+    @Override
+    public int getBusyDevices() {
+        return busyDevices;
+    }
+
+    /**
+     * Counters are read without synchronization, every value is some value the engine has written.
+     */
+    @Override
+    public long[] getCancellationsPerSource() {
+        final long[] cancellations = new long[amountOfSources];
+        for (int i = 0; i < amountOfSources; ++i) {
+            cancellations[i] = analytics.getAmountOfFailed(i);
+        }
+        return cancellations;
+    }
+
+    @Override
+    public double getProgress() {
+        return requestsNumber == 0 ? 1 : (double) generatedRequests / requestsNumber;
+    }
+
+    @Override
+    public double getEstimatedSecondsToCompletion() {
+        if (!running) {
+            return 0;
+        }
+        final double progress = getProgress();
+        if (progress == 0) {
+            return Double.NaN;
+        }
+        return getElapsedSeconds() * (1 - progress) / progress;
+    }
+
+    private double getElapsedSeconds() {
+        final long end = running ? System.nanoTime() : endNanos;
+        return (end - startNanos) / 1e9;
+    }
+
+}
@@ -0,0 +1,41 @@
+package com.github.zvladn7.controllers;
+
+/**
+ * Live metrics of the running simulation, readable by any JMX client.
+ * Values are published by the engine every {@link SimulationMetrics#PUBLISH_INTERVAL} events,
+ * so they may lag behind the engine a little.
+ */
+public interface SimulationMetricsMXBean {
+
+    boolean isRunning();
+
+    double getSimulatedTime();
+
+    long getProcessedEvents();
+
+    /**
+     * @return average amount of processed events per second of the wall time since the start
+     */
+    double getEventsPerSecond();
+
+    long getGeneratedRequests();
+
+    int getRequestsNumber();
+
+    int getBufferOccupancy();
+
+    int getBusyDevices();
+
+    long[] getCancellationsPerSource();
+
+    /**
+     * @return part of the requests which are already generated, from 0 to 1
+     */
+    double getProgress();
+
+    /**
+     * @return estimated wall time to the end of the run in seconds or NaN if nothing is generated yet
+     */
+    double getEstimatedSecondsToCompletion();
+
+}
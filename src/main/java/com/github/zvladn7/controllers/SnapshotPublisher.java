@@ -0,0 +1,90 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.AnalyticsSnapshot;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Listener of the run which publishes immutable snapshots of its analytics for other threads.
+ * The run is the only writer, it replaces the latest snapshot and never waits for readers;
+ * readers take the latest snapshot whenever they want and skip the ones they have not managed to see.
+ * Snapshots are made not more often than the interval of wall time or of generated requests.
+ */
+public class SnapshotPublisher implements RunListener {
+
+    public static final long DEFAULT_INTERVAL_MILLIS = 100;
+
+    private final long intervalNanos;
+    private final int intervalRequests;
+    private final AtomicReference<AnalyticsSnapshot> latest = new AtomicReference<>();
+    private volatile boolean stopped;
+
+    private long lastPublishNanos;
+    private int lastPublishRequests;
+
+    private SnapshotPublisher(final long intervalNanos, final int intervalRequests) {
+        this.intervalNanos = intervalNanos;
+        this.intervalRequests = intervalRequests;
+        this.lastPublishNanos = System.nanoTime();
+    }
+
+    public static SnapshotPublisher everyMillis(final long millis) {
+        return new SnapshotPublisher(TimeUnit.MILLISECONDS.toNanos(millis), 0);
+    }
+
+    /**
+     * Run notifies listeners every {@link SimulationMetrics#PUBLISH_INTERVAL} events,
+     * so the smaller interval of requests is rounded up to it.
+     */
+    public static SnapshotPublisher everyRequests(final int requests) {
+        return new SnapshotPublisher(0, requests);
+    }
+
+    @Override
+    public boolean onProgress(final double currentTime, final int generatedRequests, final Analytics analytics) {
+        if (stopped) {
+            return false;
+        }
+        if (intervalRequests > 0) {
+            if (generatedRequests - lastPublishRequests >= intervalRequests) {
+                lastPublishRequests = generatedRequests;
+                latest.lazySet(AnalyticsSnapshot.partial(analytics));
+            }
+        } else {
+            final long now = System.nanoTime();
+            if (now - lastPublishNanos >= intervalNanos) {
+                lastPublishNanos = now;
+                latest.lazySet(AnalyticsSnapshot.partial(analytics));
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Publish the results of the finished run.
+     */
+    public void publishComplete(final Analytics analytics) {
+        latest.set(AnalyticsSnapshot.complete(analytics));
+    }
+
+    /**
+     * @return the latest published snapshot or null if nothing is published yet
+     */
+    public AnalyticsSnapshot getLatest() {
+        return latest.get();
+    }
+
+    /**
+     * Ask the run to stop at the next notification, it can be called by any thread.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    public boolean isStopped() {
+        return stopped;
+    }
+
+}
@@ -1,141 +1,155 @@
 package com.github.zvladn7.controllers;
 
-import com.github.zvladn7.util.Pair;
 import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.EventTrace;
+import com.github.zvladn7.analytics.MappedTrace;
+import com.github.zvladn7.analytics.RecordingLevel;
+import com.github.zvladn7.managers.DeviceSelectionType;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.Arrays;
-import java.util.Map;
 import java.util.Scanner;
-import java.util.TreeMap;
 
 public final class StepModeController {
 
-    private static final int NOT_BUSY_FLAG_VALUE = -1;
     private static final Logger logger = LoggerFactory.getLogger(StepModeController.class);
 
+    /**
+     * Analytics of the run or null if the trace is reopened from disk.
+     */
     private final Analytics analytics;
+    private final EventTrace trace;
     private final int bufferSize;
     private final int amountOfDevices;
+    private final boolean ringSelection;
 
     public StepModeController(final Controller controller) {
+        if (controller.getRecordingLevel() != RecordingLevel.FULL_TRACE) {
+            throw new IllegalArgumentException("Step mode needs all events of the run, recording level is "
+                    + controller.getRecordingLevel());
+        }
         this.analytics = controller.modulateWork();
+        this.trace = analytics.getEventTrace();
         this.bufferSize = controller.getBufferSize();
         this.amountOfDevices = controller.getAmountOfDevices();
+        this.ringSelection = controller.getDeviceSelection() == DeviceSelectionType.RING;
+    }
+
+    /**
+     * Step through the trace of a finished run without simulating it again.
+     * @param trace - trace opened from disk
+     */
+    public StepModeController(final MappedTrace trace) {
+        this.analytics = null;
+        this.trace = trace;
+        this.bufferSize = trace.getBufferSize();
+        this.amountOfDevices = trace.getAmountOfDevices();
+        this.ringSelection = trace.isRingSelection();
     }
 
     public void stepMode() {
-        final TreeMap<Pair<Double, Pair<Analytics.EventType, Integer>>, Pair<Integer, Integer>> analyticsByStep
-                = analytics.getAnalyticsByStep();
-        //index - number of slot
-        //value - number of source which generate the request
-        final int[] bufIsBusy = new int[bufferSize];
-        Arrays.fill(bufIsBusy, NOT_BUSY_FLAG_VALUE);
-        final int[] deviceIsBusy = new int[amountOfDevices];
-        Arrays.fill(deviceIsBusy, NOT_BUSY_FLAG_VALUE);
+        final StepModeReplay replay = new StepModeReplay(trace, bufferSize, amountOfDevices, ringSelection);
         final Scanner scanner = new Scanner(System.in);
-        int amountInBuf = 0;
+        logger.info("Enter - следующее событие, b - предыдущее, i <номер> - перейти к событию, "
+                + "t <время> - перейти ко времени, continue - до конца, q - выход");
         String what = "";
-        int packageNum = -1;
-        int packageRequestsLeft = -1;
-        int circleIndex = 0;
-        for (final Map.Entry<Pair<Double, Pair<Analytics.EventType, Integer>>, Pair<Integer, Integer>> entry : analyticsByStep.entrySet()) {
-            final int componentNum = entry.getValue().key;
-            logger.info("Следующее особое событие в {}", entry.getKey().key);
-            final Analytics.EventType eventType = entry.getKey().value.key;
-            final int sourceNum = entry.getKey().value.value;
-            switch (eventType) {
-                case GENERATED_REQUEST:
-                    logger.info("Uсточник {} сгенерировал новую заявку", sourceNum);
-                    break;
-                case CANCELED_REQUEST:
-                    logger.info("Заявка источника {} отменена, индекс буфера {}", sourceNum, componentNum);
-                    removeFromBuf(bufIsBusy, componentNum, amountInBuf);
-                    amountInBuf--;
-                    break;
-                case PUT_TO_BUFFER:
-                    putToBufEnd(bufIsBusy, sourceNum, amountInBuf);
-                    logger.info("Заявка источника {} помещена в буфер по индексу {}",
-                            sourceNum, componentNum != -1 ? componentNum : amountInBuf);
-                    amountInBuf++;
-                    break;
-                case REMOVE_FROM_BUFFER:
-                    logger.info("Заявка источника {} удалена из буфера по индексу {}", sourceNum, componentNum);
-                    removeFromBuf(bufIsBusy, componentNum, amountInBuf);
-                    packageNum = entry.getValue().value;
-                    amountInBuf--;
-                    packageRequestsLeft = countPackageRequests(bufIsBusy, packageNum);
-                    break;
-                case PUT_ON_DEVICE:
-                    logger.info("Заявка источника {} поставлена на прибор {}", sourceNum, componentNum);
-                    circleIndex = componentNum + 1;
-                    if (circleIndex == amountOfDevices) {
-                        circleIndex = 0;
-                    }
-                    putOnDevice(deviceIsBusy, componentNum, sourceNum);
-                    break;
-                case FREE_DEVICE:
-                    logger.info("Заявка источника {} закончила исполнение на приборе, {}", sourceNum, componentNum);
-                    freeDevice(deviceIsBusy, componentNum);
-                    break;
+        boolean moved = replay.stepForward();
+        while (moved) {
+            printEvent(replay);
+            printCurrentStepModeSituation(replay);
+            if ("continue".equals(what)) {
+                moved = replay.stepForward();
+                continue;
             }
-            printCurrentStepModeSituation(bufIsBusy, deviceIsBusy, packageNum, packageRequestsLeft, circleIndex);
             logger.info("Нажмите enter, чтобы продолжить...");
-            if (!"continue".equals(what)) {
-                what = scanner.nextLine();
+            if (!scanner.hasNextLine()) {
+                break;
             }
+            what = scanner.nextLine().trim();
+            moved = move(replay, what);
+        }
+        if (analytics != null) {
+            analytics.printStat();
         }
-        analytics.printStat();
     }
 
-    private int countPackageRequests(final int[] bufIsBusy, final int packageNum) {
-        int amount = 0;
-        for (int i : bufIsBusy) {
-            if (i == packageNum) {
-                amount++;
+    /**
+     * @return false if step mode is finished
+     */
+    private boolean move(final StepModeReplay replay, final String command) {
+        if ("q".equals(command)) {
+            return false;
+        }
+        if ("b".equals(command)) {
+            if (!replay.stepBackward() || replay.getIndex() == StepModeReplay.BEFORE_FIRST) {
+                logger.info("Это первое событие");
+                replay.seek(0);
             }
+            return true;
         }
-        return amount;
-    }
-
-    private void putOnDevice(final int[] deviceIsBusy,
-                             final int deviceNum,
-                             final int sourceNum) {
-        deviceIsBusy[deviceNum] = sourceNum;
-    }
-
-    private void freeDevice(final int[] deviceIsBusy,
-                            final int deviceNum) {
-        deviceIsBusy[deviceNum] = -1;
-    }
-
-    private void removeFromBuf(final int[] bufIsBusy,
-                               final int removedBufPos,
-                               final int lastPos) {
-        logger.info("Remove from buf with removedBufPos={}, lastPos={}", removedBufPos, lastPos);
-        System.arraycopy(bufIsBusy, removedBufPos + 1, bufIsBusy, removedBufPos, bufferSize - removedBufPos - 1);
-        bufIsBusy[lastPos - 1] = -1;
+        try {
+            if (command.startsWith("i ")) {
+                final long index = Long.parseLong(command.substring(2).trim());
+                replay.seek(Math.max(0, Math.min(replay.size() - 1, index)));
+                return true;
+            }
+            if (command.startsWith("t ")) {
+                replay.seekTime(Double.parseDouble(command.substring(2).trim()));
+                if (replay.getIndex() == StepModeReplay.BEFORE_FIRST) {
+                    replay.seek(0);
+                }
+                return true;
+            }
+        } catch (NumberFormatException e) {
+            logger.info("Неизвестная команда: {}", command);
+            return true;
+        }
+        return replay.stepForward();
     }
 
-    private void putToBufEnd(final int[] bufIsBusy,
-                             final int sourceNum,
-                             final int amountInBuf) {
-        bufIsBusy[amountInBuf] = sourceNum;
+    private void printEvent(final StepModeReplay replay) {
+        final long index = replay.getIndex();
+        final int componentNum = trace.getComponentNumber(index);
+        final int sourceNum = trace.getSourceNumber(index);
+        logger.info("Событие №{} из {}", index, replay.size());
+        logger.info("Следующее особое событие в {}", trace.getTime(index));
+        switch (trace.getType(index)) {
+            case GENERATED_REQUEST:
+                logger.info("Uсточник {} сгенерировал новую заявку", sourceNum);
+                break;
+            case CANCELED_REQUEST:
+                logger.info("Заявка источника {} отменена, индекс буфера {}", sourceNum, componentNum);
+                break;
+            case PUT_TO_BUFFER:
+                logger.info("Заявка источника {} помещена в буфер по индексу {}",
+                        sourceNum, componentNum != -1 ? componentNum : replay.getAmountInBuffer() - 1);
+                break;
+            case REMOVE_FROM_BUFFER:
+                logger.info("Заявка источника {} удалена из буфера по индексу {}", sourceNum, componentNum);
+                break;
+            case PUT_ON_DEVICE:
+                logger.info("Заявка источника {} поставлена на прибор {}", sourceNum, componentNum);
+                break;
+            case FREE_DEVICE:
+                logger.info("Заявка источника {} закончила исполнение на приборе, {}", sourceNum, componentNum);
+                break;
+        }
     }
 
-    private void printCurrentStepModeSituation(final int[] bufIsBusy,
-                                               final int[] deviceIsBusy,
-                                               final int packageNum,
-                                               final int packageRequestsLeft,
-                                               final int circleIndex) {
+    private void printCurrentStepModeSituation(final StepModeReplay replay) {
+        final int packageNum = replay.getPackageNumber();
+        final int packageRequestsLeft = replay.getPackageRequestsLeft();
+        final int circleIndex = replay.getCircleIndex();
         logger.info("Номер текущего пакета: {}", packageNum == -1 ? "null" : packageNum);
         logger.info("Количество оставшихся заявок в пакете: {}", packageRequestsLeft == -1 ? "null" : packageRequestsLeft);
-        for (int i = 0; i < bufIsBusy.length; ++i) {
-            logger.info("Буфер, позиция={} : источник={}", i, bufIsBusy[i] == -1 ? "null" : bufIsBusy[i]);
+        for (int i = 0; i < bufferSize; ++i) {
+            final int slot = replay.getBufferSlot(i);
+            logger.info("Буфер, позиция={} : источник={}", i, slot == StepModeReplay.NOT_BUSY_FLAG_VALUE ? "null" : slot);
         }
-        for (int i = 0; i < deviceIsBusy.length; ++i) {
-            logger.info("Прибор, номер={} : источник={} {}", i, deviceIsBusy[i] == -1 ? "null" : deviceIsBusy[i], circleIndex == i ? "<<----" : "");
+        for (int i = 0; i < amountOfDevices; ++i) {
+            final int request = replay.getDeviceRequest(i);
+            logger.info("Прибор, номер={} : источник={} {}", i,
+                    request == StepModeReplay.NOT_BUSY_FLAG_VALUE ? "null" : request, circleIndex == i ? "<<----" : "");
         }
     }
 
@@ -0,0 +1,323 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.EventCursor;
+import com.github.zvladn7.analytics.EventTrace;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Random access replay of the trace for the step mode.
+ * State of the buffer and devices is saved after every checkpointInterval events in one forward pass,
+ * so the state after any event is restored from the nearest checkpoint before it
+ * and at most checkpointInterval events are applied. Event of the time is found by the binary search.
+ * By default the interval is chosen so that all checkpoints fit into {@link #DEFAULT_CHECKPOINT_MEMORY_BYTES},
+ * long traces of large systems get sparser checkpoints and longer seeks instead of more memory.
+ * Works with any {@link EventTrace}, in memory or mapped from disk.
+ */
+public class StepModeReplay {
+
+    public static final int NOT_BUSY_FLAG_VALUE = -1;
+    public static final int DEFAULT_CHECKPOINT_INTERVAL = 1024;
+    public static final long DEFAULT_CHECKPOINT_MEMORY_BYTES = 64L << 20;
+
+    /**
+     * Approximate size of the state object without its arrays.
+     */
+    private static final long STATE_OVERHEAD_BYTES = 96;
+
+    /**
+     * Index of the position before the first event, the state is empty there.
+     */
+    public static final long BEFORE_FIRST = -1;
+
+    /**
+     * Ring index of runs which devices are not chosen by the ring rule.
+     */
+    public static final int NO_CIRCLE_INDEX = -1;
+
+    private final EventTrace trace;
+    private final int checkpointInterval;
+    private final int amountOfDevices;
+    private final boolean ringSelection;
+
+    /**
+     * Checkpoint k is the state after the first k * checkpointInterval events.
+     */
+    private final List<State> checkpoints = new ArrayList<>();
+    private final State state;
+
+    public StepModeReplay(final EventTrace trace,
+                          final int bufferSize,
+                          final int amountOfDevices,
+                          final boolean ringSelection) {
+        this(trace, bufferSize, amountOfDevices, ringSelection,
+                checkpointInterval(trace.size(), bufferSize, amountOfDevices, DEFAULT_CHECKPOINT_MEMORY_BYTES));
+    }
+
+    /**
+     * Interval between checkpoints, so that checkpoints of the whole trace take not more than the memory,
+     * but not less than {@link #DEFAULT_CHECKPOINT_INTERVAL}.
+     * @param traceSize - amount of events in the trace
+     * @param memoryBytes - memory for all checkpoints
+     * @return amount of events between checkpoints
+     */
+    public static int checkpointInterval(final long traceSize,
+                                         final int bufferSize,
+                                         final int amountOfDevices,
+                                         final long memoryBytes) {
+        final long stateBytes = STATE_OVERHEAD_BYTES + Integer.BYTES * ((long) bufferSize + amountOfDevices);
+        final long maxCheckpoints = Math.max(1, memoryBytes / stateBytes);
+        final long interval = (traceSize + maxCheckpoints - 1) / maxCheckpoints;
+        return (int) Math.min(Integer.MAX_VALUE, Math.max(DEFAULT_CHECKPOINT_INTERVAL, interval));
+    }
+
+    /**
+     * @param trace - full trace of the run, starting from the empty system
+     * @param ringSelection - devices of the run are chosen by the ring rule, the ring index is known only then
+     * @param checkpointInterval - amount of events between checkpoints, the longest replay on seek
+     */
+    public StepModeReplay(final EventTrace trace,
+                          final int bufferSize,
+                          final int amountOfDevices,
+                          final boolean ringSelection,
+                          final int checkpointInterval) {
+        if (checkpointInterval <= 0) {
+            throw new IllegalArgumentException("Checkpoint interval must be positive: " + checkpointInterval);
+        }
+        this.trace = trace;
+        this.checkpointInterval = checkpointInterval;
+        this.amountOfDevices = amountOfDevices;
+        this.ringSelection = ringSelection;
+        this.state = new State(bufferSize, amountOfDevices);
+        buildCheckpoints();
+    }
+
+    private void buildCheckpoints() {
+        checkpoints.add(state.copy());
+        final EventCursor cursor = trace.cursor();
+        while (cursor.next()) {
+            state.apply(cursor.getType(), cursor.getSourceNumber(), cursor.getComponentNumber(), cursor.getInfo());
+            state.index = cursor.getIndex();
+            if ((state.index + 1) % checkpointInterval == 0) {
+                checkpoints.add(state.copy());
+            }
+        }
+        state.copyFrom(checkpoints.get(0));
+    }
+
+    public int getCheckpointInterval() {
+        return checkpointInterval;
+    }
+
+    public long size() {
+        return trace.size();
+    }
+
+    public EventTrace getTrace() {
+        return trace;
+    }
+
+    /**
+     * @return index of the last applied event or BEFORE_FIRST
+     */
+    public long getIndex() {
+        return state.index;
+    }
+
+    /**
+     * Apply the next event.
+     * @return false if the current event is the last one
+     */
+    public boolean stepForward() {
+        if (state.index + 1 >= trace.size()) {
+            return false;
+        }
+        applyNext();
+        return true;
+    }
+
+    /**
+     * Undo the current event.
+     * @return false if there are no applied events
+     */
+    public boolean stepBackward() {
+        if (state.index == BEFORE_FIRST) {
+            return false;
+        }
+        seek(state.index - 1);
+        return true;
+    }
+
+    /**
+     * Restore the state after the event.
+     * @param index - index of the event in [BEFORE_FIRST, size)
+     */
+    public void seek(final long index) {
+        if (index < BEFORE_FIRST || index >= trace.size()) {
+            throw new IndexOutOfBoundsException("Event index " + index + " is out of [-1, " + trace.size() + ")");
+        }
+        final int checkpoint = (int) ((index + 1) / checkpointInterval);
+        if (index < state.index || checkpoint > (state.index + 1) / checkpointInterval) {
+            state.copyFrom(checkpoints.get(checkpoint));
+        }
+        while (state.index < index) {
+            applyNext();
+        }
+    }
+
+    /**
+     * Restore the state after the last event which happened not later than the time.
+     * @param time - simulated time
+     */
+    public void seekTime(final double time) {
+        long low = 0;
+        long high = trace.size();
+        while (low < high) {
+            final long middle = (low + high) >>> 1;
+            if (trace.getTime(middle) <= time) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        seek(low - 1);
+    }
+
+    private void applyNext() {
+        final long next = state.index + 1;
+        state.apply(trace.getType(next), trace.getSourceNumber(next), trace.getComponentNumber(next),
+                trace.getInfo(next));
+        state.index = next;
+    }
+
+    /**
+     * @return source of the request in the buffer slot or NOT_BUSY_FLAG_VALUE
+     */
+    public int getBufferSlot(final int position) {
+        return state.bufIsBusy[position];
+    }
+
+    /**
+     * @return source of the request on the device or NOT_BUSY_FLAG_VALUE
+     */
+    public int getDeviceRequest(final int device) {
+        return state.deviceIsBusy[device];
+    }
+
+    public int getBufferSize() {
+        return state.bufIsBusy.length;
+    }
+
+    public int getAmountOfDevices() {
+        return amountOfDevices;
+    }
+
+    public int getAmountInBuffer() {
+        return state.amountInBuf;
+    }
+
+    public int getPackageNumber() {
+        return state.packageNum;
+    }
+
+    public int getPackageRequestsLeft() {
+        return state.packageRequestsLeft;
+    }
+
+    /**
+     * @return index of the device from which the ring rule looks for a free device or NO_CIRCLE_INDEX
+     */
+    public int getCircleIndex() {
+        return ringSelection ? state.circleIndex : NO_CIRCLE_INDEX;
+    }
+
+    /**
+     * State of the buffer and devices after the event with the index.
+     */
+    private static final class State {
+
+        //index - number of slot
+        //value - number of source which generate the request
+        private final int[] bufIsBusy;
+        private final int[] deviceIsBusy;
+        private long index = BEFORE_FIRST;
+        private int amountInBuf;
+        private int packageNum = -1;
+        private int packageRequestsLeft = -1;
+        private int circleIndex;
+
+        private State(final int bufferSize, final int amountOfDevices) {
+            this.bufIsBusy = new int[bufferSize];
+            Arrays.fill(bufIsBusy, NOT_BUSY_FLAG_VALUE);
+            this.deviceIsBusy = new int[amountOfDevices];
+            Arrays.fill(deviceIsBusy, NOT_BUSY_FLAG_VALUE);
+        }
+
+        private void apply(final Analytics.EventType eventType,
+                           final int sourceNum,
+                           final int componentNum,
+                           final int info) {
+            switch (eventType) {
+                case CANCELED_REQUEST:
+                    removeFromBuf(componentNum);
+                    break;
+                case PUT_TO_BUFFER:
+                    bufIsBusy[amountInBuf++] = sourceNum;
+                    break;
+                case REMOVE_FROM_BUFFER:
+                    removeFromBuf(componentNum);
+                    packageNum = info;
+                    packageRequestsLeft = countPackageRequests();
+                    break;
+                case PUT_ON_DEVICE:
+                    circleIndex = componentNum + 1;
+                    if (circleIndex == deviceIsBusy.length) {
+                        circleIndex = 0;
+                    }
+                    deviceIsBusy[componentNum] = sourceNum;
+                    break;
+                case FREE_DEVICE:
+                    deviceIsBusy[componentNum] = NOT_BUSY_FLAG_VALUE;
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        private void removeFromBuf(final int removedBufPos) {
+            System.arraycopy(bufIsBusy, removedBufPos + 1, bufIsBusy, removedBufPos, bufIsBusy.length - removedBufPos - 1);
+            bufIsBusy[amountInBuf - 1] = NOT_BUSY_FLAG_VALUE;
+            amountInBuf--;
+        }
+
+        private int countPackageRequests() {
+            int amount = 0;
+            for (int i : bufIsBusy) {
+                if (i == packageNum) {
+                    amount++;
+                }
+            }
+            return amount;
+        }
+
+        private State copy() {
+            final State copy = new State(bufIsBusy.length, deviceIsBusy.length);
+            copy.copyFrom(this);
+            return copy;
+        }
+
+        private void copyFrom(final State other) {
+            System.arraycopy(other.bufIsBusy, 0, bufIsBusy, 0, bufIsBusy.length);
+            System.arraycopy(other.deviceIsBusy, 0, deviceIsBusy, 0, deviceIsBusy.length);
+            index = other.index;
+            amountInBuf = other.amountInBuf;
+            packageNum = other.packageNum;
+            packageRequestsLeft = other.packageRequestsLeft;
+            circleIndex = other.circleIndex;
+        }
+    }
+
+}
@@ -0,0 +1,78 @@
+package com.github.zvladn7.controllers;
+
+/**
+ * Parameters of {@link Controller.Builder} which can be swept by {@link ParameterSweep}.
+ * Integer parameters are rounded to the nearest integer.
+ */
+public enum SweepParameter {
+    ALPHA("alpha") {
+        @Override
+        public void apply(final Controller.Builder builder, final double value) {
+            builder.setAlpha(value);
+        }
+    },
+    BETA("beta") {
+        @Override
+        public void apply(final Controller.Builder builder, final double value) {
+            builder.setBeta(value);
+        }
+    },
+    AMOUNT_OF_SOURCES("amountOfSources") {
+        @Override
+        public void apply(final Controller.Builder builder, final double value) {
+            builder.setAmountOfSources((int) Math.round(value));
+        }
+    },
+    LAMDA("lamda") {
+        @Override
+        public void apply(final Controller.Builder builder, final double value) {
+            builder.setLamda(value);
+        }
+    },
+    AMOUNT_OF_DEVICES("amountOfDevices") {
+        @Override
+        public void apply(final Controller.Builder builder, final double value) {
+            builder.setAmountOfDevices((int) Math.round(value));
+        }
+    },
+    BUFFER_SIZE("bufferSize") {
+        @Override
+        public void apply(final Controller.Builder builder, final double value) {
+            builder.setBufferSize((int) Math.round(value));
+        }
+    },
+    REQUESTS_NUMBER("requestsNumber") {
+        @Override
+        public void apply(final Controller.Builder builder, final double value) {
+            builder.setRequestsNumber((int) Math.round(value));
+        }
+    };
+
+    private final String columnName;
+
+    SweepParameter(final String columnName) {
+        this.columnName = columnName;
+    }
+
+    /**
+     * @return name of the parameter in the result table, equal to the name of the builder property
+     */
+    public String getColumnName() {
+        return columnName;
+    }
+
+    public abstract void apply(final Controller.Builder builder, final double value);
+
+    /**
+     * @param columnName - name of the builder property
+     * @return parameter with the column name
+     */
+    public static SweepParameter byColumnName(final String columnName) {
+        for (final SweepParameter parameter : values()) {
+            if (parameter.columnName.equals(columnName)) {
+                return parameter;
+            }
+        }
+        throw new IllegalArgumentException("Unknown parameter: " + columnName);
+    }
+}
@@ -0,0 +1,93 @@
+package com.github.zvladn7.distributions;
+
+import com.github.zvladn7.util.RandomStream;
+
+import java.util.Arrays;
+
+/**
+ * Alias method of Walker built by Vose's algorithm: a discrete distribution over n outcomes
+ * is sampled in O(1) with one random number, whatever the weights are.
+ */
+public final class AliasTable {
+
+    private final double[] probabilities;
+    private final int[] aliases;
+
+    /**
+     * @param weights - non negative weights of outcomes, not all zero
+     */
+    public AliasTable(final double[] weights) {
+        final int n = weights.length;
+        if (n == 0) {
+            throw new IllegalArgumentException("There must be at least one outcome");
+        }
+        double total = 0;
+        for (double weight : weights) {
+            if (!(weight >= 0) || Double.isInfinite(weight)) {
+                throw new IllegalArgumentException("Invalid weight " + weight);
+            }
+            total += weight;
+        }
+        if (total == 0) {
+            throw new IllegalArgumentException("All weights are zero");
+        }
+        this.probabilities = new double[n];
+        this.aliases = new int[n];
+        final double[] scaled = new double[n];
+        final int[] small = new int[n];
+        final int[] large = new int[n];
+        int smallSize = 0;
+        int largeSize = 0;
+        for (int i = 0; i < n; ++i) {
+            scaled[i] = weights[i] * n / total;
+            if (scaled[i] < 1) {
+                small[smallSize++] = i;
+            } else {
+                large[largeSize++] = i;
+            }
+        }
+        while (smallSize > 0 && largeSize > 0) {
+            final int less = small[--smallSize];
+            final int more = large[--largeSize];
+            probabilities[less] = scaled[less];
+            aliases[less] = more;
+            scaled[more] = scaled[more] + scaled[less] - 1;
+            if (scaled[more] < 1) {
+                small[smallSize++] = more;
+            } else {
+                large[largeSize++] = more;
+            }
+        }
+        // what is left has the probability 1 up to rounding errors
+        while (largeSize > 0) {
+            final int i = large[--largeSize];
+            probabilities[i] = 1;
+            aliases[i] = i;
+        }
+        while (smallSize > 0) {
+            final int i = small[--smallSize];
+            probabilities[i] = 1;
+            aliases[i] = i;
+        }
+    }
+
+    /**
+     * @return index of the outcome
+     */
+    public int sample(final RandomStream random) {
+        final double u = random.nextDouble() * probabilities.length;
+        final int i = (int) u;
+        return u - i < probabilities[i] ? i : aliases[i];
+    }
+
+    public int size() {
+        return probabilities.length;
+    }
+
+    @Override
+    public String toString() {
+        return "AliasTable{probabilities=" + Arrays.toString(probabilities)
+                + ", aliases=" + Arrays.toString(aliases) + '}';
+    }
+
+}
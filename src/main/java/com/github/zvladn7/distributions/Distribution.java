@@ -0,0 +1,27 @@
+package com.github.zvladn7.distributions;
+
+import com.github.zvladn7.util.RandomStream;
+
+/**
+ * Distribution of inter-arrival times of sources or service times of devices.
+ * Distribution is immutable and keeps no random state, so one instance is shared by all components
+ * and runs, every component samples it with its own {@link RandomStream}.
+ */
+public interface Distribution {
+
+    double sample(RandomStream random);
+
+    /**
+     * Fill the array with consecutive samples, the values are the same as of consecutive {@link #sample} calls.
+     * @param values - destination of samples
+     * @param length - amount of samples from the start of the array
+     */
+    default void fill(final RandomStream random, final double[] values, final int length) {
+        for (int i = 0; i < length; ++i) {
+            values[i] = sample(random);
+        }
+    }
+
+    double getMean();
+
+}
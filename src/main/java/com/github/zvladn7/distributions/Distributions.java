@@ -0,0 +1,128 @@
+package com.github.zvladn7.distributions;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Text form of distributions used by scenario files and benchmarks: name and comma separated parameters,
+ * e.g. {@code exponential:2.5}. {@link Distribution#toString()} of every distribution is in this form.
+ * <ul>
+ *     <li>uniform:min,max</li>
+ *     <li>expuniform:scale - scale * e^U</li>
+ *     <li>exponential:mean</li>
+ *     <li>erlang:phases,mean</li>
+ *     <li>hyperexponential:p1,mean1,p2,mean2,...</li>
+ *     <li>lognormal:mu,sigma</li>
+ *     <li>empirical:value1,weight1,value2,weight2,...</li>
+ * </ul>
+ * Lists of distributions are separated by semicolons.
+ */
+public final class Distributions {
+
+    private Distributions() {
+
+    }
+
+    /**
+     * @param text - distribution in the text form
+     * @return parsed distribution
+     * @throws IllegalArgumentException if the text is not a valid distribution
+     */
+    public static Distribution parse(final String text) {
+        final int colon = text.indexOf(':');
+        if (colon == -1) {
+            throw new IllegalArgumentException("Distribution must be name:parameters, got " + text);
+        }
+        final String name = text.substring(0, colon).trim().toLowerCase(Locale.ROOT);
+        final double[] parameters = parseParameters(text.substring(colon + 1));
+        switch (name) {
+            case "uniform":
+                checkAmount(text, parameters, 2);
+                return new UniformDistribution(parameters[0], parameters[1]);
+            case "expuniform":
+                checkAmount(text, parameters, 1);
+                return new ExpUniformDistribution(parameters[0]);
+            case "exponential":
+                checkAmount(text, parameters, 1);
+                return new ExponentialDistribution(parameters[0]);
+            case "erlang":
+                checkAmount(text, parameters, 2);
+                if (parameters[0] != Math.rint(parameters[0])) {
+                    throw new IllegalArgumentException("Amount of phases must be integer in " + text);
+                }
+                return new ErlangDistribution((int) parameters[0], parameters[1]);
+            case "hyperexponential":
+                return new HyperexponentialDistribution(even(text, parameters), odd(text, parameters));
+            case "lognormal":
+                checkAmount(text, parameters, 2);
+                return new LognormalDistribution(parameters[0], parameters[1]);
+            case "empirical":
+                return new EmpiricalDistribution(even(text, parameters), odd(text, parameters));
+            default:
+                throw new IllegalArgumentException("Unknown distribution " + name);
+        }
+    }
+
+    /**
+     * @param text - distributions in the text form separated by semicolons
+     * @return parsed distributions in the same order
+     * @throws IllegalArgumentException if any of them is not a valid distribution
+     */
+    public static List<Distribution> parseList(final String text) {
+        final List<Distribution> distributions = new ArrayList<>();
+        for (String part : text.split(";")) {
+            distributions.add(parse(part.trim()));
+        }
+        return distributions;
+    }
+
+    private static double[] parseParameters(final String text) {
+        final String[] parts = text.split(",");
+        final double[] parameters = new double[parts.length];
+        for (int i = 0; i < parts.length; ++i) {
+            parameters[i] = Double.parseDouble(parts[i].trim());
+        }
+        return parameters;
+    }
+
+    private static void checkAmount(final String text, final double[] parameters, final int amount) {
+        if (parameters.length != amount) {
+            throw new IllegalArgumentException("Distribution " + text + " must have " + amount + " parameters");
+        }
+    }
+
+    private static double[] even(final String text, final double[] parameters) {
+        if (parameters.length % 2 != 0) {
+            throw new IllegalArgumentException("Distribution " + text + " must have pairs of parameters");
+        }
+        final double[] result = new double[parameters.length / 2];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = parameters[2 * i];
+        }
+        return result;
+    }
+
+    private static double[] odd(final String text, final double[] parameters) {
+        final double[] result = new double[parameters.length / 2];
+        for (int i = 0; i < result.length; ++i) {
+            result[i] = parameters[2 * i + 1];
+        }
+        return result;
+    }
+
+    /**
+     * @return first1,second1,first2,second2,...
+     */
+    static String pairs(final double[] first, final double[] second) {
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < first.length; ++i) {
+            if (i > 0) {
+                builder.append(',');
+            }
+            builder.append(first[i]).append(',').append(second[i]);
+        }
+        return builder.toString();
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.github.zvladn7.distributions;
+
+import com.github.zvladn7.util.RandomStream;
+
+import java.util.Arrays;
+
+/**
+ * Discrete distribution over observed values, e.g. times measured in production.
+ * Value is chosen by the {@link AliasTable}, so sampling is O(1) for any amount of values.
+ */
+public final class EmpiricalDistribution implements Distribution {
+
+    private final double[] values;
+    private final double[] weights;
+    private final AliasTable table;
+
+    /**
+     * @param values - possible values
+     * @param weights - weights of values, they are normalized
+     */
+    public EmpiricalDistribution(final double[] values, final double[] weights) {
+        if (values.length != weights.length) {
+            throw new IllegalArgumentException("Amounts of values and weights are different");
+        }
+        this.values = values.clone();
+        this.weights = weights.clone();
+        this.table = new AliasTable(weights);
+    }
+
+    /**
+     * @param samples - observed values, each one has the same weight
+     */
+    public static EmpiricalDistribution ofSamples(final double[] samples) {
+        final double[] weights = new double[samples.length];
+        Arrays.fill(weights, 1);
+        return new EmpiricalDistribution(samples, weights);
+    }
+
+    @Override
+    public double sample(final RandomStream random) {
+        return values[table.sample(random)];
+    }
+
+    @Override
+    public double getMean() {
+        double total = 0;
+        double mean = 0;
+        for (int i = 0; i < values.length; ++i) {
+            total += weights[i];
+            mean += weights[i] * values[i];
+        }
+        return mean / total;
+    }
+
+    @Override
+    public String toString() {
+        return "empirical:" + Distributions.pairs(values, weights);
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.github.zvladn7.distributions;
+
+import com.github.zvladn7.util.RandomStream;
+
+/**
+ * Erlang distribution, the sum of k exponential phases with the same mean.
+ * Phases are sampled by the {@link Ziggurat} instead of the log of the product of uniforms.
+ */
+public final class ErlangDistribution implements Distribution {
+
+    private final int phases;
+    private final double mean;
+    private final double phaseMean;
+
+    /**
+     * @param phases - amount of phases k
+     * @param mean - mean of the whole distribution
+     */
+    public ErlangDistribution(final int phases, final double mean) {
+        if (phases < 1) {
+            throw new IllegalArgumentException("There must be at least one phase: " + phases);
+        }
+        if (!(mean > 0)) {
+            throw new IllegalArgumentException("Mean must be positive: " + mean);
+        }
+        this.phases = phases;
+        this.mean = mean;
+        this.phaseMean = mean / phases;
+    }
+
+    @Override
+    public double sample(final RandomStream random) {
+        double sum = 0;
+        for (int i = 0; i < phases; ++i) {
+            sum += Ziggurat.exponential(random);
+        }
+        return phaseMean * sum;
+    }
+
+    @Override
+    public double getMean() {
+        return mean;
+    }
+
+    @Override
+    public String toString() {
+        return "erlang:" + phases + "," + mean;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.github.zvladn7.distributions;
+
+import com.github.zvladn7.util.RandomStream;
+
+/**
+ * Distribution of scale * e^U with U uniform on [0, 1), the default distribution of service times.
+ */
+public final class ExpUniformDistribution implements Distribution {
+
+    private final double scale;
+
+    public ExpUniformDistribution(final double scale) {
+        if (!(scale >= 0)) {
+            throw new IllegalArgumentException("Scale must not be negative: " + scale);
+        }
+        this.scale = scale;
+    }
+
+    @Override
+    public double sample(final RandomStream random) {
+        return scale * Math.exp(random.nextDouble());
+    }
+
+    @Override
+    public void fill(final RandomStream random, final double[] values, final int length) {
+        for (int i = 0; i < length; ++i) {
+            values[i] = random.nextDouble();
+        }
+        for (int i = 0; i < length; ++i) {
+            values[i] = scale * Math.exp(values[i]);
+        }
+    }
+
+    @Override
+    public double getMean() {
+        return scale * (Math.E - 1);
+    }
+
+    @Override
+    public String toString() {
+        return "expuniform:" + scale;
+    }
+
+}
@@ -0,0 +1,44 @@
+package com.github.zvladn7.distributions;
+
+import com.github.zvladn7.util.RandomStream;
+
+/**
+ * Exponential distribution sampled by the {@link Ziggurat}.
+ */
+public final class ExponentialDistribution implements Distribution {
+
+    private final double mean;
+
+    public ExponentialDistribution(final double mean) {
+        if (!(mean > 0)) {
+            throw new IllegalArgumentException("Mean must be positive: " + mean);
+        }
+        this.mean = mean;
+    }
+
+    @Override
+    public double sample(final RandomStream random) {
+        return mean * Ziggurat.exponential(random);
+    }
+
+    @Override
+    public void fill(final RandomStream random, final double[] values, final int length) {
+        for (int i = 0; i < length; ++i) {
+            values[i] = Ziggurat.exponential(random);
+        }
+        for (int i = 0; i < length; ++i) {
+            values[i] *= mean;
+        }
+    }
+
+    @Override
+    public double getMean() {
+        return mean;
+    }
+
+    @Override
+    public String toString() {
+        return "exponential:" + mean;
+    }
+
+}
@@ -0,0 +1,53 @@
+package com.github.zvladn7.distributions;
+
+import com.github.zvladn7.util.RandomStream;
+
+/**
+ * Mixture of exponential distributions, the phase is chosen by the {@link AliasTable}.
+ */
+public final class HyperexponentialDistribution implements Distribution {
+
+    private final double[] probabilities;
+    private final double[] means;
+    private final AliasTable phases;
+
+    /**
+     * @param probabilities - probabilities of phases, they are normalized
+     * @param means - means of exponential phases
+     */
+    public HyperexponentialDistribution(final double[] probabilities, final double[] means) {
+        if (probabilities.length != means.length) {
+            throw new IllegalArgumentException("Amounts of probabilities and means are different");
+        }
+        for (double mean : means) {
+            if (!(mean > 0)) {
+                throw new IllegalArgumentException("Mean must be positive: " + mean);
+            }
+        }
+        this.probabilities = probabilities.clone();
+        this.means = means.clone();
+        this.phases = new AliasTable(probabilities);
+    }
+
+    @Override
+    public double sample(final RandomStream random) {
+        return means[phases.sample(random)] * Ziggurat.exponential(random);
+    }
+
+    @Override
+    public double getMean() {
+        double total = 0;
+        double mean = 0;
+        for (int i = 0; i < means.length; ++i) {
+            total += probabilities[i];
+            mean += probabilities[i] * means[i];
+        }
+        return mean / total;
+    }
+
+    @Override
+    public String toString() {
+        return "hyperexponential:" + Distributions.pairs(probabilities, means);
+    }
+
+}
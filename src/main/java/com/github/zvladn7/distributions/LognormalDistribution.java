@@ -0,0 +1,41 @@
+package com.github.zvladn7.distributions;
+
+import com.github.zvladn7.util.RandomStream;
+
+/**
+ * Lognormal distribution e^(mu + sigma * Z), Z is sampled by the {@link Ziggurat}.
+ * One exp per sample is left, it is the definition of the distribution.
+ */
+public final class LognormalDistribution implements Distribution {
+
+    private final double mu;
+    private final double sigma;
+
+    /**
+     * @param mu - mean of the log of the value
+     * @param sigma - standard deviation of the log of the value
+     */
+    public LognormalDistribution(final double mu, final double sigma) {
+        if (!(sigma >= 0)) {
+            throw new IllegalArgumentException("Sigma must not be negative: " + sigma);
+        }
+        this.mu = mu;
+        this.sigma = sigma;
+    }
+
+    @Override
+    public double sample(final RandomStream random) {
+        return Math.exp(mu + sigma * Ziggurat.normal(random));
+    }
+
+    @Override
+    public double getMean() {
+        return Math.exp(mu + sigma * sigma / 2);
+    }
+
+    @Override
+    public String toString() {
+        return "lognormal:" + mu + "," + sigma;
+    }
+
+}
@@ -0,0 +1,50 @@
+package com.github.zvladn7.distributions;
+
+import com.github.zvladn7.util.RandomStream;
+
+/**
+ * Uniform distribution on [min, max), the default distribution of inter-arrival times.
+ */
+public final class UniformDistribution implements Distribution {
+
+    private final double min;
+    private final double max;
+
+    public UniformDistribution(final double min, final double max) {
+        if (!(min <= max)) {
+            throw new IllegalArgumentException("Invalid bounds of uniform distribution: " + min + ", " + max);
+        }
+        this.min = min;
+        this.max = max;
+    }
+
+    @Override
+    public double sample(final RandomStream random) {
+        return random.nextDouble() * (max - min) + min;
+    }
+
+    /**
+     * Uniforms are drawn first, then they are scaled in a loop without calls which can be vectorized.
+     */
+    @Override
+    public void fill(final RandomStream random, final double[] values, final int length) {
+        for (int i = 0; i < length; ++i) {
+            values[i] = random.nextDouble();
+        }
+        final double width = max - min;
+        for (int i = 0; i < length; ++i) {
+            values[i] = values[i] * width + min;
+        }
+    }
+
+    @Override
+    public double getMean() {
+        return (min + max) / 2;
+    }
+
+    @Override
+    public String toString() {
+        return "uniform:" + min + "," + max;
+    }
+
+}
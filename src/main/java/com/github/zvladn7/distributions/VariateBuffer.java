@@ -0,0 +1,86 @@
+package com.github.zvladn7.distributions;
+
+import com.github.zvladn7.util.RandomStream;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Variates of one component drawn in blocks by {@link Distribution#fill}, so the simulation loop only reads
+ * the next value from the array and sampling runs in tight loops apart from the buffer and device logic.
+ * Random stream belongs to this buffer only, so the values are the same as if they were sampled one by one.
+ */
+public class VariateBuffer {
+
+    public static final int MIN_BLOCK_SIZE = 16;
+    public static final int MAX_BLOCK_SIZE = 4096;
+
+    /**
+     * Variates of all components of one kind, the block is smaller when there are many components.
+     */
+    private static final int TOTAL_VARIATES = 1 << 18;
+
+    private final Distribution distribution;
+    private final RandomStream random;
+    private double[] block;
+    private int position;
+    private int limit;
+
+    /**
+     * @param blockSize - amount of values drawn at once
+     */
+    public VariateBuffer(final Distribution distribution, final RandomStream random, final int blockSize) {
+        this.distribution = distribution;
+        this.random = random;
+        this.block = new double[blockSize];
+    }
+
+    /**
+     * @return size of blocks of every component, the total memory of blocks is bounded
+     */
+    public static int blockSizeFor(final int components) {
+        return Math.max(MIN_BLOCK_SIZE, Math.min(MAX_BLOCK_SIZE, TOTAL_VARIATES / Math.max(1, components)));
+    }
+
+    public double next() {
+        if (position == limit) {
+            distribution.fill(random, block, block.length);
+            position = 0;
+            limit = block.length;
+        }
+        return block[position++];
+    }
+
+    public boolean isStateSaveable() {
+        return random.isStateSaveable();
+    }
+
+    /**
+     * Save values which are drawn but not read yet and the random stream after them.
+     */
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeInt(limit - position);
+        for (int i = position; i < limit; ++i) {
+            out.writeDouble(block[i]);
+        }
+        random.writeState(out);
+    }
+
+    public void readState(final DataInput in) throws IOException {
+        final int remaining = in.readInt();
+        if (remaining < 0) {
+            throw new IOException("Invalid amount of variates " + remaining);
+        }
+        if (remaining > block.length) {
+            block = new double[remaining];
+        }
+        for (int i = 0; i < remaining; ++i) {
+            block[i] = in.readDouble();
+        }
+        position = 0;
+        limit = remaining;
+        random.readState(in);
+    }
+
+}
@@ -0,0 +1,118 @@
+package com.github.zvladn7.distributions;
+
+import com.github.zvladn7.util.RandomStream;
+
+/**
+ * Ziggurat method of Marsaglia and Tsang for the standard exponential and normal distributions.
+ * The density is covered by 256 horizontal strips of equal area, a strip is chosen by the low 8 bits
+ * of one random long and the point in it by the high 53 bits. About 99% of samples fall into the rectangle
+ * below the density and are returned after one multiplication and one comparison,
+ * exp is computed only for points in the wedges and log only in the tail of the normal distribution.
+ */
+public final class Ziggurat {
+
+    private static final int LAYERS = 256;
+    private static final int LAYER_MASK = LAYERS - 1;
+    private static final long SIGN_BIT = 1L << 8;
+
+    private static final double EXPONENTIAL_R = 7.69711747013104972;
+    private static final double EXPONENTIAL_AREA = 3.949659822581572e-3;
+    private static final double NORMAL_R = 3.6541528853610088;
+    private static final double NORMAL_AREA = 4.92867323399e-3;
+
+    /**
+     * Right edges of strips, X[i] is the width of strip i and X[i + 1] is the width of its rectangle
+     * which is entirely below the density. Strip 0 is the base with the tail, its width is virtual.
+     */
+    private static final double[] EXPONENTIAL_X = new double[LAYERS + 1];
+    private static final double[] EXPONENTIAL_F = new double[LAYERS + 1];
+    private static final double[] NORMAL_X = new double[LAYERS + 1];
+    private static final double[] NORMAL_F = new double[LAYERS + 1];
+
+    static {
+        EXPONENTIAL_X[0] = EXPONENTIAL_AREA / Math.exp(-EXPONENTIAL_R);
+        EXPONENTIAL_X[1] = EXPONENTIAL_R;
+        for (int i = 1; i < LAYERS - 1; ++i) {
+            EXPONENTIAL_X[i + 1] = -Math.log(Math.exp(-EXPONENTIAL_X[i]) + EXPONENTIAL_AREA / EXPONENTIAL_X[i]);
+        }
+        for (int i = 0; i < LAYERS; ++i) {
+            EXPONENTIAL_F[i] = Math.exp(-EXPONENTIAL_X[i]);
+        }
+        EXPONENTIAL_F[LAYERS] = 1;
+
+        NORMAL_X[0] = NORMAL_AREA / Math.exp(-0.5 * NORMAL_R * NORMAL_R);
+        NORMAL_X[1] = NORMAL_R;
+        for (int i = 1; i < LAYERS - 1; ++i) {
+            NORMAL_X[i + 1] = Math.sqrt(-2 * Math.log(Math.exp(-0.5 * NORMAL_X[i] * NORMAL_X[i])
+                    + NORMAL_AREA / NORMAL_X[i]));
+        }
+        for (int i = 0; i < LAYERS; ++i) {
+            NORMAL_F[i] = Math.exp(-0.5 * NORMAL_X[i] * NORMAL_X[i]);
+        }
+        NORMAL_F[LAYERS] = 1;
+    }
+
+    private Ziggurat() {
+
+    }
+
+    /**
+     * @return sample of the exponential distribution with the mean 1
+     */
+    public static double exponential(final RandomStream random) {
+        double shift = 0;
+        while (true) {
+            final long bits = random.nextLong();
+            final int i = (int) (bits & LAYER_MASK);
+            final double x = ((bits >>> 11) * 0x1.0p-53) * EXPONENTIAL_X[i];
+            if (x < EXPONENTIAL_X[i + 1]) {
+                return shift + x;
+            }
+            if (i == 0) {
+                // the tail beyond R is R plus the same exponential distribution
+                shift += EXPONENTIAL_R;
+                continue;
+            }
+            final double y = EXPONENTIAL_F[i] + random.nextDouble() * (EXPONENTIAL_F[i + 1] - EXPONENTIAL_F[i]);
+            if (y < Math.exp(-x)) {
+                return shift + x;
+            }
+        }
+    }
+
+    /**
+     * @return sample of the normal distribution with the mean 0 and the standard deviation 1
+     */
+    public static double normal(final RandomStream random) {
+        while (true) {
+            final long bits = random.nextLong();
+            final int i = (int) (bits & LAYER_MASK);
+            final double sign = (bits & SIGN_BIT) == 0 ? 1 : -1;
+            final double x = ((bits >>> 11) * 0x1.0p-53) * NORMAL_X[i];
+            if (x < NORMAL_X[i + 1]) {
+                return sign * x;
+            }
+            if (i == 0) {
+                return sign * normalTail(random);
+            }
+            final double y = NORMAL_F[i] + random.nextDouble() * (NORMAL_F[i + 1] - NORMAL_F[i]);
+            if (y < Math.exp(-0.5 * x * x)) {
+                return sign * x;
+            }
+        }
+    }
+
+    /**
+     * Marsaglia's method for the normal tail beyond R.
+     */
+    private static double normalTail(final RandomStream random) {
+        while (true) {
+            final double x = -Math.log(1 - random.nextDouble()) / NORMAL_R;
+            final double y = -Math.log(1 - random.nextDouble());
+            if (2 * y >= x * x) {
+                return NORMAL_R + x;
+            }
+        }
+    }
+
+}
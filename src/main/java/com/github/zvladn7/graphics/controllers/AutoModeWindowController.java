@@ -1,38 +1,195 @@
 package com.github.zvladn7.graphics.controllers;
 
 import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.AnalyticsSnapshot;
 import com.github.zvladn7.analytics.DeviceResults;
 import com.github.zvladn7.analytics.SourceResults;
+import com.github.zvladn7.controllers.Controller;
+import com.github.zvladn7.controllers.SnapshotPublisher;
+import javafx.animation.AnimationTimer;
+import javafx.collections.ObservableList;
+import javafx.concurrent.Task;
 import javafx.fxml.FXML;
+import javafx.scene.chart.LineChart;
+import javafx.scene.chart.XYChart;
+import javafx.scene.control.Button;
+import javafx.scene.control.ProgressBar;
 import javafx.scene.control.TableView;
+import javafx.scene.text.Text;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 
+import java.util.ArrayList;
 import java.util.List;
-import java.util.function.Supplier;
+import java.util.concurrent.atomic.AtomicInteger;
 
 public class AutoModeWindowController {
 
+    private static final Logger logger = LoggerFactory.getLogger(AutoModeWindowController.class);
+
+    /**
+     * Charts show only the first sources and devices, more lines are not readable anyway.
+     */
+    private static final int MAX_SERIES = 16;
+
+    /**
+     * Every second point of the series is dropped when it gets longer, so the whole run stays visible.
+     */
+    private static final int MAX_POINTS = 1000;
+
+    private static final AtomicInteger runCounter = new AtomicInteger();
+
     @FXML
     private TableView<SourceResults> sourceTable;
 
     @FXML
     private TableView<DeviceResults> deviceTable;
 
+    @FXML
+    private LineChart<Number, Number> cancelChart;
+
+    @FXML
+    private LineChart<Number, Number> utilizationChart;
+
+    @FXML
+    private ProgressBar progressBar;
+
+    @FXML
+    private Button cancelBtn;
+
+    @FXML
+    private Text statusText;
+
+    private final List<XYChart.Series<Number, Number>> cancelSeries = new ArrayList<>();
+    private final List<XYChart.Series<Number, Number>> utilizationSeries = new ArrayList<>();
+
+    private final SnapshotPublisher publisher = SnapshotPublisher.everyMillis(SnapshotPublisher.DEFAULT_INTERVAL_MILLIS);
+    private AnalyticsSnapshot rendered;
+    private Task<Analytics> task;
+
+    /**
+     * Renders the latest snapshot once per frame, snapshots published between frames are skipped.
+     */
+    private final AnimationTimer renderer = new AnimationTimer() {
+        @Override
+        public void handle(final long now) {
+            final AnalyticsSnapshot snapshot = publisher.getLatest();
+            if (snapshot != null && snapshot != rendered) {
+                rendered = snapshot;
+                render(snapshot);
+            }
+        }
+    };
+
 
     @FXML
     void initialize() {
         sourceTable.getItems().clear();
         deviceTable.getItems().clear();
-        final Analytics analytics = SetSettingsWindowController.controller.modulateWork();
-        setTableData(sourceTable, analytics::getSourceResultsList);
-        setTableData(deviceTable, analytics::getDeviceResultsList);
     }
 
-    private static <T> void setTableData(final TableView<T> table, final Supplier<List<T>> result) {
-        final List<T> deviceResults = result.get();
-        for (final T res : deviceResults) {
-            table.getItems().add(res);
+    /**
+     * Run the simulation in the background, the window shows its progress and partial results.
+     * @param controller - controller of this window only, it is not shared with other runs
+     */
+    void start(final Controller controller) {
+        initSeries(cancelChart, cancelSeries, Math.min(MAX_SERIES, controller.getAmountOfSources()), "Источник ");
+        initSeries(utilizationChart, utilizationSeries, Math.min(MAX_SERIES, controller.getAmountOfDevices()), "Прибор ");
+        task = new SimulationTask(controller);
+        progressBar.progressProperty().bind(task.progressProperty());
+        statusText.setText("Моделирование...");
+        task.setOnSucceeded(event -> finish("Готово"));
+        task.setOnCancelled(event -> finish("Отменено"));
+        task.setOnFailed(event -> {
+            logger.error("Моделирование завершилось с ошибкой", task.getException());
+            finish("Ошибка: " + task.getException().getMessage());
+        });
+        renderer.start();
+        final Thread thread = new Thread(task, "simulation-" + runCounter.incrementAndGet());
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    @FXML
+    void cancelClick() {
+        cancel();
+    }
+
+    void cancel() {
+        publisher.stop();
+        if (task != null) {
+            task.cancel(false);
         }
     }
 
-}
+    private void finish(final String status) {
+        renderer.stop();
+        renderer.handle(System.nanoTime());
+        cancelBtn.setDisable(true);
+        statusText.setText(status);
+    }
+
+    private static void initSeries(final LineChart<Number, Number> chart,
+                                   final List<XYChart.Series<Number, Number>> seriesList,
+                                   final int amount,
+                                   final String namePrefix) {
+        for (int i = 0; i < amount; ++i) {
+            final XYChart.Series<Number, Number> series = new XYChart.Series<>();
+            series.setName(namePrefix + i);
+            seriesList.add(series);
+            chart.getData().add(series);
+        }
+    }
+
+    private void render(final AnalyticsSnapshot snapshot) {
+        sourceTable.getItems().setAll(snapshot.getSourceResults());
+        deviceTable.getItems().setAll(snapshot.getDeviceResults());
+        final double time = snapshot.getSimulatedTime();
+        for (int i = 0; i < cancelSeries.size(); ++i) {
+            addPoint(cancelSeries.get(i), time, snapshot.getSourceResults().get(i).getProbCancel());
+        }
+        for (int i = 0; i < utilizationSeries.size(); ++i) {
+            addPoint(utilizationSeries.get(i), time, snapshot.getDeviceResults().get(i).getCoefOfRealization());
+        }
+    }
+
+    private static void addPoint(final XYChart.Series<Number, Number> series, final double time, final double value) {
+        if (Double.isNaN(value) || Double.isInfinite(value)) {
+            return;
+        }
+        final ObservableList<XYChart.Data<Number, Number>> data = series.getData();
+        if (data.size() == MAX_POINTS) {
+            final List<XYChart.Data<Number, Number>> thinned = new ArrayList<>(MAX_POINTS / 2 + 1);
+            for (int i = 0; i < data.size(); i += 2) {
+                thinned.add(data.get(i));
+            }
+            data.setAll(thinned);
+        }
+        data.add(new XYChart.Data<>(time, value));
+    }
 
+    /**
+     * Run of the controller which reports its progress and publishes snapshots until the task is canceled.
+     */
+    private final class SimulationTask extends Task<Analytics> {
+
+        private final Controller controller;
+
+        private SimulationTask(final Controller controller) {
+            this.controller = controller;
+        }
+
+        @Override
+        protected Analytics call() {
+            final int requestsNumber = controller.getRequestsNumber();
+            final Analytics analytics = controller.modulateWork((currentTime, generatedRequests, partial) -> {
+                updateProgress(generatedRequests, requestsNumber);
+                return !isCancelled() && publisher.onProgress(currentTime, generatedRequests, partial);
+            });
+            publisher.publishComplete(analytics);
+            updateProgress(requestsNumber, requestsNumber);
+            return analytics;
+        }
+    }
+
+}
@@ -1,6 +1,9 @@
 package com.github.zvladn7.graphics.controllers;
 
+import com.github.zvladn7.analytics.RecordingLevel;
+import com.github.zvladn7.controllers.Controller;
 import com.github.zvladn7.graphics.GraphMain;
+import com.github.zvladn7.util.RandomStreams;
 import javafx.fxml.FXML;
 import javafx.fxml.FXMLLoader;
 import javafx.scene.Parent;
@@ -27,33 +30,73 @@ public class MainWindowController {
     @FXML
     private Button exitBtn;
 
+    /**
+     * Parameters of the next runs, every run of the auto mode gets its own copy of them.
+     */
+    private Controller settings = Controller.newBuilder()
+            .setAlpha(1)
+            .setBeta(3)
+            .setLamda(1.25)
+            .setAmountOfDevices(4)
+            .setAmountOfSources(4)
+            .setBufferSize(10)
+            .setRequestsNumber(1000)
+            .setRecordingLevel(RecordingLevel.STATS_ONLY)
+            .build();
+
 
     @FXML
     void initialize() {
-        setOnActionForButton(autoModeBtn, getPathByFileName("AutoModeWindow.fxml"));
-        setOnActionForButton(setSettingsBtn, getPathByFileName("SetSettingWindow.fxml"));
+        autoModeBtn.setOnAction(actionEvent -> openAutoModeWindow());
+        setSettingsBtn.setOnAction(actionEvent -> openSettingsWindow());
     }
 
     private static String getPathByFileName(final String fileName) {
         return GraphMain.FXML_FILE_PARENT_PATH + fileName;
     }
 
-    private static void setOnActionForButton(Button button, String path) {
-        button.setOnAction(actionEvent -> {
-
-            FXMLLoader loader = new FXMLLoader();
-            try {
-                loader.setLocation(new File(path).toURI().toURL());
-                loader.load();
-            } catch (IOException e) {
-                logger.error("Cannot load fxml file", e);
-            }
-
-            final Parent root = loader.getRoot();
-            final Stage stage = new Stage();
-            stage.setScene(new Scene(root));
-            stage.showAndWait();
-        });
+    /**
+     * Windows of the auto mode are not modal, so several runs can go at the same time.
+     */
+    private void openAutoModeWindow() {
+        final FXMLLoader loader = load(getPathByFileName("AutoModeWindow.fxml"));
+        if (loader == null) {
+            return;
+        }
+        final AutoModeWindowController autoModeController = loader.getController();
+        final Stage stage = createStage(loader);
+        stage.setOnHidden(windowEvent -> autoModeController.cancel());
+        stage.show();
+        autoModeController.start(settings.toBuilder().setSeed(RandomStreams.randomSeed()).build());
+    }
+
+    private void openSettingsWindow() {
+        final FXMLLoader loader = load(getPathByFileName("SetSettingWindow.fxml"));
+        if (loader == null) {
+            return;
+        }
+        final SetSettingsWindowController settingsController = loader.getController();
+        settingsController.setSettings(settings, newSettings -> settings = newSettings);
+        createStage(loader).showAndWait();
+    }
+
+    private static FXMLLoader load(final String path) {
+        final FXMLLoader loader = new FXMLLoader();
+        try {
+            loader.setLocation(new File(path).toURI().toURL());
+            loader.load();
+            return loader;
+        } catch (IOException e) {
+            logger.error("Cannot load fxml file", e);
+            return null;
+        }
+    }
+
+    private static Stage createStage(final FXMLLoader loader) {
+        final Parent root = loader.getRoot();
+        final Stage stage = new Stage();
+        stage.setScene(new Scene(root));
+        return stage;
     }
 
     @FXML
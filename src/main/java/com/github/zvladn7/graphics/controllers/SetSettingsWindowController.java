@@ -1,5 +1,6 @@
 package com.github.zvladn7.graphics.controllers;
 
+import com.github.zvladn7.analytics.RecordingLevel;
 import com.github.zvladn7.controllers.Controller;
 import javafx.fxml.FXML;
 import javafx.scene.control.Alert;
@@ -10,19 +11,13 @@ import javafx.stage.Stage;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
+import java.util.function.Consumer;
+
 public class SetSettingsWindowController {
 
     private static final Logger logger = LoggerFactory.getLogger(SetSettingsWindowController.class);
 
-    static Controller controller = Controller.newBuilder()
-            .setAlpha(1)
-            .setBeta(3)
-            .setLamda(1.25)
-            .setAmountOfDevices(4)
-            .setAmountOfSources(4)
-            .setBufferSize(10)
-            .setRequestsNumber(1000)
-            .build();
+    private Consumer<Controller> onSet;
 
     @FXML
     private Button setBtn;
@@ -48,8 +43,12 @@ public class SetSettingsWindowController {
     @FXML
     private TextField requestNumValue;
 
-    @FXML
-    void initialize() {
+    /**
+     * @param controller - current parameters shown in the window
+     * @param onSet - receiver of the new parameters
+     */
+    void setSettings(final Controller controller, final Consumer<Controller> onSet) {
+        this.onSet = onSet;
         alphaValue.setText(String.valueOf(controller.getAlpha()));
         betaValue.setText(String.valueOf(controller.getBeta()));
         sourcesNumValue.setText(String.valueOf(controller.getAmountOfSources()));
@@ -70,7 +69,7 @@ public class SetSettingsWindowController {
         final String requestsNum = requestNumValue.getText();
 
         try {
-            controller = Controller.newBuilder()
+            final Controller controller = Controller.newBuilder()
                     .setAlpha(validateDoubleAndGet(alpha))
                     .setBeta(validateDoubleAndGet(beta))
                     .setLamda(validateDoubleAndGet(lamda))
@@ -78,9 +77,12 @@ public class SetSettingsWindowController {
                     .setAmountOfSources(validateIntAndGet(sourcesNum))
                     .setBufferSize(validateIntAndGet(bufSize))
                     .setRequestsNumber(validateIntAndGet(requestsNum))
+                    .setRecordingLevel(RecordingLevel.STATS_ONLY)
                     .build();
+            onSet.accept(controller);
         } catch (IllegalArgumentException ex) {
             logger.error("Невозможно установить параметры", ex);
+            return;
         }
 
         showAlert("Parameters setting",
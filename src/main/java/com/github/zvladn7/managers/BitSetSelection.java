@@ -0,0 +1,84 @@
+package com.github.zvladn7.managers;
+
+import com.github.zvladn7.util.HierarchicalBitSet;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Free devices are bits of the hierarchical bit set, the device is the first free one on the ring
+ * starting from the device after the last chosen one, or the first free one by number.
+ */
+class BitSetSelection implements DeviceSelectionPolicy {
+
+    /**
+     * Bit i is set if device i is free.
+     */
+    private final HierarchicalBitSet freeDevices;
+    private final boolean ring;
+
+    /**
+     * Current index on the devices ring.
+     */
+    private int circleIndex;
+
+    BitSetSelection(final int amountOfDevices, final boolean ring) {
+        this.freeDevices = new HierarchicalBitSet(amountOfDevices);
+        this.ring = ring;
+        for (int i = 0; i < amountOfDevices; ++i) {
+            freeDevices.set(i);
+        }
+    }
+
+    @Override
+    public int selectFree() {
+        int deviceIndex = freeDevices.nextSetBit(ring ? circleIndex : 0);
+        if (deviceIndex == -1 && ring) {
+            deviceIndex = freeDevices.nextSetBit(0);
+        }
+        if (deviceIndex == -1) {
+            throw new IllegalStateException("There is no free devices on invocation");
+        }
+        circleIndex = deviceIndex + 1;
+        freeDevices.clear(deviceIndex);
+        return deviceIndex;
+    }
+
+    @Override
+    public void release(final int deviceNumber, final double timeOfWork) {
+        freeDevices.set(deviceNumber);
+    }
+
+    @Override
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeInt(circleIndex);
+        writeSetBits(out, freeDevices);
+    }
+
+    @Override
+    public void readState(final DataInput in) throws IOException {
+        circleIndex = in.readInt();
+        readSetBits(in, freeDevices);
+    }
+
+    static void writeSetBits(final DataOutput out, final HierarchicalBitSet bits) throws IOException {
+        out.writeInt(bits.cardinality());
+        for (int i = bits.nextSetBit(0); i != -1; i = bits.nextSetBit(i + 1)) {
+            out.writeInt(i);
+        }
+    }
+
+    static void readSetBits(final DataInput in, final HierarchicalBitSet bits) throws IOException {
+        bits.clear();
+        final int amount = in.readInt();
+        for (int i = 0; i < amount; ++i) {
+            final int index = in.readInt();
+            if (index < 0 || index >= bits.size()) {
+                throw new IOException("Invalid device " + index);
+            }
+            bits.set(index);
+        }
+    }
+
+}
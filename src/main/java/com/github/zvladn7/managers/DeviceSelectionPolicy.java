@@ -0,0 +1,38 @@
+package com.github.zvladn7.managers;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Rule of the choice of a free device for the request taken from the buffer.
+ * Every policy keeps its own index of free devices, so the choice is sublinear in the amount of devices.
+ * All devices are free after the creation of the policy.
+ */
+public interface DeviceSelectionPolicy {
+
+    /**
+     * Take the free device for the next request, there must be at least one free device.
+     * @return number of the device which is not free anymore
+     */
+    int selectFree();
+
+    /**
+     * Return the device which has finished its request.
+     * @param deviceNumber - number of the released device
+     * @param timeOfWork - time of execution of the finished request
+     */
+    void release(int deviceNumber, double timeOfWork);
+
+    /**
+     * Save the index of free devices and the state of the rule.
+     */
+    void writeState(DataOutput out) throws IOException;
+
+    void readState(DataInput in) throws IOException;
+
+    default boolean isStateSaveable() {
+        return true;
+    }
+
+}
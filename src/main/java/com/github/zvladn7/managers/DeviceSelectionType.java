@@ -0,0 +1,61 @@
+package com.github.zvladn7.managers;
+
+import com.github.zvladn7.distributions.Distribution;
+import com.github.zvladn7.util.RandomStreams;
+
+/**
+ * Rules of the choice of a free device.
+ */
+public enum DeviceSelectionType {
+    /**
+     * The first free device on the ring starting from the device after the last chosen one.
+     */
+    RING {
+        @Override
+        public DeviceSelectionPolicy create(final Distribution[] serviceTimes, final RandomStreams randomStreams) {
+            return new BitSetSelection(serviceTimes.length, true);
+        }
+    },
+    /**
+     * The free device with the least number.
+     */
+    FIRST_FREE {
+        @Override
+        public DeviceSelectionPolicy create(final Distribution[] serviceTimes, final RandomStreams randomStreams) {
+            return new BitSetSelection(serviceTimes.length, false);
+        }
+    },
+    /**
+     * The free device with the least cumulative busy time.
+     */
+    LEAST_USED {
+        @Override
+        public DeviceSelectionPolicy create(final Distribution[] serviceTimes, final RandomStreams randomStreams) {
+            return new LeastUsedSelection(serviceTimes.length);
+        }
+    },
+    /**
+     * The free device chosen uniformly at random.
+     */
+    RANDOM_FREE {
+        @Override
+        public DeviceSelectionPolicy create(final Distribution[] serviceTimes, final RandomStreams randomStreams) {
+            return new RandomFreeSelection(serviceTimes.length, randomStreams.selectionStream());
+        }
+    },
+    /**
+     * The free device with the least mean service time.
+     */
+    FASTEST_FIRST {
+        @Override
+        public DeviceSelectionPolicy create(final Distribution[] serviceTimes, final RandomStreams randomStreams) {
+            return new FastestFirstSelection(serviceTimes);
+        }
+    };
+
+    /**
+     * @param serviceTimes - distributions of the service time of every device
+     * @param randomStreams - streams of the run, only the selection stream may be used
+     */
+    public abstract DeviceSelectionPolicy create(final Distribution[] serviceTimes, final RandomStreams randomStreams);
+}
@@ -0,0 +1,112 @@
+package com.github.zvladn7.managers;
+
+import com.github.zvladn7.util.IndexedMinHeap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Calendar of future events keyed by absolute time of the event.
+ * Every source has at most one pending arrival and every device has at most one pending completion,
+ * so arrivals and completions are kept in two indexed heaps and the nearest event is the earlier of their heads.
+ * Events at the same time are ordered: arrivals by source number first, then completions by device number.
+ */
+public class EventCalendar {
+
+    private final IndexedMinHeap arrivals;
+    private final IndexedMinHeap completions;
+    private final int amountOfSources;
+    private final int amountOfDevices;
+
+    public EventCalendar(final int amountOfSources, final int amountOfDevices) {
+        this.amountOfSources = amountOfSources;
+        this.amountOfDevices = amountOfDevices;
+        this.arrivals = new IndexedMinHeap(amountOfSources);
+        this.completions = new IndexedMinHeap(amountOfDevices);
+    }
+
+    public void scheduleArrival(final int sourceNumber, final double time) {
+        arrivals.put(sourceNumber, time);
+    }
+
+    public void scheduleCompletion(final int deviceNumber, final double time) {
+        completions.put(deviceNumber, time);
+    }
+
+    public boolean isEmpty() {
+        return arrivals.isEmpty() && completions.isEmpty();
+    }
+
+    /**
+     * @return time of the nearest event, calendar must not be empty
+     */
+    public double getNextTime() {
+        return isArrivalNext() ? arrivals.peekKey() : completions.peekKey();
+    }
+
+    /**
+     * Remove the nearest event from the calendar.
+     * @return event id which should be decoded with {@link #isArrival(int)},
+     * {@link #getSourceNumber(int)} and {@link #getDeviceNumber(int)}
+     */
+    public int pollNext() {
+        return isArrivalNext() ? arrivals.poll() : amountOfSources + completions.poll();
+    }
+
+    /**
+     * Save pending events, events with equal times are ordered by number,
+     * so the restored calendar gives events in the same order.
+     */
+    public void writeState(final DataOutput out) throws IOException {
+        writeHeap(out, arrivals, amountOfSources);
+        writeHeap(out, completions, amountOfDevices);
+    }
+
+    public void readState(final DataInput in) throws IOException {
+        readHeap(in, arrivals, amountOfSources);
+        readHeap(in, completions, amountOfDevices);
+    }
+
+    private static void writeHeap(final DataOutput out, final IndexedMinHeap heap, final int capacity) throws IOException {
+        out.writeInt(heap.size());
+        for (int i = 0; i < capacity; ++i) {
+            if (heap.contains(i)) {
+                out.writeInt(i);
+                out.writeDouble(heap.getKey(i));
+            }
+        }
+    }
+
+    private static void readHeap(final DataInput in, final IndexedMinHeap heap, final int capacity) throws IOException {
+        heap.clear();
+        final int amount = in.readInt();
+        for (int i = 0; i < amount; ++i) {
+            final int id = in.readInt();
+            if (id < 0 || id >= capacity) {
+                throw new IOException("Invalid event number " + id);
+            }
+            heap.put(id, in.readDouble());
+        }
+    }
+
+    public boolean isArrival(final int event) {
+        return event < amountOfSources;
+    }
+
+    public int getSourceNumber(final int event) {
+        return event;
+    }
+
+    public int getDeviceNumber(final int event) {
+        return event - amountOfSources;
+    }
+
+    private boolean isArrivalNext() {
+        if (completions.isEmpty()) {
+            return true;
+        }
+        return !arrivals.isEmpty() && arrivals.peekKey() <= completions.peekKey();
+    }
+
+}
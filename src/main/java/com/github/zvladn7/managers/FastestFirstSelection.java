@@ -0,0 +1,68 @@
+package com.github.zvladn7.managers;
+
+import com.github.zvladn7.distributions.Distribution;
+import com.github.zvladn7.util.HierarchicalBitSet;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * The free device with the least mean service time, devices with equal means are chosen by number.
+ * Devices are ranked once by the mean, free ranks are bits of the hierarchical bit set.
+ */
+class FastestFirstSelection implements DeviceSelectionPolicy {
+
+    private final int[] deviceOfRank;
+    private final int[] rankOfDevice;
+
+    /**
+     * Bit r is set if the device of rank r is free.
+     */
+    private final HierarchicalBitSet freeRanks;
+
+    FastestFirstSelection(final Distribution[] serviceTimes) {
+        final Integer[] order = new Integer[serviceTimes.length];
+        for (int i = 0; i < order.length; ++i) {
+            order[i] = i;
+        }
+        Arrays.sort(order, Comparator.comparingDouble((Integer device) -> serviceTimes[device].getMean())
+                .thenComparingInt(device -> device));
+        this.deviceOfRank = new int[order.length];
+        this.rankOfDevice = new int[order.length];
+        this.freeRanks = new HierarchicalBitSet(order.length);
+        for (int rank = 0; rank < order.length; ++rank) {
+            deviceOfRank[rank] = order[rank];
+            rankOfDevice[order[rank]] = rank;
+            freeRanks.set(rank);
+        }
+    }
+
+    @Override
+    public int selectFree() {
+        final int rank = freeRanks.nextSetBit(0);
+        if (rank == -1) {
+            throw new IllegalStateException("There is no free devices on invocation");
+        }
+        freeRanks.clear(rank);
+        return deviceOfRank[rank];
+    }
+
+    @Override
+    public void release(final int deviceNumber, final double timeOfWork) {
+        freeRanks.set(rankOfDevice[deviceNumber]);
+    }
+
+    @Override
+    public void writeState(final DataOutput out) throws IOException {
+        BitSetSelection.writeSetBits(out, freeRanks);
+    }
+
+    @Override
+    public void readState(final DataInput in) throws IOException {
+        BitSetSelection.readSetBits(in, freeRanks);
+    }
+
+}
@@ -0,0 +1,59 @@
+package com.github.zvladn7.managers;
+
+import com.github.zvladn7.util.IndexedMinHeap;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The free device with the least cumulative busy time, devices with equal times are chosen by number.
+ * Free devices are kept in the heap keyed by the busy time, it is updated when the device is released.
+ */
+class LeastUsedSelection implements DeviceSelectionPolicy {
+
+    private final double[] busyTime;
+    private final IndexedMinHeap freeDevices;
+
+    LeastUsedSelection(final int amountOfDevices) {
+        this.busyTime = new double[amountOfDevices];
+        this.freeDevices = new IndexedMinHeap(amountOfDevices);
+        for (int i = 0; i < amountOfDevices; ++i) {
+            freeDevices.put(i, 0);
+        }
+    }
+
+    @Override
+    public int selectFree() {
+        if (freeDevices.isEmpty()) {
+            throw new IllegalStateException("There is no free devices on invocation");
+        }
+        return freeDevices.poll();
+    }
+
+    @Override
+    public void release(final int deviceNumber, final double timeOfWork) {
+        busyTime[deviceNumber] += timeOfWork;
+        freeDevices.put(deviceNumber, busyTime[deviceNumber]);
+    }
+
+    @Override
+    public void writeState(final DataOutput out) throws IOException {
+        for (int i = 0; i < busyTime.length; ++i) {
+            out.writeDouble(busyTime[i]);
+            out.writeBoolean(freeDevices.contains(i));
+        }
+    }
+
+    @Override
+    public void readState(final DataInput in) throws IOException {
+        freeDevices.clear();
+        for (int i = 0; i < busyTime.length; ++i) {
+            busyTime[i] = in.readDouble();
+            if (in.readBoolean()) {
+                freeDevices.put(i, busyTime[i]);
+            }
+        }
+    }
+
+}
@@ -1,82 +1,76 @@
 package com.github.zvladn7.managers;
 
-import com.github.zvladn7.util.Pair;
-import com.github.zvladn7.components.Request;
+import com.github.zvladn7.components.RequestPool;
 import com.github.zvladn7.components.Source;
+import com.github.zvladn7.distributions.Distribution;
+import com.github.zvladn7.distributions.VariateBuffer;
+import com.github.zvladn7.util.RandomStreams;
 
-import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.List;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 
 public class ProductionManager {
 
     private final Source[] sources;
-    private final Request[] sourcesRequests;
-    private final double[] timesToWait;
+    private final EventCalendar calendar;
+    private final RequestPool pool;
 
     public ProductionManager(final int amountOfSources,
-                             final double alpha,
-                             final double beta) {
+                             final Distribution interArrivalTime,
+                             final EventCalendar calendar,
+                             final RequestPool pool,
+                             final RandomStreams randomStreams) {
         this.sources = new Source[amountOfSources];
-        this.sourcesRequests = new Request[amountOfSources];
-        this.timesToWait = new double[amountOfSources];
-        initSources(alpha, beta);
+        this.calendar = calendar;
+        this.pool = pool;
+        initSources(interArrivalTime, randomStreams);
     }
 
-    private void initSources(final double alpha, final double beta) {
+    private void initSources(final Distribution interArrivalTime, final RandomStreams randomStreams) {
+        final int blockSize = VariateBuffer.blockSizeFor(sources.length);
         for (int i = 0; i < sources.length; ++i) {
-            sources[i] = new Source(i, alpha, beta);
+            sources[i] = new Source(i, new VariateBuffer(interArrivalTime, randomStreams.sourceStream(i), blockSize));
+            calendar.scheduleArrival(i, 0);
         }
     }
 
-    public Pair<Double, List<Request>> getNextRequest(final double currentTime) {
-        generateRequestsIfNeed(currentTime);
-        final int minTimeIndex = getMinTimeIndex();
-        final double minWaitTime = timesToWait[minTimeIndex];
-        declineWaitTime(minTimeIndex);
-        final List<Request> generatedRequests = getGeneratedRequests(currentTime);
-        return new Pair<>(minWaitTime, generatedRequests);
-    }
-
-    private List<Request> getGeneratedRequests(final double currentTime) {
-        final List<Request> ready = new ArrayList<>();
-        for (int i = 0; i < sourcesRequests.length; i++) {
-            if (sourcesRequests[i] != null && sourcesRequests[i].getInitialTime() <= currentTime) {
-                ready.add(sourcesRequests[i]);
-                sourcesRequests[i] = null;
+    public boolean isStateSaveable() {
+        for (Source source : sources) {
+            if (!source.isStateSaveable()) {
+                return false;
             }
         }
-        ready.sort(Comparator.comparing(Request::getSourceNumber));
-        return ready;
+        return true;
     }
 
-    private void declineWaitTime(final int minTimeIndex) {
-        final double waitTime = timesToWait[minTimeIndex];
-        for (int i = 0; i < sources.length; ++i) {
-            timesToWait[i] -= waitTime;
+    /**
+     * Save numbers of the next requests and drawn times of sources, arrival times are kept by the calendar.
+     */
+    public void writeState(final DataOutput out) throws IOException {
+        for (Source source : sources) {
+            source.writeState(out);
         }
     }
 
-    private int getMinTimeIndex() {
-        int minIndex = 0;
-        for (int i = 1; i < sources.length; ++i) {
-            if (timesToWait[i] < timesToWait[minIndex]) {
-                minIndex = i;
-            }
+    public void readState(final DataInput in) throws IOException {
+        for (Source source : sources) {
+            source.readState(in);
         }
-        return minIndex;
     }
 
-    private void generateRequestsIfNeed(final double currentTime) {
-        for (int i = 0; i < sources.length; ++i) {
-            if (timesToWait[i] <= 0) {
-                final Pair<Double, Request> generatedRequest = sources[i].generate(currentTime);
-                final double timeToWait = generatedRequest.key;
-                final Request newRequest = generatedRequest.value;
-                sourcesRequests[i] = newRequest;
-                timesToWait[i] = timeToWait;
-            }
-        }
+    /**
+     * Generate request of the source which arrival event has come
+     * and schedule the next arrival of this source.
+     * @param sourceNumber - number of the source from the arrival event
+     * @param currentTime - time of the arrival event
+     * @return handle of the generated request in the pool
+     */
+    public int generate(final int sourceNumber, final double currentTime) {
+        final Source source = sources[sourceNumber];
+        final double timeToWait = source.getNextRequestTime();
+        calendar.scheduleArrival(sourceNumber, currentTime + timeToWait);
+        return source.generate(pool, currentTime);
     }
 
 }
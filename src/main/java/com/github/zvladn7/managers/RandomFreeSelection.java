@@ -0,0 +1,87 @@
+package com.github.zvladn7.managers;
+
+import com.github.zvladn7.util.RandomStream;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * The device chosen uniformly at random among the free ones.
+ * Free devices are the dense prefix of the array, the chosen one is replaced by the last free device.
+ */
+class RandomFreeSelection implements DeviceSelectionPolicy {
+
+    private final RandomStream random;
+    private final int[] freeDevices;
+    private final int[] positions;
+    private int freeAmount;
+
+    /**
+     * @param random - random stream of the selection only
+     */
+    RandomFreeSelection(final int amountOfDevices, final RandomStream random) {
+        this.random = random;
+        this.freeDevices = new int[amountOfDevices];
+        this.positions = new int[amountOfDevices];
+        for (int i = 0; i < amountOfDevices; ++i) {
+            freeDevices[i] = i;
+            positions[i] = i;
+        }
+        this.freeAmount = amountOfDevices;
+    }
+
+    @Override
+    public int selectFree() {
+        if (freeAmount == 0) {
+            throw new IllegalStateException("There is no free devices on invocation");
+        }
+        final int position = Math.min(freeAmount - 1, (int) (random.nextDouble() * freeAmount));
+        final int device = freeDevices[position];
+        final int last = freeDevices[--freeAmount];
+        freeDevices[position] = last;
+        positions[last] = position;
+        return device;
+    }
+
+    @Override
+    public void release(final int deviceNumber, final double timeOfWork) {
+        freeDevices[freeAmount] = deviceNumber;
+        positions[deviceNumber] = freeAmount++;
+    }
+
+    @Override
+    public boolean isStateSaveable() {
+        return random.isStateSaveable();
+    }
+
+    /**
+     * Order of free devices is saved too, the next choice depends on it.
+     */
+    @Override
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeInt(freeAmount);
+        for (int i = 0; i < freeAmount; ++i) {
+            out.writeInt(freeDevices[i]);
+        }
+        random.writeState(out);
+    }
+
+    @Override
+    public void readState(final DataInput in) throws IOException {
+        freeAmount = in.readInt();
+        if (freeAmount < 0 || freeAmount > freeDevices.length) {
+            throw new IOException("Invalid amount of free devices " + freeAmount);
+        }
+        for (int i = 0; i < freeAmount; ++i) {
+            final int device = in.readInt();
+            if (device < 0 || device >= positions.length) {
+                throw new IOException("Invalid device " + device);
+            }
+            freeDevices[i] = device;
+            positions[device] = i;
+        }
+        random.readState(in);
+    }
+
+}
@@ -1,39 +1,63 @@
 package com.github.zvladn7.managers;
 
 import com.github.zvladn7.components.Device;
-import com.github.zvladn7.components.Request;
+import com.github.zvladn7.distributions.Distribution;
+import com.github.zvladn7.distributions.VariateBuffer;
+import com.github.zvladn7.util.RandomStreams;
 
-import java.util.ArrayList;
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
 import java.util.Arrays;
-import java.util.List;
 
 public class SelectionManager {
 
     public static final int UNSET_PACKAGE_NUMBER_VALUE = -1;
 
     private final Device[] devices;
+    private final EventCalendar calendar;
+
+    private final DeviceSelectionPolicy selectionPolicy;
+    private int freeAmount;
 
     /**
      * Current package for execution on device.
      */
     private int packageNumber;
 
+    public SelectionManager(final int amountOfDevices,
+                            final Distribution serviceTime,
+                            final EventCalendar calendar,
+                            final RandomStreams randomStreams) {
+        this(sameServiceTimes(amountOfDevices, serviceTime), DeviceSelectionType.RING, calendar, randomStreams);
+    }
+
     /**
-     * Current index on the devices ring.
-     * This is needed cause of discipline of selection requests from buffer.
+     * @param serviceTimes - distribution of the service time of every device
+     * @param selectionType - rule of the choice of a free device
      */
-    private int circleIndex;
-
-    public SelectionManager(final int amountOfDevices, final double lamda) {
-        this.devices = new Device[amountOfDevices];
-        this.circleIndex = 0;
+    public SelectionManager(final Distribution[] serviceTimes,
+                            final DeviceSelectionType selectionType,
+                            final EventCalendar calendar,
+                            final RandomStreams randomStreams) {
+        this.devices = new Device[serviceTimes.length];
+        this.calendar = calendar;
+        this.selectionPolicy = selectionType.create(serviceTimes, randomStreams);
+        this.freeAmount = serviceTimes.length;
         this.packageNumber = UNSET_PACKAGE_NUMBER_VALUE;
-        initDevices(lamda);
+        initDevices(serviceTimes, randomStreams);
     }
 
-    private void initDevices(final double lamda) {
+    private static Distribution[] sameServiceTimes(final int amountOfDevices, final Distribution serviceTime) {
+        final Distribution[] serviceTimes = new Distribution[amountOfDevices];
+        Arrays.fill(serviceTimes, serviceTime);
+        return serviceTimes;
+    }
+
+    private void initDevices(final Distribution[] serviceTimes, final RandomStreams randomStreams) {
+        final int blockSize = VariateBuffer.blockSizeFor(devices.length);
         for (int i = 0; i < devices.length; ++i) {
-            devices[i] = new Device(i, lamda);
+            devices[i] = new Device(i, new VariateBuffer(serviceTimes[i], randomStreams.deviceStream(i), blockSize));
         }
     }
 
@@ -47,69 +71,75 @@ public class SelectionManager {
 
 
     public boolean isAnyDeviceFree() {
-        for (final Device device : devices) {
-            if (device.isFree()) {
-                return true;
-            }
-        }
-        return false;
+        return freeAmount != 0;
     }
 
-    public int executeRequest(final Request request, final double time) {
-        final int freeDeviceIndex = getFreeDeviceIndex(time);
-        devices[freeDeviceIndex].execute(request, time);
-        return freeDeviceIndex;
+    public int getBusyDevicesAmount() {
+        return devices.length - freeAmount;
     }
 
-    private int getFreeDeviceIndex(final double time) {
-        int deviceIndex = circleIndex;
-        do {
-            if (deviceIndex >= devices.length) {
-                deviceIndex = 0;
-            }
-            if (devices[deviceIndex].isFree() && (devices[deviceIndex].getDoneTime() <= time + 0.0000001)) {
-                circleIndex = deviceIndex + 1;
-                return deviceIndex;
-            }
-            ++deviceIndex;
-        } while (deviceIndex != circleIndex);
+    public int executeRequest(final int request, final double time) {
+        final int freeDeviceIndex = selectionPolicy.selectFree();
+        final Device device = devices[freeDeviceIndex];
+        device.execute(request, time);
+        freeAmount--;
+        calendar.scheduleCompletion(freeDeviceIndex, device.getDoneTime());
+        return freeDeviceIndex;
+    }
 
-        throw new IllegalStateException("There is no free devices on invocation");
+    /**
+     * Free the device which completion event has come.
+     * @param deviceNumber - number of the device from the completion event
+     * @param listener - listener which is notified about the done request
+     */
+    public void releaseDevice(final int deviceNumber, final DoneListener listener) {
+        final Device device = devices[deviceNumber];
+        final int doneRequest = device.getDoneRequest();
+        final double startTime = device.getStartTime();
+        final double doneTime = device.getDoneTime();
+        device.clearAfterDoneProcessing();
+        selectionPolicy.release(deviceNumber, doneTime - startTime);
+        freeAmount++;
+        listener.onDone(deviceNumber, doneRequest, doneTime, doneTime - startTime);
     }
 
-    public List<DoneInfo> getDoneRequestsWithDevices(final double currentTime) {
-        final List<DoneInfo> doneList = new ArrayList<>();
-        Arrays.stream(devices)
-                .filter(device -> device.getDoneTime() < currentTime)
-                .forEach(device -> {
-                    final double startTime = device.getStartTime();
-                    final double doneTime = device.getDoneTime();
-                    final double timeOnDevice = doneTime - startTime;
-                    doneList.add(new DoneInfo(device.getNumber(), device.getDoneRequest(), doneTime, timeOnDevice));
-                    device.clearAfterDoneProcessing();
-                });
-        return doneList;
+    public boolean isStateSaveable() {
+        for (Device device : devices) {
+            if (!device.isStateSaveable()) {
+                return false;
+            }
+        }
+        return selectionPolicy.isStateSaveable();
     }
 
-    public class DoneInfo {
-        public int deviceNumber;
-        public Request doneRequest;
-        public double doneTime;
-        public double timeOfWork;
-
-        public DoneInfo(final int deviceNumber,
-                        final Request doneRequest,
-                        final double doneTime,
-                        final double timeOfWork) {
-            this.deviceNumber = deviceNumber;
-            this.doneRequest = doneRequest;
-            this.doneTime = doneTime;
-            this.timeOfWork = timeOfWork;
+    /**
+     * Save the package, the devices and the selection policy, completion times are kept by the calendar too.
+     */
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeInt(packageNumber);
+        for (Device device : devices) {
+            device.writeState(out);
         }
+        selectionPolicy.writeState(out);
+    }
 
-        public double getDoneTime() {
-            return doneTime;
+    public void readState(final DataInput in) throws IOException {
+        packageNumber = in.readInt();
+        freeAmount = 0;
+        for (Device device : devices) {
+            device.readState(in);
+            if (device.isFree()) {
+                freeAmount++;
+            }
         }
+        selectionPolicy.readState(in);
+    }
+
+    /**
+     * Callback for the requests which have finished execution on devices.
+     */
+    public interface DoneListener {
+        void onDone(int deviceNumber, int doneRequest, double doneTime, double timeOfWork);
     }
 
 }
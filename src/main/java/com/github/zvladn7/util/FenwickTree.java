@@ -0,0 +1,54 @@
+package com.github.zvladn7.util;
+
+/**
+ * Binary indexed tree of int counters with O(log n) update and prefix sum.
+ */
+public class FenwickTree {
+
+    private final int[] tree;
+
+    public FenwickTree(final int size) {
+        this.tree = new int[size + 1];
+    }
+
+    public int size() {
+        return tree.length - 1;
+    }
+
+    public void add(final int index, final int delta) {
+        for (int i = index + 1; i < tree.length; i += i & -i) {
+            tree[i] += delta;
+        }
+    }
+
+    /**
+     * Sum of values on positions [0, index).
+     * @param index - exclusive upper bound
+     * @return prefix sum
+     */
+    public int prefixSum(final int index) {
+        int sum = 0;
+        for (int i = index; i > 0; i -= i & -i) {
+            sum += tree[i];
+        }
+        return sum;
+    }
+
+    /**
+     * Rebuild the tree so that positions [0, amount) hold one and the rest hold zero.
+     * Works in O(n) instead of n separate updates.
+     * @param amount - number of leading ones
+     */
+    public void resetToLeadingOnes(final int amount) {
+        for (int i = 1; i < tree.length; ++i) {
+            tree[i] = i <= amount ? 1 : 0;
+        }
+        for (int i = 1; i < tree.length; ++i) {
+            final int parent = i + (i & -i);
+            if (parent < tree.length) {
+                tree[parent] += tree[i];
+            }
+        }
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.github.zvladn7.util;
+
+import java.util.Arrays;
+
+/**
+ * Fixed-size bit set with a summary level for every 64 words below it.
+ * Lookups of the next or previous set bit touch one word per level,
+ * so they stay practically constant even for millions of bits.
+ */
+public class HierarchicalBitSet {
+
+    private static final int WORD_SHIFT = 6;
+    private static final int WORD_MASK = 63;
+
+    /**
+     * levels[0] - bits themselves, levels[i + 1] - bit j is set if levels[i][j] != 0.
+     * The last level always consists of a single word.
+     */
+    private final long[][] levels;
+    private final int size;
+    private int cardinality;
+
+    public HierarchicalBitSet(final int size) {
+        this.size = size;
+        int levelsAmount = 1;
+        int words = wordsFor(size);
+        while (words > 1) {
+            words = wordsFor(words);
+            levelsAmount++;
+        }
+        levels = new long[levelsAmount][];
+        int bits = size;
+        for (int i = 0; i < levelsAmount; ++i) {
+            levels[i] = new long[Math.max(1, wordsFor(bits))];
+            bits = levels[i].length;
+        }
+    }
+
+    private static int wordsFor(final int bits) {
+        return (bits + WORD_MASK) >>> WORD_SHIFT;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int cardinality() {
+        return cardinality;
+    }
+
+    public boolean isEmpty() {
+        return cardinality == 0;
+    }
+
+    public boolean get(final int index) {
+        return (levels[0][index >>> WORD_SHIFT] & (1L << index)) != 0;
+    }
+
+    public void set(final int index) {
+        if (get(index)) {
+            return;
+        }
+        cardinality++;
+        int bit = index;
+        for (final long[] level : levels) {
+            final int word = bit >>> WORD_SHIFT;
+            final boolean wasEmpty = level[word] == 0;
+            level[word] |= 1L << bit;
+            if (!wasEmpty) {
+                return;
+            }
+            bit = word;
+        }
+    }
+
+    public void clear(final int index) {
+        if (!get(index)) {
+            return;
+        }
+        cardinality--;
+        int bit = index;
+        for (final long[] level : levels) {
+            final int word = bit >>> WORD_SHIFT;
+            level[word] &= ~(1L << bit);
+            if (level[word] != 0) {
+                return;
+            }
+            bit = word;
+        }
+    }
+
+    public void clear() {
+        for (final long[] level : levels) {
+            Arrays.fill(level, 0L);
+        }
+        cardinality = 0;
+    }
+
+    /**
+     * Return the index of the first set bit that is greater or equal to from.
+     * @param from - index to start search from
+     * @return index of the set bit or -1 if there is no such bit
+     */
+    public int nextSetBit(final int from) {
+        if (from < 0 || from >= size) {
+            return -1;
+        }
+        return next(0, from);
+    }
+
+    /**
+     * Return the index of the last set bit that is less or equal to from.
+     * @param from - index to start search from
+     * @return index of the set bit or -1 if there is no such bit
+     */
+    public int previousSetBit(final int from) {
+        if (from < 0) {
+            return -1;
+        }
+        return previous(0, Math.min(from, size - 1));
+    }
+
+    private int next(final int level, final int from) {
+        final long[] words = levels[level];
+        final int word = from >>> WORD_SHIFT;
+        if (word >= words.length) {
+            return -1;
+        }
+        final long masked = words[word] & (-1L << from);
+        if (masked != 0) {
+            return (word << WORD_SHIFT) + Long.numberOfTrailingZeros(masked);
+        }
+        if (level + 1 == levels.length) {
+            return -1;
+        }
+        final int nextWord = next(level + 1, word + 1);
+        if (nextWord == -1) {
+            return -1;
+        }
+        return (nextWord << WORD_SHIFT) + Long.numberOfTrailingZeros(words[nextWord]);
+    }
+
+    private int previous(final int level, final int from) {
+        final long[] words = levels[level];
+        final int word = from >>> WORD_SHIFT;
+        final long masked = words[word] & (-1L >>> (WORD_MASK - (from & WORD_MASK)));
+        if (masked != 0) {
+            return (word << WORD_SHIFT) + WORD_MASK - Long.numberOfLeadingZeros(masked);
+        }
+        if (level + 1 == levels.length || word == 0) {
+            return -1;
+        }
+        final int previousWord = previous(level + 1, word - 1);
+        if (previousWord == -1) {
+            return -1;
+        }
+        return (previousWord << WORD_SHIFT) + WORD_MASK - Long.numberOfLeadingZeros(words[previousWord]);
+    }
+
+}
@@ -0,0 +1,160 @@
+package com.github.zvladn7.util;
+
+import java.util.Arrays;
+
+/**
+ * Binary min-heap over a fixed set of ids [0, capacity) keyed by double values.
+ * Every id is present at most once, so its key can be changed or removed in O(log n).
+ * Ids with equal keys are ordered by the id itself.
+ */
+public class IndexedMinHeap {
+
+    private static final int ABSENT = -1;
+
+    private final double[] keys;
+    private final int[] heap;
+    private final int[] positions;
+    private int size;
+
+    public IndexedMinHeap(final int capacity) {
+        this.keys = new double[capacity];
+        this.heap = new int[capacity];
+        this.positions = new int[capacity];
+        Arrays.fill(positions, ABSENT);
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public boolean contains(final int id) {
+        return positions[id] != ABSENT;
+    }
+
+    public double getKey(final int id) {
+        return keys[id];
+    }
+
+    /**
+     * Insert id with the key or change the key of already inserted id.
+     * @param id - id to insert
+     * @param key - new key
+     */
+    public void put(final int id, final double key) {
+        if (contains(id)) {
+            final double oldKey = keys[id];
+            keys[id] = key;
+            if (key < oldKey) {
+                siftUp(positions[id]);
+            } else {
+                siftDown(positions[id]);
+            }
+            return;
+        }
+        keys[id] = key;
+        heap[size] = id;
+        positions[id] = size;
+        siftUp(size++);
+    }
+
+    /**
+     * @return id with the minimal key, heap must not be empty
+     */
+    public int peek() {
+        return heap[0];
+    }
+
+    /**
+     * @return minimal key, heap must not be empty
+     */
+    public double peekKey() {
+        return keys[heap[0]];
+    }
+
+    /**
+     * Remove and return the id with the minimal key, heap must not be empty.
+     */
+    public int poll() {
+        final int id = heap[0];
+        removeAt(0);
+        return id;
+    }
+
+    public void remove(final int id) {
+        if (contains(id)) {
+            removeAt(positions[id]);
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < size; ++i) {
+            positions[heap[i]] = ABSENT;
+        }
+        size = 0;
+    }
+
+    private void removeAt(final int position) {
+        final int id = heap[position];
+        positions[id] = ABSENT;
+        size--;
+        if (position == size) {
+            return;
+        }
+        final int last = heap[size];
+        heap[position] = last;
+        positions[last] = position;
+        siftDown(position);
+        if (heap[position] == last) {
+            siftUp(position);
+        }
+    }
+
+    private boolean less(final int first, final int second) {
+        final double firstKey = keys[first];
+        final double secondKey = keys[second];
+        return firstKey < secondKey || (firstKey == secondKey && first < second);
+    }
+
+    private void siftUp(int position) {
+        final int id = heap[position];
+        while (position > 0) {
+            final int parentPosition = (position - 1) >>> 1;
+            final int parent = heap[parentPosition];
+            if (!less(id, parent)) {
+                break;
+            }
+            heap[position] = parent;
+            positions[parent] = position;
+            position = parentPosition;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+    private void siftDown(int position) {
+        final int id = heap[position];
+        final int half = size >>> 1;
+        while (position < half) {
+            int childPosition = 2 * position + 1;
+            int child = heap[childPosition];
+            final int rightPosition = childPosition + 1;
+            if (rightPosition < size && less(heap[rightPosition], child)) {
+                childPosition = rightPosition;
+                child = heap[childPosition];
+            }
+            if (!less(child, id)) {
+                break;
+            }
+            heap[position] = child;
+            positions[child] = position;
+            position = childPosition;
+        }
+        heap[position] = id;
+        positions[id] = position;
+    }
+
+}
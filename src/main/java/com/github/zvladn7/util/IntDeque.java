@@ -0,0 +1,89 @@
+package com.github.zvladn7.util;
+
+/**
+ * Double ended queue of primitive ints on top of a growable ring array.
+ */
+public class IntDeque {
+
+    private int[] elements;
+    private int head;
+    private int size;
+
+    public IntDeque(final int initialCapacity) {
+        this.elements = new int[Integer.highestOneBit(Math.max(2, initialCapacity - 1)) << 1];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    public void addLast(final int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        elements[(head + size) & (elements.length - 1)] = value;
+        size++;
+    }
+
+    public void addFirst(final int value) {
+        if (size == elements.length) {
+            grow();
+        }
+        head = (head - 1) & (elements.length - 1);
+        elements[head] = value;
+        size++;
+    }
+
+    /**
+     * @return the first element, deque must not be empty
+     */
+    public int pollFirst() {
+        final int value = elements[head];
+        head = (head + 1) & (elements.length - 1);
+        size--;
+        return value;
+    }
+
+    /**
+     * @return the last element, deque must not be empty
+     */
+    public int pollLast() {
+        size--;
+        return elements[(head + size) & (elements.length - 1)];
+    }
+
+    public int peekFirst() {
+        return elements[head];
+    }
+
+    public int peekLast() {
+        return elements[(head + size - 1) & (elements.length - 1)];
+    }
+
+    /**
+     * @param index - index from the head of the deque
+     * @return element on the index
+     */
+    public int get(final int index) {
+        return elements[(head + index) & (elements.length - 1)];
+    }
+
+    public void clear() {
+        head = 0;
+        size = 0;
+    }
+
+    private void grow() {
+        final int[] grown = new int[elements.length << 1];
+        for (int i = 0; i < size; ++i) {
+            grown[i] = get(i);
+        }
+        elements = grown;
+        head = 0;
+    }
+
+}
@@ -1,11 +0,0 @@
-package com.github.zvladn7.util;
-
-public class Pair<K,V> {
-    public K key;
-    public V value;
-
-    public Pair(K key, V value) {
-        this.key = key;
-        this.value = value;
-    }
-}
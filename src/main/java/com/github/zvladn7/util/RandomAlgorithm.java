@@ -0,0 +1,55 @@
+package com.github.zvladn7.util;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Algorithms of random streams of components.
+ */
+public enum RandomAlgorithm {
+    XOSHIRO256_PLUS_PLUS {
+        @Override
+        public RandomStream create(final long seed) {
+            return new Xoshiro256PlusPlus(seed);
+        }
+    },
+    SPLITTABLE {
+        @Override
+        public RandomStream create(final long seed) {
+            final SplittableRandom random = new SplittableRandom(seed);
+            return new RandomStream() {
+                @Override
+                public long nextLong() {
+                    return random.nextLong();
+                }
+
+                @Override
+                public double nextDouble() {
+                    return random.nextDouble();
+                }
+            };
+        }
+    },
+    /**
+     * Linear congruential generator of java.util.Random, kept to compare with the old results.
+     */
+    JDK {
+        @Override
+        public RandomStream create(final long seed) {
+            final Random random = new Random(seed);
+            return new RandomStream() {
+                @Override
+                public long nextLong() {
+                    return random.nextLong();
+                }
+
+                @Override
+                public double nextDouble() {
+                    return random.nextDouble();
+                }
+            };
+        }
+    };
+
+    public abstract RandomStream create(final long seed);
+}
@@ -0,0 +1,39 @@
+package com.github.zvladn7.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Stream of pseudo-random numbers owned by one component, it is not thread-safe.
+ */
+public interface RandomStream {
+
+    long nextLong();
+
+    /**
+     * @return uniformly distributed value in [0, 1) with 53 random bits
+     */
+    default double nextDouble() {
+        return (nextLong() >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * @return true if the position in the stream can be saved with {@link #writeState(DataOutput)}
+     */
+    default boolean isStateSaveable() {
+        return false;
+    }
+
+    /**
+     * Save the position in the stream, so the restored stream continues with the same numbers.
+     */
+    default void writeState(final DataOutput out) throws IOException {
+        throw new UnsupportedOperationException("State of the random stream can not be saved");
+    }
+
+    default void readState(final DataInput in) throws IOException {
+        throw new UnsupportedOperationException("State of the random stream can not be restored");
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.github.zvladn7.util;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Independent deterministic substreams derived from the master seed.
+ * Seed of every substream depends only on the master seed and the key of the substream,
+ * so the numbers of a component do not depend on the order of creation or on the thread which runs it.
+ */
+public class RandomStreams {
+
+    static final long GOLDEN_GAMMA = 0x9e3779b97f4a7c15L;
+
+    private static final long SOURCE_KEY = 1;
+    private static final long DEVICE_KEY = 2;
+    private static final long REPLICATION_KEY = 3;
+    private static final long SELECTION_KEY = 4;
+
+    private final long masterSeed;
+    private final RandomAlgorithm algorithm;
+
+    public RandomStreams(final long masterSeed, final RandomAlgorithm algorithm) {
+        this.masterSeed = masterSeed;
+        this.algorithm = algorithm;
+    }
+
+    public RandomStream sourceStream(final int sourceNumber) {
+        return algorithm.create(substreamSeed(masterSeed, SOURCE_KEY, sourceNumber));
+    }
+
+    public RandomStream deviceStream(final int deviceNumber) {
+        return algorithm.create(substreamSeed(masterSeed, DEVICE_KEY, deviceNumber));
+    }
+
+    /**
+     * @return stream of the random choice of devices
+     */
+    public RandomStream selectionStream() {
+        return algorithm.create(substreamSeed(masterSeed, SELECTION_KEY, 0));
+    }
+
+    /**
+     * @return master seed of the replication with the number
+     */
+    public static long replicationSeed(final long masterSeed, final int replication) {
+        return substreamSeed(masterSeed, REPLICATION_KEY, replication);
+    }
+
+    /**
+     * @return seed for runs which are not asked to be reproducible
+     */
+    public static long randomSeed() {
+        return ThreadLocalRandom.current().nextLong();
+    }
+
+    private static long substreamSeed(final long masterSeed, final long key, final long index) {
+        return mix64(mix64(masterSeed + GOLDEN_GAMMA * key) + GOLDEN_GAMMA * (index + 1));
+    }
+
+    /**
+     * Finalizer of SplitMix64, a bijection which spreads every input bit over the whole result.
+     */
+    static long mix64(final long value) {
+        long z = value;
+        z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+        z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+        return z ^ (z >>> 31);
+    }
+
+}
@@ -0,0 +1,60 @@
+package com.github.zvladn7.util;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+
+/**
+ * Generator xoshiro256++ of Blackman and Vigna with the period 2^256 - 1.
+ * State is filled from the seed by SplitMix64, so close seeds give unrelated streams.
+ */
+public class Xoshiro256PlusPlus implements RandomStream {
+
+    private long s0;
+    private long s1;
+    private long s2;
+    private long s3;
+
+    public Xoshiro256PlusPlus(final long seed) {
+        long x = seed;
+        s0 = RandomStreams.mix64(x += RandomStreams.GOLDEN_GAMMA);
+        s1 = RandomStreams.mix64(x += RandomStreams.GOLDEN_GAMMA);
+        s2 = RandomStreams.mix64(x += RandomStreams.GOLDEN_GAMMA);
+        s3 = RandomStreams.mix64(x + RandomStreams.GOLDEN_GAMMA);
+    }
+
+    @Override
+    public long nextLong() {
+        final long result = Long.rotateLeft(s0 + s3, 23) + s0;
+        final long t = s1 << 17;
+        s2 ^= s0;
+        s3 ^= s1;
+        s1 ^= s2;
+        s0 ^= s3;
+        s2 ^= t;
+        s3 = Long.rotateLeft(s3, 45);
+        return result;
+    }
+
+    @Override
+    public boolean isStateSaveable() {
+        return true;
+    }
+
+    @Override
+    public void writeState(final DataOutput out) throws IOException {
+        out.writeLong(s0);
+        out.writeLong(s1);
+        out.writeLong(s2);
+        out.writeLong(s3);
+    }
+
+    @Override
+    public void readState(final DataInput in) throws IOException {
+        s0 = in.readLong();
+        s1 = in.readLong();
+        s2 = in.readLong();
+        s3 = in.readLong();
+    }
+
+}
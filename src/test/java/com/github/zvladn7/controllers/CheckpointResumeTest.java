@@ -0,0 +1,68 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.RecordingLevel;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Run resumed from the checkpoint must give the same results as the run which was not interrupted,
+ * including the warm-up detection and the batch means.
+ */
+public class CheckpointResumeTest {
+
+    private static final int REQUESTS_NUMBER = 400_000;
+    private static final int STOP_AFTER_REQUESTS = 250_000;
+
+    @Test
+    public void resumedRunIsIdenticalToUninterruptedRun() throws IOException {
+        final Controller.Builder builder = Controller.newBuilder()
+                .setAlpha(1)
+                .setBeta(3)
+                .setLamda(1.2)
+                .setAmountOfSources(6)
+                .setAmountOfDevices(4)
+                .setBufferSize(5)
+                .setRequestsNumber(REQUESTS_NUMBER)
+                .setRecordingLevel(RecordingLevel.STATS_ONLY)
+                .setMetricsEnabled(false)
+                .setWarmupDetection(true)
+                .setBatchMeans(20)
+                .setSeed(42);
+        final byte[] uninterrupted = stateOf(builder.build().modulateWork());
+
+        final Path directory = Files.createTempDirectory("checkpoint-test");
+        final Path checkpointFile = directory.resolve("run.ckpt");
+        try {
+            final Controller controller = builder
+                    .setCheckpointFile(checkpointFile)
+                    .setCheckpointIntervalMillis(0)
+                    .build();
+            controller.modulateWork((currentTime, generatedRequests, analytics) ->
+                    generatedRequests < STOP_AFTER_REQUESTS);
+            assertTrue("Checkpoint is not written", Files.size(checkpointFile) > 0);
+
+            assertArrayEquals(uninterrupted, stateOf(controller.resumeWork(checkpointFile)));
+        } finally {
+            Files.deleteIfExists(checkpointFile);
+            Files.deleteIfExists(checkpointFile.resolveSibling(checkpointFile.getFileName() + ".tmp"));
+            Files.delete(directory);
+        }
+    }
+
+    private static byte[] stateOf(final Analytics analytics) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            analytics.writeState(out);
+        }
+        return bytes.toByteArray();
+    }
+}
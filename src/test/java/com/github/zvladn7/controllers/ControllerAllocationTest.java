@@ -0,0 +1,62 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.RecordingLevel;
+import org.junit.Assume;
+import org.junit.Test;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+
+import static org.junit.Assert.assertTrue;
+
+/**
+ * The simulation loop must not allocate per event: the run without recording
+ * allocates only its setup, which does not depend on the amount of requests.
+ */
+public class ControllerAllocationTest {
+
+    private static final int SHORT_RUN = 10_000;
+    private static final int LONG_RUN = 1_000_000;
+
+    /**
+     * Allowed difference between the runs, far less than a byte per event of the long run.
+     */
+    private static final long ALLOWED_GROWTH_BYTES = 64 * 1024;
+
+    @Test
+    public void allocationDoesNotGrowWithEvents() {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(threadBean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean allocationBean = (com.sun.management.ThreadMXBean) threadBean;
+        Assume.assumeTrue(allocationBean.isThreadAllocatedMemorySupported());
+        allocationBean.setThreadAllocatedMemoryEnabled(true);
+
+        // Warm-up, so class loading and JIT do not count in the measured runs
+        allocatedBytes(allocationBean, LONG_RUN);
+
+        final long shortRun = allocatedBytes(allocationBean, SHORT_RUN);
+        final long longRun = allocatedBytes(allocationBean, LONG_RUN);
+        assertTrue("Run of " + LONG_RUN + " requests allocated " + longRun
+                        + " bytes, run of " + SHORT_RUN + " requests allocated " + shortRun + " bytes",
+                longRun - shortRun < ALLOWED_GROWTH_BYTES);
+    }
+
+    private static long allocatedBytes(final com.sun.management.ThreadMXBean allocationBean, final int requests) {
+        final Controller controller = Controller.newBuilder()
+                .setAlpha(1)
+                .setBeta(2)
+                .setAmountOfSources(10)
+                .setLamda(1.5)
+                .setAmountOfDevices(3)
+                .setBufferSize(5)
+                .setRequestsNumber(requests)
+                .setRecordingLevel(RecordingLevel.NONE)
+                .setMetricsEnabled(false)
+                .setSeed(42)
+                .build();
+        final long threadId = Thread.currentThread().getId();
+        final long before = allocationBean.getThreadAllocatedBytes(threadId);
+        controller.modulateWork();
+        return allocationBean.getThreadAllocatedBytes(threadId) - before;
+    }
+}
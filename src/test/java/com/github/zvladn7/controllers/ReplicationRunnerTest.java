@@ -0,0 +1,59 @@
+package com.github.zvladn7.controllers;
+
+import com.github.zvladn7.analytics.Analytics;
+import com.github.zvladn7.analytics.RecordingLevel;
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+/**
+ * Results of replications depend only on the seed of the controller, not on the amount of threads.
+ */
+public class ReplicationRunnerTest {
+
+    private static final int REPLICATIONS = 8;
+
+    @Test
+    public void parallelRunIsIdenticalToSerialRun() throws IOException {
+        final Controller controller = Controller.newBuilder()
+                .setAlpha(1)
+                .setBeta(3)
+                .setLamda(1.2)
+                .setAmountOfSources(6)
+                .setAmountOfDevices(4)
+                .setBufferSize(5)
+                .setRequestsNumber(50_000)
+                .setSeed(42)
+                .build();
+        final ReplicationResults serial = new ReplicationRunner(controller, REPLICATIONS, 1).run();
+        final ReplicationResults parallel = new ReplicationRunner(controller, REPLICATIONS, 4).run();
+
+        final List<Analytics> serialReplications = serial.getReplications();
+        final List<Analytics> parallelReplications = parallel.getReplications();
+        assertEquals(REPLICATIONS, serialReplications.size());
+        assertEquals(REPLICATIONS, parallelReplications.size());
+        for (int i = 0; i < REPLICATIONS; ++i) {
+            assertArrayEquals("Replication " + i + " differs",
+                    stateOf(serialReplications.get(i)), stateOf(parallelReplications.get(i)));
+        }
+        assertArrayEquals("Merged results differ", stateOf(serial.getMerged()), stateOf(parallel.getMerged()));
+        assertTrue("Replications must have different seeds",
+                !Arrays.equals(stateOf(serialReplications.get(0)), stateOf(serialReplications.get(1))));
+    }
+
+    private static byte[] stateOf(final Analytics analytics) throws IOException {
+        final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            analytics.writeState(out);
+        }
+        return bytes.toByteArray();
+    }
+}
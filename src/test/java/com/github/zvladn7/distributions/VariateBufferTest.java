@@ -0,0 +1,48 @@
+package com.github.zvladn7.distributions;
+
+import com.github.zvladn7.util.RandomAlgorithm;
+import com.github.zvladn7.util.RandomStream;
+import org.junit.Test;
+
+import static org.junit.Assert.assertEquals;
+
+/**
+ * Values drawn in blocks must be the same as values sampled one by one from the same stream.
+ */
+public class VariateBufferTest {
+
+    private static final long SEED = 2020;
+    private static final int VALUES = 10_000;
+
+    /**
+     * Small and not a divisor of the amount of values, so many blocks and the incomplete last one are read.
+     */
+    private static final int BLOCK_SIZE = 7;
+
+    @Test
+    public void uniformBlocksAreSameAsSamples() {
+        assertSameAsSamples(new UniformDistribution(1, 3));
+    }
+
+    @Test
+    public void expUniformBlocksAreSameAsSamples() {
+        assertSameAsSamples(new ExpUniformDistribution(1.2));
+    }
+
+    @Test
+    public void exponentialBlocksAreSameAsSamples() {
+        assertSameAsSamples(new ExponentialDistribution(0.5));
+    }
+
+    private static void assertSameAsSamples(final Distribution distribution) {
+        for (final RandomAlgorithm algorithm : RandomAlgorithm.values()) {
+            final RandomStream sampled = algorithm.create(SEED);
+            final VariateBuffer buffer = new VariateBuffer(distribution, algorithm.create(SEED), BLOCK_SIZE);
+            for (int i = 0; i < VALUES; ++i) {
+                assertEquals(algorithm + " value " + i,
+                        Double.doubleToLongBits(distribution.sample(sampled)),
+                        Double.doubleToLongBits(buffer.next()));
+            }
+        }
+    }
+}